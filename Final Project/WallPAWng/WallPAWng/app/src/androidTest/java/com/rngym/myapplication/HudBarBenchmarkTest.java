@@ -0,0 +1,94 @@
+package com.rngym.myapplication;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Canvas;
+import android.os.SystemClock;
+import android.util.Log;
+import android.view.View;
+import android.widget.ImageView;
+import android.widget.LinearLayout;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.*;
+
+/**
+ * Compares a minute of HUD bar updates (600 ticks at 10 Hz) between the
+ * old LinearLayout of ImageViews, rebuilt every tick, and SegmentedBarView.
+ * Each tick is followed by the measure, layout and draw the UI thread
+ * would do. Timings go to logcat under "HudBarBenchmark".
+ */
+@RunWith(AndroidJUnit4.class)
+public class HudBarBenchmarkTest {
+
+    private static final int TICKS = 600;
+    private static final int SEGMENTS = SegmentedBarView.DEFAULT_SEGMENTS;
+
+    // XP creeping up and resetting on level up, like a real run
+    private static float value(int tick) {
+        return (tick % 150) / 150f;
+    }
+
+    @Test
+    public void segmentedBarBeatsRebuiltImageViews() {
+        Context ctx = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        Bitmap target = Bitmap.createBitmap(64, 400, Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(target);
+        long[] nanos = new long[2];
+        long[] redraws = new long[1];
+
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            // +++ Old: rebuild ten ImageViews per tick +++
+            Bitmap segment = BitmapFactory.decodeResource(ctx.getResources(), R.drawable.progress_exp);
+            LinearLayout container = new LinearLayout(ctx);
+            container.setOrientation(LinearLayout.VERTICAL);
+            long start = SystemClock.elapsedRealtimeNanos();
+            for (int t = 0; t < TICKS; t++) {
+                int lit = Math.round(value(t) * SEGMENTS);
+                container.removeAllViews();
+                for (int i = 0; i < SEGMENTS; i++) {
+                    ImageView view = new ImageView(ctx);
+                    view.setLayoutParams(new LinearLayout.LayoutParams(40, 30));
+                    view.setImageBitmap(segment);
+                    view.setAlpha(i < lit ? 1.0f : 0.2f);
+                    container.addView(view, 0);
+                }
+                layoutAndDraw(container, canvas);
+            }
+            nanos[0] = SystemClock.elapsedRealtimeNanos() - start;
+
+            // +++ New: one view, redrawn when the lit count changes +++
+            SegmentedBarView bar = new SegmentedBarView(ctx);
+            bar.setSprite(SpriteAtlas.get(ctx), SpriteAtlas.EXP_SEGMENT);
+            layoutAndDraw(bar, canvas);
+            start = SystemClock.elapsedRealtimeNanos();
+            for (int t = 0; t < TICKS; t++) {
+                long before = bar.getRedrawCount();
+                bar.setValue(value(t));
+                if (bar.getRedrawCount() != before) bar.draw(canvas);
+            }
+            nanos[1] = SystemClock.elapsedRealtimeNanos() - start;
+            redraws[0] = bar.getRedrawCount();
+        });
+
+        Log.i("HudBarBenchmark", String.format("%d ticks: ImageViews %.2f ms, SegmentedBarView %.2f ms, %d redraws",
+                TICKS, nanos[0] / 1e6, nanos[1] / 1e6, redraws[0]));
+
+        // Only changes of the rounded count redraw: 10 steps up and one reset per level
+        assertEquals(TICKS / 150 * (SEGMENTS + 1) - 1, redraws[0]);
+        assertTrue("SegmentedBarView should be faster", nanos[1] < nanos[0]);
+    }
+
+    private static void layoutAndDraw(View v, Canvas canvas) {
+        int spec = View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED);
+        v.measure(spec, spec);
+        v.layout(0, 0, v.getMeasuredWidth(), v.getMeasuredHeight());
+        v.draw(canvas);
+    }
+}
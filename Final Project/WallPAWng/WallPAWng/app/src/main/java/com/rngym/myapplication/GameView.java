@@ -2,13 +2,12 @@ package com.rngym.myapplication;
 
 import android.content.Context;
 import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
 import android.graphics.Canvas;
 import android.graphics.Color;
 import android.graphics.Paint;
+import android.graphics.PorterDuff;
 import android.graphics.RadialGradient;
 import android.graphics.Rect;
-import android.graphics.RectF;
 import android.graphics.Shader;
 import android.graphics.Typeface;
 import android.media.AudioAttributes;
@@ -19,63 +18,91 @@ import android.view.SurfaceHolder;
 import android.view.SurfaceView;
 import android.view.MotionEvent;
 
-import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.List;
-import java.util.Random;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.InputStream;
+import java.io.Writer;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
 
 public class GameView extends SurfaceView implements Runnable {
 
     // === CORE ===
+    // The simulation thread ticks and publishes snapshots; the render
+    // thread draws the newest one, so a slow lockCanvas never stalls physics
     private final SurfaceHolder holder;
     private Thread thread;
+    private Thread renderThread;
     private volatile boolean running = false;
 
-    // Screen dimensions
-    float screenW = 0;
-    float screenH = 0;
-
-    // === GAME OBJECTS ===
-    public final List<Ball> balls = new ArrayList<>();
-    public final List<Box> boxes = new ArrayList<>();
-
-    // === CAT ===
-    float catX;
-    float catY;
-    float catW;
-    float catH;
-
-    // === SUBSYSTEMS ===
-    final BumperSystem bumperSystem = new BumperSystem();
-    private final PortalSystem portalSystem = new PortalSystem(this);
-    final BlackHoleSystem blackHoleSystem = new BlackHoleSystem();
-    private final UpgradeManager upgradeManager = new UpgradeManager();
-    private final GameState gs = GameState.get();
-
-    private boolean gracePeriodJustEnded = false;
-    boolean gameOverTriggered = false;
-
-    // === CONFIGURATION ===
+    // === CLOCK ===
+    // Drives the loop and popups only; gameplay runs on the simulation clock
+    private Clock clock = Clock.SYSTEM;
 
-    // +++ Cat +++
-    public float catWidthFrac = GameConfig.CAT_WIDTH_FRACTION;
-    public float catHeightPx = GameConfig.CAT_HEIGHT_PX;
-
-    // +++ Ball +++
-    public float ballSizePercent = GameConfig.BALL_SIZE_PERCENT;
-    public float startingVY = GameConfig.STARTING_VY;
-    public float minVX = GameConfig.MIN_VX;
-    public float maxVX = GameConfig.MAX_VX;
+    // === SIMULATION ===
+    private final Simulation sim = new Simulation(clock.currentTimeMillis());
+    private final GameState gs = GameState.get();
 
-    // +++ Box spawning +++
-    private float boxMinWidth = GameConfig.BOX_MIN_WIDTH;
-    private float boxMaxWidth = GameConfig.BOX_MAX_WIDTH;
-    private float boxHeight = GameConfig.BOX_HEIGHT;
-    private int boxMinHP = GameConfig.BOX_MIN_HP;
-    private int boxMaxHP = GameConfig.BOX_MAX_HP;
-    private long lastBoxSpawn = 0L;
-    private long boxSpawnCooldown = GameConfig.BOX_SPAWN_COOLDOWN;
-    private int maxBoxes = GameConfig.MAX_BOXES;
+    // Upgrade picked on the UI thread, applied on the game thread
+    private volatile String pendingUpgrade = null;
+
+    // New run requested on the UI thread, started on the game thread
+    private volatile boolean pendingRun = false;
+    private volatile long pendingRunSeed = 0L;
+
+    // Screen size (w << 32 | h) and title requests from the UI thread, -1 / false when none
+    private final AtomicLong pendingSize = new AtomicLong(-1L);
+    private volatile boolean pendingTitle = false;
+
+    // Read by the UI thread; written once per tick
+    private volatile Simulation.State simState = Simulation.State.TITLE;
+    private volatile long simNowMs = 0L;
+
+    // === SNAPSHOTS ===
+    private final TripleBuffer<WorldSnapshot> snapshots = new TripleBuffer<>(
+            new WorldSnapshot(), new WorldSnapshot(), new WorldSnapshot());
+
+    // === REPLAY ===
+    private static final String REPLAY_FILE = "last_run.wpr";
+    private final ReplayRecorder recorder = new ReplayRecorder();
+    private File replayDir = null;
+
+    // === SAVE STATE ===
+    // Captured in stop() while both threads are parked, written on the save
+    // thread; the spare is reused once its write is done
+    private File saveFile = null;
+    private final AtomicReference<SaveState> spareSave = new AtomicReference<>(new SaveState());
+    private final ExecutorService saveExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "save-state");
+        t.setDaemon(true);
+        t.setPriority(Thread.MIN_PRIORITY);
+        return t;
+    });
+    // Read on the UI thread at startup, loaded on the game thread
+    private volatile SaveState pendingRestore = null;
+    // Set with a restore; cleared by the tap that unpauses it or a new run
+    private volatile boolean awaitingResume = false;
+
+    // === TIMING ===
+    private final FixedTimestep timestep = new FixedTimestep(
+            GameConfig.SIM_TICKS_PER_SECOND, GameConfig.MAX_CATCH_UP_TICKS);
+    private long reportedSkippedTicks = 0L;
+
+    // === PROFILING ===
+    private FrameProfiler profiler = new FrameProfiler(clock);
+    private volatile boolean showPerfOverlay = GameConfig.SHOW_PERF_OVERLAY;
+    private final Paint pPerf = new Paint();
+    private final StringBuilder perfLine = new StringBuilder(64);
+    private char[] perfChars = new char[64];
 
     // === RENDERING ===
 
@@ -88,47 +115,91 @@ public class GameView extends SurfaceView implements Runnable {
     private final Paint pPortal = new Paint();
     private final Paint pBlackHole = new Paint();
     private final Paint pComboText = new Paint();
+    private final Paint pBoxFill = new Paint();
+    private final Paint pBoxText = new Paint();
+    private final Paint pSmallBall = new Paint();
+    private final Paint pTitle = new Paint();
+    private final Paint pHint = new Paint();
+    private final Paint pSprite = new Paint(Paint.FILTER_BITMAP_FLAG);
+    private final Paint pEffectFill = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint pEffectStroke = new Paint(Paint.ANTI_ALIAS_FLAG);
+
+    // +++ Effect shaders +++
+    // Gradients are built once per radius at the origin; pulse and spin come from the canvas
+    private static final int EFFECT_PORTAL_GLOW = 0;
+    private static final int EFFECT_HOLE_GLOW = 1;
+
+    private final EffectCache<Shader> effects = new EffectCache<>(new EffectCache.Factory<Shader>() {
+        @Override
+        public Shader create(int kind, int color, float radius) {
+            float inner = kind == EFFECT_PORTAL_GLOW ? 0.3f : 0f;
+            return new RadialGradient(0f, 0f, radius,
+                    new int[]{color, Color.TRANSPARENT},
+                    new float[]{inner, 1f},
+                    Shader.TileMode.CLAMP);
+        }
+    }, GameConfig.EFFECT_CACHE_CAPACITY, GameConfig.EFFECT_RADIUS_QUANTUM);
+
+    // Unit vectors of the eight black hole spokes
+    private static final float[] SPOKE_COS = new float[8];
+    private static final float[] SPOKE_SIN = new float[8];
+    static {
+        for (int i = 0; i < 8; i++) {
+            double rad = Math.toRadians(i * 45.0);
+            SPOKE_COS[i] = (float) Math.cos(rad);
+            SPOKE_SIN[i] = (float) Math.sin(rad);
+        }
+    }
+
+    // +++ Static layer +++
+    // Boxes and non-rotating bumpers, re-rasterized only when their key changes
+    private Bitmap staticLayer = null;
+    private Canvas staticCanvas = null;
+    private long staticLayerKey = 0L;
+    private boolean staticLayerValid = false;
+    private final Rect staticBounds = new Rect();
+    private long staticRasterCount = 0L;
 
     // +++ Sprites +++
-    private Bitmap catBitmap = null;
-    private Bitmap yarnBitmap = null;
-    private Bitmap portalBitmap = null;
-    private Bitmap blackHoleBitmap = null;
+    private SpriteAtlas atlas = null;
 
     // +++ Cached scaled sprites +++
-    private Bitmap cachedCatBitmap = null;
-    private Bitmap cachedYarnBitmap = null;
-    private float cachedCatW = 0f, cachedCatH = 0f;
-    private float cachedYarnSize = 0f;
+    // Every scaled bitmap comes from here, draw calls never scale
+    // Scaled straight from the sprite's atlas region
+    private final SpriteCache.Scaler<Bitmap> atlasScaler = new SpriteCache.Scaler<Bitmap>() {
+        @Override
+        public Bitmap scale(int spriteId, Bitmap source, int width, int height) {
+            try {
+                return atlas.scaled(spriteId, width, height);
+            } catch (RuntimeException e) {
+                return null;
+            }
+        }
 
-    // +++ Popups +++
-    private static class Popup {
-        String txt;
-        float x, y, vy;
-        long born, life;
-        float scale;
-        Paint p;
-
-        Popup(String t, float x, float y, long born, long life, Paint p) {
-            this.txt = t;
-            this.x = x;
-            this.y = y;
-            this.born = born;
-            this.life = life;
-            this.p = p;
-            this.vy = GameConfig.POPUP_RISE_SPEED;
-            this.scale = 1f;
+        @Override
+        public long byteCount(Bitmap sprite) {
+            return sprite.getAllocationByteCount();
         }
-    }
-    private final List<Popup> popups = new ArrayList<>();
 
-    // === INPUT ===
-    private boolean movingLeft = false;
-    private boolean movingRight = false;
+        // lockCanvas gives a software canvas that draws immediately, so an
+        // evicted sprite is never still queued for drawing
+        @Override
+        public void release(Bitmap sprite) {
+            sprite.recycle();
+        }
+    };
+
+    private final SpriteCache<Bitmap> sprites = new SpriteCache<>(
+            atlasScaler, GameConfig.SPRITE_CACHE_BYTES, GameConfig.SPRITE_SIZE_QUANTUM);
 
-    // === STATE ===
-    public enum State { TITLE, PLAYING, PAUSED }
-    private State state = State.TITLE;
+    // +++ Popups +++
+    // One Paint per life step, each with that step's alpha and text size
+    private final PopupRing popups = new PopupRing(
+            GameConfig.POPUP_CAPACITY, GameConfig.POPUP_LIFETIME, GameConfig.POPUP_RISE_SPEED);
+    private final Paint[] popupPaints = new Paint[GameConfig.POPUP_PAINT_BUCKETS];
+
+    // === INPUT ===
+    private volatile int inputs = 0;
 
     // === LISTENERS ===
     public interface LevelUpListener {
@@ -149,29 +220,13 @@ public class GameView extends SurfaceView implements Runnable {
     private MediaPlayer backgroundMusicPlayer;
     private MediaPlayer titleMusicPlayer;
 
-    // === UTILITIES ===
-    private final Random rnd = new Random();
-
-    // === BOX CLASS ===
-    public static class Box {
-        RectF rect;
-        int hp;
-        int xpReward;
-        int scoreReward;
-
-        Box(RectF r, int hp, int xp, int sc) {
-            rect = r;
-            this.hp = hp;
-            this.xpReward = xp;
-            this.scoreReward = sc;
-        }
-    }
-
     // === CONSTRUCTOR ===
 
     public GameView(Context ctx, AttributeSet attrs) {
         super(ctx, attrs);
         holder = getHolder();
+        sim.setListener(simListener);
+        sim.setProfiler(profiler);
         initPaints();
         initAudio();
         loadSprites();
@@ -190,11 +245,35 @@ public class GameView extends SurfaceView implements Runnable {
 
         // Box paint
         pBox.setColor(0xFFC88C78);
+        pBoxFill.set(pBox);
+        pBoxText.setColor(Color.WHITE);
+        pBoxText.setTextSize(18f);
+        pBoxText.setTextAlign(Paint.Align.CENTER);
+        pBoxText.setStyle(Paint.Style.FILL);
+
+        // Small ball indicator paint
+        pSmallBall.setColor(0x88FFFF00); // Semi-transparent yellow
+        pSmallBall.setStyle(Paint.Style.STROKE);
+        pSmallBall.setStrokeWidth(2f);
+
+        // Title screen paints
+        pTitle.setTextSize(48f);
+        pTitle.setTextAlign(Paint.Align.CENTER);
+        pTitle.setTypeface(Typeface.DEFAULT_BOLD);
+        pHint.setTextSize(18f);
+        pHint.setTextAlign(Paint.Align.CENTER);
 
         // Popup paint
         pPopup.setColor(0xFFFFFFFF);
         pPopup.setTextSize(GameConfig.POPUP_TEXT_SIZE);
         pPopup.setTextAlign(Paint.Align.CENTER);
+        for (int k = 0; k < popupPaints.length; k++) {
+            float lifePct = k / (float) popupPaints.length;
+            Paint p = new Paint(pPopup);
+            p.setAlpha((int)(255 * (1f - lifePct)));
+            p.setTextSize(GameConfig.POPUP_TEXT_SIZE * (1f + (GameConfig.POPUP_SCALE_MAX - 1f) * (1f - lifePct)));
+            popupPaints[k] = p;
+        }
 
         // Portal paint
         pPortal.setColor(0xFF00FFFF);
@@ -204,12 +283,21 @@ public class GameView extends SurfaceView implements Runnable {
         // Black hole paint
         pBlackHole.setColor(0xFF111111);
 
+        // Effect paints, recolored per draw
+        pEffectFill.setStyle(Paint.Style.FILL);
+        pEffectStroke.setStyle(Paint.Style.STROKE);
+
         // Combo text paint
         pComboText.setColor(Color.YELLOW);
         pComboText.setTextSize(32f);
         pComboText.setTextAlign(Paint.Align.CENTER);
         pComboText.setTypeface(Typeface.DEFAULT_BOLD);
         pComboText.setShadowLayer(2.0f, 1.0f, 1.0f, Color.BLACK);
+
+        // Perf overlay paint
+        pPerf.setColor(0xFF66FF66);
+        pPerf.setTextSize(24f);
+        pPerf.setTypeface(Typeface.MONOSPACE);
     }
 
     // === INITIALIZE AUDIO SYSTEM ===
@@ -255,39 +343,20 @@ public class GameView extends SurfaceView implements Runnable {
     }
 
     private void loadSprites() {
+        // One decode for every sprite; packed on the first launch
+        atlas = SpriteAtlas.get(getContext());
+    }
 
-            catBitmap = BitmapFactory.decodeResource(getResources(), R.drawable.cat_sprite);
-            yarnBitmap = BitmapFactory.decodeResource(getResources(), R.drawable.yarnball_red);
-            portalBitmap = BitmapFactory.decodeResource(getResources(), R.drawable.portal_blue);
-            blackHoleBitmap = BitmapFactory.decodeResource(getResources(), R.drawable.black_hole);
-
+    private Bitmap atlasBitmap() {
+        return atlas != null ? atlas.bitmap : null;
     }
 
     // === LIFECYCLE ===
 
     @Override
     protected void onSizeChanged(int w, int h, int oldw, int oldh) {
-        screenW = w;
-        screenH = h;
-
-        // CAT POSITION
-        catW = Math.min(screenW * catWidthFrac, screenW * GameConfig.CAT_MAX_WIDTH_FRACTION);
-        catH = catHeightPx;
-        catX = (screenW - catW) / 2f;
-        catY = screenH - catH - 120f;
-
-        // CACHE SPRITES
-        updateCachedCatBitmap();
-        updateCachedYarnBitmap();
-
-        // INITIAL BUMPERS
-        RectF catSafeZone = new RectF(
-                catX - 120f,
-                catY - 120f,
-                catX + catW + 120f,
-                catY + catH + 120f
-        );
-        bumperSystem.regenerate(screenW, screenH, catSafeZone);
+        // CAT POSITION + INITIAL BUMPERS, applied on the game thread
+        pendingSize.set((long) w << 32 | (h & 0xFFFFFFFFL));
     }
 
     @Override
@@ -295,14 +364,11 @@ public class GameView extends SurfaceView implements Runnable {
         super.onDetachedFromWindow();
 
         // Cleanup cached bitmaps
-        if (cachedCatBitmap != null && cachedCatBitmap != catBitmap) {
-            cachedCatBitmap.recycle();
-            cachedCatBitmap = null;
-        }
-
-        if (cachedYarnBitmap != null && cachedYarnBitmap != yarnBitmap) {
-            cachedYarnBitmap.recycle();
-            cachedYarnBitmap = null;
+        sprites.clear();
+        if (staticLayer != null) {
+            staticLayer.recycle();
+            staticLayer = null;
+            staticCanvas = null;
         }
 
         // Release media players
@@ -317,97 +383,32 @@ public class GameView extends SurfaceView implements Runnable {
         }
     }
 
-    // === BITMAP CACHING ===
-
-
-    private void updateCachedCatBitmap() {
-        if (catBitmap == null) {
-            cachedCatBitmap = null;
-            return;
-        }
-
-        if (cachedCatBitmap != null && cachedCatW == catW && cachedCatH == catH) {
-            return;
-        }
-
-        try {
-            if (cachedCatBitmap != null && cachedCatBitmap != catBitmap) {
-                cachedCatBitmap.recycle();
-            }
-
-            Bitmap result = Bitmap.createBitmap((int)catW, (int)catH, Bitmap.Config.ARGB_8888);
-            Canvas canvas = new Canvas(result);
-
-            // Draw the scaled bitmap centered
-            Rect srcRect = new Rect(0, 0, catBitmap.getWidth(), catBitmap.getHeight());
-            Rect dstRect = new Rect(0, 0, (int)catW, (int)catH);
-            canvas.drawBitmap(catBitmap, srcRect, dstRect, null);
-
-            cachedCatBitmap = result;
-            cachedCatW = catW;
-            cachedCatH = catH;
-        } catch (Exception e) {
-            cachedCatBitmap = null;
-        }
-    }
-
-    private void updateCachedYarnBitmap() {
-        if (yarnBitmap == null) {
-            cachedYarnBitmap = null;
-            return;
-        }
-
-        float targetSize = Math.max(10f, screenW * ballSizePercent);
-
-        if (cachedYarnBitmap != null && Math.abs(cachedYarnSize - targetSize) < 2f) {
-            return;
-        }
-
-        try {
-            if (cachedYarnBitmap != null && cachedYarnBitmap != yarnBitmap) {
-                cachedYarnBitmap.recycle();
-            }
-
-            int size = (int)targetSize;
-            cachedYarnBitmap = Bitmap.createScaledBitmap(
-                    yarnBitmap,
-                    size,
-                    size,
-                    true
-            );
-            cachedYarnSize = targetSize;
-
-        } catch (Exception e) {
-            cachedYarnBitmap = null;
-        }
-    }
-
     // === INPUT HANDLING ===
 
     @Override
     public boolean onTouchEvent(MotionEvent ev) {
         float x = ev.getX();
-        float y = ev.getY();
         int action = ev.getActionMasked();
 
-        if (state == State.TITLE || state == State.PAUSED) {
+        Simulation.State state = simState;
+        if (state == Simulation.State.TITLE || state == Simulation.State.PAUSED) {
+            return true;
+        }
+
+        // A restored run stays paused until the player taps
+        if (awaitingResume) {
+            if (action == MotionEvent.ACTION_DOWN) {
+                awaitingResume = false;
+                gs.setPaused(false);
+            }
             return true;
         }
 
         // Game touch controls
         if (action == MotionEvent.ACTION_DOWN || action == MotionEvent.ACTION_MOVE) {
-            movingLeft = x < screenW / 2f;
-            movingRight = !movingLeft;
-
-            // Ensure balls start moving on first touch
-            for (Ball b : balls) {
-                if (!b.isMoving()) {
-                    b.vx = randomVX();
-                    b.vy = Math.abs(startingVY);
-                }
-            }
+            inputs = x < getWidth() / 2f ? Simulation.INPUT_LEFT : Simulation.INPUT_RIGHT;
         } else if (action == MotionEvent.ACTION_UP || action == MotionEvent.ACTION_CANCEL) {
-            movingLeft = movingRight = false;
+            inputs = 0;
         }
 
         return true;
@@ -417,692 +418,300 @@ public class GameView extends SurfaceView implements Runnable {
 
     @Override
     public void run() {
-        long last = System.currentTimeMillis();
+        timestep.reset(clock.nanoTime());
 
         while (running) {
-            long now = System.currentTimeMillis();
-            float dt = (now - last) / 1000f;
-            last = now;
-
-            // Update subsystems
-            portalSystem.update(now);
-            blackHoleSystem.update(now, (int)screenW, (int)screenH);
-            bumperSystem.update(now);
-
-            // Update gameplay
-            if (state == State.PLAYING && !gs.isPaused()) {
-                updateGameplay(now, dt);
-            }
+            long now = clock.nanoTime();
+            int ticks = timestep.advance(now);
+
+            for (int i = 0; i < ticks; i++) {
+                applyPendingRequests();
+
+                // Apply upgrade picks on the game thread
+                String upgrade = pendingUpgrade;
+                if (upgrade != null) {
+                    pendingUpgrade = null;
+                    recorder.pick(upgrade);
+                    sim.applyUpgrade(upgrade);
+                    gs.setPaused(false);
+                }
 
-            // Render frame
-            render();
+                // Update simulation with exactly what gets recorded; the UI
+                // thread can pause at any time, so the flag is read once
+                int tickInputs = inputs;
+                boolean paused = gs.isPaused();
+                recorder.tick(tickInputs, paused);
+                sim.step(tickInputs, paused, timestep.getTickNanos());
 
-            // Target 60 FPS
-            try {
-                Thread.sleep(GameConfig.FRAME_TIME_MS);
-            } catch (InterruptedException e) {
-                // Ignore
+                if (sim.getState() == Simulation.State.PLAYING && !paused) {
+                    updatePopups();
+                }
             }
-        }
-    }
-
-    private void updateGameplay(long now, float dt) {
-
-        if (!gracePeriodJustEnded && (now - gs.getGameStartTime() >= GameConfig.EARLY_GAME_GRACE_PERIOD_MS)) {
-            gracePeriodJustEnded = true;
-
-            lastBoxSpawn = now;
-            bumperSystem.primeSpawnTimer(now);
-            portalSystem.primeSpawnTimer(now);
-            blackHoleSystem.primeSpawnTimer(now);
-        }
-
-        // Move cat
-        updateCatMovement();
-
-        // Update balls
-        updateBalls(now);
-
-        // Remove expired small balls
-        removeExpiredSmallBalls();
 
-        // Update spawners
-        updateBoxSpawner(now);
-
-        // Update popups
-        updatePopups();
-
-        float currentStress = GameState.get().getStress();
-        float newStress = Math.max(0f, currentStress - GameConfig.STRESS_DECAY_RATE);
-        GameState.get().setStress(newStress);
-
-        checkLevelUp();
-
-    }
-
-    private void updateCatMovement() {
-        float catSpeed = GameConfig.CAT_SPEED;
-
-        if (movingLeft) {
-            catX -= catSpeed;
-        }
-        if (movingRight) {
-            catX += catSpeed;
-        }
-
-        // Clamp to screen bounds
-        if (catX < 0) catX = 0;
-        if (catX + catW > screenW) catX = screenW - catW;
-    }
-
-    private void enforceMinimumSpeed(Ball ball) {
-        float currentSpeed = (float) Math.sqrt(ball.vx * ball.vx + ball.vy * ball.vy);
-        if (currentSpeed < GameConfig.MIN_SPEED_AFTER_COLLISION) {
-            float scale = GameConfig.MIN_SPEED_AFTER_COLLISION / (currentSpeed + 0.001f); // Add small value to prevent division by zero
-            ball.vx *= scale;
-            ball.vy *= scale;
-        }
-    }
-
-    private void updateBalls(long now) {
-        List<Ball> snapshot = new ArrayList<>(balls);
-
-        for (Ball ball : snapshot) {
-            float totalDx = ball.vx;
-            float totalDy = ball.vy;
-
-            // SUBSTEPS CALCULATION
-            int steps = Math.max(1, (int) Math.ceil(Math.hypot(totalDx, totalDy) / GameConfig.SUBSTEP_DISTANCE));
-            float stepDx = totalDx / steps;
-            float stepDy = totalDy / steps;
-
-            for (int step = 0; step < steps; step++) {
-                ball.x += stepDx;
-                ball.y += stepDy;
-
-                // Check for collisions after each small move
-                handleWallCollisions(ball);
-                handleBumperCollisions(ball);
-                handleBoxCollisions(ball);
-                handleCatCollision(ball);
-                handleBottomMiss(ball);
-
-                blackHoleSystem.applyPull(ball);
+            if (timestep.getSkippedTicks() != reportedSkippedTicks) {
+                reportedSkippedTicks = timestep.getSkippedTicks();
+                android.util.Log.w("GameView", "Frame too slow, skipped ticks: " + reportedSkippedTicks
+                        + ", caught up: " + timestep.getCaughtUpTicks());
             }
 
-            // Apply portal teleportation after all movement for the frame is done
-            handlePortalTeleport(ball, now);
-
-            // Ensure ball is moving
-            if (!ball.isMoving()) {
-                ball.vx = randomVX();
-                ball.vy = Math.abs(startingVY);
+            if (ticks > 0) {
+                publishSnapshot(now);
+                gs.publishHud();
             }
 
-            enforceMinimumSpeed(ball);
-
-            // Clamp velocity to max speed
-            PhysicsEngine.clampVelocity(ball);
+            LockSupport.parkNanos(timestep.nanosUntilNextTick());
         }
     }
 
-    private void handleWallCollisions(Ball ball) {
-        // Left wall
-        if (ball.x <= 0) {
-            ball.x = 0;
-            ball.vx = Math.abs(ball.vx) * GameConfig.WALL_BOUNCE_DAMPING;
+    // Size, title and run requests from the UI thread, in that order
+    private void applyPendingRequests() {
+        long size = pendingSize.getAndSet(-1L);
+        if (size >= 0L) {
+            sim.setScreenSize(size >>> 32, size & 0xFFFFFFFFL);
         }
 
-        // Right wall
-        if (ball.x + ball.r >= screenW) {
-            ball.x = screenW - ball.r;
-            ball.vx = -Math.abs(ball.vx) * GameConfig.WALL_BOUNCE_DAMPING;
+        if (pendingTitle) {
+            pendingTitle = false;
+            sim.setState(Simulation.State.TITLE);
         }
 
-        // Top wall (ceiling)
-        if (ball.y <= 80f) {
-            ball.y = 80f;
-            ball.vy = Math.abs(ball.vy) * GameConfig.WALL_BOUNCE_DAMPING;
+        if (pendingRun) {
+            pendingRun = false;
+            saveReplay();
+            sim.beginRun(pendingRunSeed);
+            popups.clear();
+            recorder.begin(sim, timestep.getTickNanos());
         }
-    }
-
-    private void handleBumperCollisions(Ball ball) {
-        long now = System.currentTimeMillis();
 
-        if (now - ball.lastCollisionTimeMs < Ball.COLLISION_COOLDOWN_MS) {
-            return;
-        }
-
-        RectF ballRect = new RectF(ball.x, ball.y, ball.x + ball.r, ball.y + ball.r);
-        Bumper hit = bumperSystem.firstIntersecting(ballRect);
-
-        if (hit != null) {
-            ball.lastCollisionTimeMs = now;
-
-            // Calculate the center of the ball and bumper
-//            float ballCenterX = ball.centerX();
-//            float ballCenterY = ball.centerY();
-//            float bumperCenterX = hit.rect.centerX();
-//            float bumperCenterY = hit.rect.centerY();
-
-            // Calculate overlap on each axis
-            float overlapLeft = ballRect.right - hit.rect.left;
-            float overlapRight = hit.rect.right - ballRect.left;
-            float overlapTop = ballRect.bottom - hit.rect.top;
-            float overlapBottom = hit.rect.bottom - ballRect.top;
-
-            // Find the smallest overlap to determine the best direction to push the ball
-            float minOverlap = Math.min(Math.min(overlapLeft, overlapRight), Math.min(overlapTop, overlapBottom));
-
-            // Teleport ball to safety based on the smallest overlap
-            if (minOverlap == overlapLeft) {
-                // Ball hit the left side, push it left
-                ball.x = hit.rect.left - ball.r - 1f;
-                ball.vx = -Math.abs(ball.vx) * hit.bounce;
-            } else if (minOverlap == overlapRight) {
-
-                // Ball hit the right side, push it right
-                ball.x = hit.rect.right + 1f;
-                ball.vx = Math.abs(ball.vx) * hit.bounce;
-            } else if (minOverlap == overlapTop) {
-
-                // Ball hit the top, push it up
-                ball.y = hit.rect.top - ball.r - 1f;
-                ball.vy = -Math.abs(ball.vy) * hit.bounce;
-            } else {
-
-                // Ball hit the bottom, push it down
-                ball.y = hit.rect.bottom + 1f;
-                ball.vy = Math.abs(ball.vy) * hit.bounce;
-            }
-
-            // Add a small random kick to prevent predictable bouncing
-            ball.vx += (rnd.nextFloat() - 0.5f) * 2f;
-
-            // Ensure minimum speed and clamp velocity
-            enforceMinimumSpeed(ball);
-            PhysicsEngine.clampVelocity(ball);
-
-
-            // Reward
-            gs.addScore(1);
-            spawnPopup("+1", ball.centerX(), ball.centerY());
+        SaveState restore = pendingRestore;
+        if (restore != null) {
+            pendingRestore = null;
+            // A resumed run didn't start from its seed, so it can't be replayed
+            recorder.stop();
+            restore.restore(sim);
+            popups.clear();
         }
     }
 
-    private void handlePortalTeleport(Ball ball, long now) {
-        RectF ballRect = new RectF(ball.x, ball.y, ball.x + ball.r, ball.y + ball.r);
-
-        PortalSystem.Portal hitPortal = portalSystem.whichPortal(
-                ballRect,
-                ball.lastTeleportedAt,
-                ball.teleportCooldown,
-                now
-        );
-
-        if (hitPortal != null) {
-            PortalSystem.Portal dest = portalSystem.getLinked(hitPortal);
-
-            if (dest != null) {
-                ball.lastTeleportedAt = now;
-                float cx = dest.rect.centerX();
-                float cy = dest.rect.centerY();
-                ball.setCenter(cx, cy);
-            }
-        }
+    private void publishSnapshot(long now) {
+        long tickNanos = timestep.getTickNanos();
+        long tickStart = now - (long) (timestep.alpha() * tickNanos);
+        snapshots.back().capture(sim, popups, tickStart, tickNanos);
+        snapshots.publish();
+        simState = sim.getState();
+        simNowMs = sim.now();
     }
 
-    private void handleBoxCollisions(Ball ball) {
-        RectF ballRect = new RectF(ball.x, ball.y, ball.x + ball.r, ball.y + ball.r);
-        Iterator<Box> it = boxes.iterator();
-
-        while (it.hasNext()) {
-            Box box = it.next();
-
-            if (RectF.intersects(ballRect, box.rect)) {
-
-                // Calculate overlap on each axis
-                float overlapLeft = ballRect.right - box.rect.left;
-                float overlapRight = box.rect.right - ballRect.left;
-                float overlapTop = ballRect.bottom - box.rect.top;
-                float overlapBottom = box.rect.bottom - ballRect.top;
-
-                // Find the smallest overlap and push the ball out in that direction
-                float minOverlapX = Math.min(overlapLeft, overlapRight);
-                float minOverlapY = Math.min(overlapTop, overlapBottom);
-
-                if (minOverlapX < minOverlapY) {
-                    // Push horizontally
-                    if (overlapLeft < overlapRight) {
-                        ball.x -= minOverlapX + 1f; // Push left
-                    } else {
-                        ball.x += minOverlapX + 1f; // Push right
-                    }
-                } else {
-                    // Push vertically
-                    if (overlapTop < overlapBottom) {
-                        ball.y -= minOverlapY + 1f; // Push up
-                    } else {
-                        ball.y += minOverlapY + 1f; // Push down
-                    }
-                }
-
-                // Bounce ball
-                ball.vy = -ball.vy * GameConfig.BOUNCE_DAMPING;
-                PhysicsEngine.clampVelocity(ball);
-
-                // Damage the box
-                box.hp -= 1;
+    // === RENDER LOOP ===
 
-                if (box.hp <= 0) {
-                    // Box destroyed -> apply rewards
-                    gs.addScore(box.scoreReward);
-                    gs.addXP(box.xpReward);
+    private final Runnable renderLoop = new Runnable() {
+        @Override
+        public void run() {
+            while (running) {
+                long frameStart = profiler.now();
+                WorldSnapshot s = snapshots.latest();
 
-                    spawnPopup("+" + box.xpReward + " XP", box.rect.centerX(), box.rect.centerY());
-                    spawnPopup("+" + box.scoreReward, box.rect.centerX(), box.rect.centerY() + 20f);
-
-                    it.remove();
-                } else {
-                    // Box still has HP
-                    spawnPopup(String.valueOf(box.hp), box.rect.centerX(), box.rect.centerY());
+                // Between the snapshot's last two ticks; the surface paces us to the display
+                boolean rendered = render(s, interpolation(s, clock.nanoTime()));
+                profiler.record(FrameProfiler.FRAME, frameStart);
+                if (!rendered) {
+                    LockSupport.parkNanos(timestep.getTickNanos());
                 }
-
-                return;
             }
         }
-    }
-
-    private void handleCatCollision(Ball ball) {
-        RectF catRect = new RectF(catX, catY, catX + catW, catY + catH);
-
-        // Only catch if ball is moving downward
-        if (ball.vy > 0 && PhysicsEngine.contactTop(ball, catRect)) {
-            // Calculate bounce angle based on hit position
-            float catCenter = catX + catW / 2f;
-            float hitPos = ball.centerX() - catCenter;
-            float norm = hitPos / (catW / 2f);
+    };
 
-            ball.vx += norm * 4f;
-            ball.vy = -Math.abs(ball.vy) - 1.2f;
-            PhysicsEngine.clampVelocity(ball);
-
-            // Register catch for combo system
-            gs.registerCatch();
-
-            // Get combo multiplier
-            float comboMult = gs.getComboMultiplier();
-            int comboCount = gs.getCombo();
-
-            // Calculate base rewards
-            int baseXP = GameConfig.BASE_XP_PER_CATCH;
-            int baseScore = GameConfig.SCORE_PER_CATCH;
+    private static float interpolation(WorldSnapshot s, long now) {
+        if (s.tickNanos <= 0L) return 1f;
+        float alpha = (now - s.tickStartNanos) / (float) s.tickNanos;
+        return Math.max(0f, Math.min(1f, alpha));
+    }
 
-            // Apply upgrade bonuses
-            if (gs.hasUpgrade("score_x2")) {
-                baseScore *= 2;
-            }
+    public long getCaughtUpTicks() {
+        return timestep.getCaughtUpTicks();
+    }
 
-            // Apply combo multiplier
-            int finalXP = (int)(baseXP * comboMult);
-            int finalScore = (int)(baseScore * comboMult);
+    public long getSkippedTicks() {
+        return timestep.getSkippedTicks();
+    }
 
-            // Grant rewards
-            gs.addXP(finalXP);
-            gs.addScore(finalScore);
+    // === SIMULATION EVENTS ===
 
-            // Reduce stress
-            float stressReduction = GameConfig.STRESS_ON_CATCH;
-            if (gs.hasUpgrade("stress_reducer")) {
-                stressReduction -= 5f;
-            }
-            gs.addStress(stressReduction);
+    private final Simulation.Listener simListener = new Simulation.Listener() {
+        @Override
+        public void onPopup(String template, int a, int b, float x, float y) {
+            popups.spawn(template, a, b, x, y, clock.currentTimeMillis());
+        }
 
-            // Play hit sound
+        @Override
+        public void onCatch() {
             if (soundHit > 0) {
                 soundPool.play(soundHit, 1.0f, 1.0f, 0, 0, 1.0f);
             }
-
-            // Show popups with combo info
-            if (comboCount > 1) {
-                spawnPopup("+" + finalXP + " XP (x" + comboCount + ")", ball.centerX(), ball.centerY());
-            } else {
-                spawnPopup("+" + finalXP + " XP", ball.centerX(), ball.centerY());
-            }
-
-            spawnPopup("+" + finalScore, ball.centerX(), ball.centerY() + 40f);
-
-            // Show special combo milestone popups
-            if (comboCount == 5) {
-                spawnPopup("5 COMBO! 1.5x MULTIPLIER!", screenW / 2f, screenH * 0.3f);
-            } else if (comboCount == 10) {
-                spawnPopup("10 COMBO! 2x MULTIPLIER!", screenW / 2f, screenH * 0.3f);
-            } else if (comboCount == 20) {
-                spawnPopup("20 COMBO! 3x MULTIPLIER!", screenW / 2f, screenH * 0.3f);
-            }
-            checkLevelUp();
         }
-    }
-
-    private void handleBottomMiss(Ball ball) {
-        if (ball.y > screenH + 200f) {
-            // Check for cat_reflect upgrade
-            if (gs.hasUpgrade("cat_reflect")) {
-                gs.removeUpgrade("cat_reflect");
-                ball.vy = -Math.abs(startingVY) * 1.5f;
-                spawnPopup("SAVED!", ball.centerX(), screenH / 2f);
-                return;
-            }
-
-            // Break combo on miss
-            int lostCombo = gs.getCombo();
-            gs.registerMiss();
 
-            // Show combo lost message if there was a combo
-            if (lostCombo >= 5) {
-                spawnPopup("COMBO LOST! (" + lostCombo + ")", screenW / 2f, screenH * 0.4f);
-            }
-
-            // Add stress
-            gs.addStress(GameConfig.STRESS_ON_MISS);
-            gs.addScore(GameConfig.SCORE_PENALTY_ON_MISS);
-
-            checkGameOver();
-
-            // Play miss sound
+        @Override
+        public void onMiss() {
             if (soundMiss > 0) {
                 soundPool.play(soundMiss, 1.0f, 1.0f, 0, 0, 1.0f);
             }
-
-            // Respawn ball at cat position
-            ball.x = catX + catW / 2f - ball.r / 2f;
-            ball.y = catY - ball.r - 8f;
-            ball.vx = randomVX();
-            ball.vy = -Math.abs(startingVY);
         }
-    }
-
-    private void removeExpiredSmallBalls() {
-        balls.removeIf(Ball::isExpired);
-    }
-
-    public void resetGameOverFlag() {
-        this.gameOverTriggered = false;
-    }
-
-    private void checkGameOver() {
-        // If game over has already been triggered, do nothing
-        if (gameOverTriggered) {
-            return;
-        }
-
-        float currentStress = gs.getStress();
-        float maxStress = gs.getMaxStress();
-
-        // --- DIAGNOSTIC LOGGING --- DEV NOTES: WENT THRU AN 4 HOUR DEBUGGING BECAUSE OF STRESS AND GAMEOVER FEATURE
-        android.util.Log.e("GameView_GameOver", "--- DIAGNOSTIC CHECK ---");
-        android.util.Log.e("GameView_GameOver", "currentStress (float): " + currentStress);
-        android.util.Log.e("GameView_GameOver", "maxStress (float): " + maxStress);
-
-        // Explicitly cast to double for comparison to avoid any float weirdness
-        double currentStressD = (double) currentStress;
-        double maxStressD = (double) maxStress;
-
-        android.util.Log.e("GameView_GameOver", "currentStress (double): " + currentStressD);
-        android.util.Log.e("GameView_GameOver", "maxStress (double): " + maxStressD);
-        android.util.Log.e("GameView_GameOver", "Listener is null: " + (gameOverListener == null));
-        android.util.Log.e("GameView_GameOver", "State is: " + state);
-        android.util.Log.e("GameView_GameOver", "gameOverTriggered is: " + gameOverTriggered);
-        // --- END DIAGNOSTIC LOGGING --- DEV NOTES: 5 CUPS OF COFFEE AND A DREAM
-
-        if (currentStressD > (maxStressD - 0.01)) {
-            android.util.Log.e("GameView_GameOver", "!!! CONDITION MET !!! ENTERING GAME OVER BLOCK.");
-
-            gameOverTriggered = true; // Set flag to true immediately
-
-            // Update high score first
-            gs.maybeUpdateHighScore();
-
-            // Stop the game immediately
-            gs.setPaused(true);
-            state = State.PAUSED;
-
-            // Call listener if it exists
-            if (gameOverListener != null) {
-                int finalScore = gs.getScore();
-                int highScore = gs.getHighScore();
-                gameOverListener.onGameOver(finalScore, highScore);
-            } else {
-                android.util.Log.e("GameView_GameOver", "CRITICAL: gameOverListener is NULL!");
-            }
-        } else {
-            android.util.Log.e("GameView_GameOver", "!!! CONDITION NOT MET !!!");
-        }
-    }
-
-    private void checkLevelUp() {
-        int currentLevel = gs.getLevel();
-        int currentXp = gs.getXP();
-        int xpNeeded = GameConfig.xpForLevel(currentLevel);
-
-        if (currentXp >= xpNeeded) {
-
-            // Pause the game first
-            gs.setPaused(true);
-
-            // Calculate the carry-over XP before leveling up
-            int carryOverXp = currentXp - xpNeeded;
-
-            // Manually level up the player
-            gs.levelUp(); // This increments level and resets XP to 0
-
-            // Add back the carry-over XP
-            gs.addXP(carryOverXp);
-
-            // Generate and show upgrade choices
-            UpgradeManager.Choice[] choices = upgradeManager.generate(3);
 
+        @Override
+        public void onLevelUp(int level, int xp, UpgradeManager.Choice[] choices) {
             if (levelUpListener != null) {
-                levelUpListener.onLevelUp(gs.getLevel(), gs.getXP(), choices);
+                levelUpListener.onLevelUp(level, xp, choices);
             } else {
                 // Resume the game if the listener is missing to prevent a soft-lock
                 gs.setPaused(false);
             }
-            // Check for another level up in case carry-over XP is enough
-            checkLevelUp();
-        }
-    }
-
-    // === BOX SPAWNER ===
-
-    private void updateBoxSpawner(long now) {
-
-        if (now - gs.getGameStartTime() < GameConfig.EARLY_GAME_GRACE_PERIOD_MS) {
-            return;
-        }
-
-        long adjustedCooldown = GameConfig.getAdjustedBoxSpawnCooldown(gs.getLevel());
-        int adjustedMaxBoxes = GameConfig.getMaxBoxesForLevel(gs.getLevel());
-
-        if (now - lastBoxSpawn < adjustedCooldown) return;
-        if (boxes.size() >= adjustedMaxBoxes) return;
-
-        if (trySpawnBox(now)) {
-            lastBoxSpawn = now;
-        }
-    }
-
-    private boolean trySpawnBox(long now) {
-        if (screenW <= 0 || screenH <= 0) return false;
-
-        // Randomize properties
-        float width = boxMinWidth + rnd.nextFloat() * (boxMaxWidth - boxMinWidth);
-        int hp = boxMinHP + rnd.nextInt(boxMaxHP - boxMinHP + 1);
-
-        // Scale HP with level
-        hp = GameConfig.getBoxHPForLevel(gs.getLevel(), hp);
-
-        // Calculate rewards
-        int xpReward = hp * GameConfig.BOX_XP_PER_HP + gs.getLevel();
-        int scoreReward = hp * GameConfig.BOX_SCORE_PER_HP + gs.getLevel() * 2;
-
-        // Try to find safe spawn position
-        for (int attempt = 0; attempt < 20; attempt++) {
-            float left = 40f + rnd.nextFloat() * (screenW - width - 80f);
-            float top = screenH * 0.15f + rnd.nextFloat() * (screenH * 0.40f);
-
-            RectF newBoxRect = new RectF(left, top, left + width, top + boxHeight);
-
-            if (isValidBoxPosition(newBoxRect)) {
-                boxes.add(new Box(newBoxRect, hp, xpReward, scoreReward));
-                return true;
-            }
-        }
-
-        return false;
-    }
-
-    private boolean isValidBoxPosition(RectF newBox) {
-        // Check existing boxes
-        for (Box existing : boxes) {
-            if (RectF.intersects(newBox, existing.rect)) {
-                return false;
-            }
         }
 
-        // Check bumpers
-        for (Bumper bumper : bumperSystem.getBumpers()) {
-            if (bumper != null && bumper.rect != null) {
-                if (RectF.intersects(newBox, bumper.rect)) {
-                    return false;
-                }
-            }
-        }
+        @Override
+        public void onGameOver(int finalScore, int highScore) {
+            saveReplay();
+            recorder.stop();
+            // The game-over screen reads the final numbers from the HUD snapshot
+            gs.publishHud();
 
-        // Check cat zone
-        RectF catZone = new RectF(
-                catX - 60f,
-                catY - 100f,
-                catX + catW + 60f,
-                catY + catH + 60f
-        );
-        if (RectF.intersects(newBox, catZone)) {
-            return false;
-        }
-
-        // Check balls
-        for (Ball ball : balls) {
-            RectF ballRect = new RectF(ball.x, ball.y, ball.x + ball.r, ball.y + ball.r);
-            if (RectF.intersects(newBox, ballRect)) {
-                return false;
+            if (gameOverListener != null) {
+                gameOverListener.onGameOver(finalScore, highScore);
+            } else {
+                android.util.Log.e("GameView_GameOver", "CRITICAL: gameOverListener is NULL!");
             }
         }
-
-        return true;
-    }
+    };
 
     // === POPUPS ===
 
-    private void spawnPopup(String txt, float x, float y) {
-        Paint pp = new Paint(pPopup);
-        pp.setTextSize(GameConfig.POPUP_TEXT_SIZE);
-        pp.setTextAlign(Paint.Align.CENTER);
-        popups.add(new Popup(txt, x, y, System.currentTimeMillis(), GameConfig.POPUP_LIFETIME, pp));
-    }
-
     private void updatePopups() {
-        Iterator<Popup> it = popups.iterator();
-        long now = System.currentTimeMillis();
-
-        while (it.hasNext()) {
-            Popup p = it.next();
-            float age = now - p.born;
-
-            if (age > p.life) {
-                it.remove();
-                continue;
-            }
-
-            float lifePct = age / (float)p.life;
-            p.y += p.vy * (1f - lifePct * 0.5f);
-            p.scale = 1f + (GameConfig.POPUP_SCALE_MAX - 1f) * (1f - lifePct);
-            p.p.setAlpha((int)(255 * (1f - lifePct)));
-        }
+        popups.update(clock.currentTimeMillis());
     }
 
     // === RENDERING ===
 
-    private void render() {
-        if (!holder.getSurface().isValid()) return;
+    private boolean render(WorldSnapshot s, float alpha) {
+        if (!holder.getSurface().isValid()) return false;
 
+        long t = profiler.now();
         Canvas c = holder.lockCanvas();
-        if (c == null) return;
+        if (c == null) return false;
+        t = profiler.record(FrameProfiler.LOCK_CANVAS, t);
 
         // Clear screen
         c.drawColor(0xFF000000);
 
         // Draw game elements
-        if (state == State.TITLE) {
-            drawTitleScreen(c);
+        if (s.state == Simulation.State.TITLE) {
+            drawTitleScreen(c, s);
         } else {
-            drawGameArea(c);
+            drawGameArea(c, s, alpha);
+            if (awaitingResume) drawResumeHint(c, s);
         }
 
         // Draw popups last (always on top)
-        drawPopups(c);
+        drawPopups(c, s);
+
+        if (showPerfOverlay) {
+            drawPerfOverlay(c, s);
+        }
+        t = profiler.record(FrameProfiler.DRAW, t);
 
         holder.unlockCanvasAndPost(c);
+        profiler.record(FrameProfiler.UNLOCK_POST, t);
+        return true;
     }
 
-    private void drawTitleScreen(Canvas c) {
-        // Draw title text
-        Paint titlePaint = new Paint();
-        titlePaint.setColor(Color.WHITE);
-        titlePaint.setTextSize(48f);
-        titlePaint.setTextAlign(Paint.Align.CENTER);
-        titlePaint.setTypeface(Typeface.DEFAULT_BOLD);
+    // One line per phase: p50 / p99 / p99.9 / max in microseconds
+    private void drawPerfOverlay(Canvas c, WorldSnapshot s) {
+        float y = 160f;
+        for (int p = 0; p < FrameProfiler.PHASE_COUNT; p++) {
+            LatencyHistogram h = profiler.get(p);
+            perfLine.setLength(0);
+            perfLine.append(FrameProfiler.name(p))
+                    .append("  ").append(h.percentile(0.50) / 1000L)
+                    .append(" / ").append(h.percentile(0.99) / 1000L)
+                    .append(" / ").append(h.percentile(0.999) / 1000L)
+                    .append(" / ").append(h.getMax() / 1000L).append(" us");
+
+            y = drawPerfLine(c, y);
+        }
 
-        c.drawText("WallPAWng", screenW / 2f, screenH * 0.3f, titlePaint);
+        perfLine.setLength(0);
+        perfLine.append("sprites ").append(sprites.size())
+                .append("  ").append(sprites.getUsedBytes() / 1024L).append(" KB")
+                .append("  hit ").append(sprites.getHits())
+                .append(" miss ").append(sprites.getMisses())
+                .append(" evict ").append(sprites.getEvictions());
+        y = drawPerfLine(c, y);
+
+        perfLine.setLength(0);
+        perfLine.append("static layer rasters ").append(staticRasterCount)
+                .append("  effects ").append(effects.size())
+                .append(" miss ").append(effects.getMisses());
+        y = drawPerfLine(c, y);
+
+        // Pool hit / miss as of the drawn snapshot
+        perfLine.setLength(0);
+        perfLine.append("pools  box ").append(s.boxPoolHits).append('/').append(s.boxPoolMisses)
+                .append("  bumper ").append(s.bumperPoolHits).append('/').append(s.bumperPoolMisses)
+                .append("  portal ").append(s.portalPoolHits).append('/').append(s.portalPoolMisses);
+        drawPerfLine(c, y);
+    }
+
+    private float drawPerfLine(Canvas c, float y) {
+        int n = perfLine.length();
+        if (n > perfChars.length) perfChars = new char[n * 2];
+        perfLine.getChars(0, n, perfChars, 0);
+        c.drawText(perfChars, 0, n, 20f, y, pPerf);
+        return y + 28f;
+    }
+
+    private void drawTitleScreen(Canvas c, WorldSnapshot s) {
+        float screenW = s.screenW;
+        float screenH = s.screenH;
+
+        // Draw title text
+        pTitle.setColor(Color.WHITE);
+        c.drawText("WallPAWng", screenW / 2f, screenH * 0.3f, pTitle);
 
         // Draw play hint
-        Paint hintPaint = new Paint();
-        hintPaint.setColor(Color.LTGRAY);
-        hintPaint.setTextSize(18f);
-        hintPaint.setTextAlign(Paint.Align.CENTER);
+        pHint.setColor(Color.LTGRAY);
+        c.drawText("Tap to Start", screenW / 2f, screenH * 0.5f, pHint);
+    }
 
-        c.drawText("Tap to Start", screenW / 2f, screenH * 0.5f, hintPaint);
+    private void drawResumeHint(Canvas c, WorldSnapshot s) {
+        pHint.setColor(Color.WHITE);
+        c.drawText("Tap to Resume", s.screenW / 2f, s.screenH * 0.5f, pHint);
     }
 
    // === GAME ELEMENTS ===
-    private void drawGameArea(Canvas c) {
+    private void drawGameArea(Canvas c, WorldSnapshot s, float alpha) {
         // 1. Draw portals (behind everything else)
-        drawPortals(c);
+        drawPortals(c, s);
 
         // 2. Draw black hole
-        drawBlackHole(c);
+        drawBlackHoles(c, s);
 
-        // 3. Draw bumpers
-        drawBumpers(c);
+        // 3. Draw rotating bumpers
+        drawRotatingBumpers(c, s);
 
-        // 4. Draw boxes
-        drawBoxes(c);
+        // 4. Draw static bumpers and boxes in one blit
+        drawStaticLayer(c, s);
 
         // 5. Draw balls
-        drawBalls(c);
+        drawBalls(c, s, alpha);
 
         // 6. Draw cat (on top of balls)
-        drawCat(c);
+        drawCat(c, s, alpha);
     }
 
-    private void drawPortals(Canvas c) {
-        PortalSystem.Portal pA = portalSystem.getA();
-        PortalSystem.Portal pB = portalSystem.getB();
-
-        if (pA == null || pB == null) return;
+    private void drawPortals(Canvas c, WorldSnapshot s) {
+        if (!s.portalsActive) return;
 
-        long now = System.currentTimeMillis();
-        long age = now - pA.spawnMs;
-        float agePct = age / (float)pA.durationMs;
+        long now = s.nowMs;
+        long age = now - s.portalSpawnMs;
+        float agePct = age / (float)s.portalDurationMs;
 
         // Pulse animation
         float pulse = 1f + 0.15f * (float)Math.sin(age * 0.005f);
@@ -1115,71 +724,46 @@ public class GameView extends SurfaceView implements Runnable {
         }
 
         // Draw both portals
-        drawSinglePortal(c, pA, pulse, alpha, 0xFF00FFFF); // Cyan
-        drawSinglePortal(c, pB, pulse, alpha, 0xFFFF00FF); // Magenta
+        drawSinglePortal(c, s.portalA, pulse, alpha, 0xFF00FFFF); // Cyan
+        drawSinglePortal(c, s.portalB, pulse, alpha, 0xFFFF00FF); // Magenta
     }
 
-    private void drawSinglePortal(Canvas c, PortalSystem.Portal portal, float pulse, int alpha, int color) {
-        float cx = portal.rect.centerX();
-        float cy = portal.rect.centerY();
-        float w = portal.rect.width() * pulse;
-        float h = portal.rect.height() * pulse;
+    private void drawSinglePortal(Canvas c, FRect rect, float pulse, int alpha, int color) {
+        float w = rect.width();
+        float h = rect.height();
 
-        // Use sprite if available
-        if (portalBitmap != null) {
-            Paint p = new Paint();
-            p.setAlpha(alpha);
+        c.save();
+        c.translate(rect.centerX(), rect.centerY());
+        c.scale(pulse, pulse);
 
-            c.save();
-            c.translate(cx, cy);
-            c.scale(pulse, pulse);
-            c.drawBitmap(
-                    portalBitmap,
-                    -w / 2f,
-                    -h / 2f,
-                    p
-            );
-            c.restore();
+        // Use sprite if available, sized to the portal and pulsed by the canvas
+        Bitmap sprite = sprites.get(SpriteAtlas.PORTAL, atlasBitmap(), w, h);
+        if (sprite != null) {
+            pSprite.setAlpha(alpha);
+            c.drawBitmap(sprite, -sprite.getWidth() / 2f, -sprite.getHeight() / 2f, pSprite);
         } else {
-            Paint p = new Paint();
-            p.setAlpha(alpha);
-            RadialGradient gradient = new RadialGradient(
-                    cx, cy,
-                    Math.max(w, h) / 2f,
-                    new int[]{color, Color.TRANSPARENT},
-                    new float[]{0.3f, 1f},
-                    Shader.TileMode.CLAMP
-            );
-            p.setShader(gradient);
-            c.drawOval(
-                    cx - w / 2f,
-                    cy - h / 2f,
-                    cx + w / 2f,
-                    cy + h / 2f,
-                    p
-            );
-            p.setShader(null);
-            p.setStyle(Paint.Style.STROKE);
-            p.setStrokeWidth(4f * pulse);
-            p.setColor(color);
-            p.setAlpha(alpha);
-            c.drawOval(
-                    cx - w / 2f * 0.7f,
-                    cy - h / 2f * 0.7f,
-                    cx + w / 2f * 0.7f,
-                    cy + h / 2f * 0.7f,
-                    p
-            );
+            pEffectFill.setShader(effects.get(EFFECT_PORTAL_GLOW, color, Math.max(w, h) / 2f));
+            pEffectFill.setAlpha(alpha);
+            c.drawOval(-w / 2f, -h / 2f, w / 2f, h / 2f, pEffectFill);
+
+            pEffectStroke.setStrokeWidth(4f);
+            pEffectStroke.setColor(color);
+            pEffectStroke.setAlpha(alpha);
+            c.drawOval(-w / 2f * 0.7f, -h / 2f * 0.7f, w / 2f * 0.7f, h / 2f * 0.7f, pEffectStroke);
         }
+        c.restore();
     }
 
-    private void drawBlackHole(Canvas c) {
-        BlackHoleSystem.BlackHole bh = blackHoleSystem.get();
-        if (bh == null) return;
+    private void drawBlackHoles(Canvas c, WorldSnapshot s) {
+        for (int i = 0; i < s.holeCount; i++) {
+            drawBlackHole(c, s, i);
+        }
+    }
 
-        long now = System.currentTimeMillis();
-        long age = now - bh.spawnMs;
-        float agePct = age / (float)bh.durationMs;
+    private void drawBlackHole(Canvas c, WorldSnapshot s, int hole) {
+        float r = s.holeR[hole];
+        long age = s.nowMs - s.holeSpawnMs[hole];
+        float agePct = age / (float)s.holeDurationMs[hole];
 
         // Rotation animation
         float rotation = (age * GameConfig.BLACKHOLE_ROTATION_SPEED) % 360f;
@@ -1194,112 +778,132 @@ public class GameView extends SurfaceView implements Runnable {
             alpha = (int)(255 * ((1f - agePct) / 0.15f));
         }
 
-        float r = bh.r * pulse;
-
-        // Use sprite if available
-        if (blackHoleBitmap != null) {
-            Paint p = new Paint();
-            p.setAlpha(alpha);
+        c.save();
+        c.translate(s.holeX[hole], s.holeY[hole]);
+        c.rotate(rotation);
+        c.scale(pulse, pulse);
 
-            c.save();
-            c.translate(bh.x, bh.y);
-            c.rotate(rotation);
-            c.scale(pulse, pulse);
-            c.drawBitmap(
-                    blackHoleBitmap,
-                    -r,
-                    -r,
-                    p
-            );
-            c.restore();
+        // Use sprite if available, sized to the hole and pulsed by the canvas
+        Bitmap sprite = sprites.get(SpriteAtlas.BLACK_HOLE, atlasBitmap(), r * 2f, r * 2f);
+        if (sprite != null) {
+            pSprite.setAlpha(alpha);
+            c.drawBitmap(sprite, -sprite.getWidth() / 2f, -sprite.getHeight() / 2f, pSprite);
         } else {
-            Paint p = new Paint();
-            p.setAlpha(alpha);
-
-            RadialGradient outerGradient = new RadialGradient(
-                    bh.x, bh.y,
-                    r * 1.5f,
-                    new int[]{0xFF4A0080, Color.TRANSPARENT},
-                    new float[]{0f, 1f},
-                    Shader.TileMode.CLAMP
-            );
-            p.setShader(outerGradient);
-            c.drawCircle(bh.x, bh.y, r * 1.5f, p);
+            drawBlackHoleEffect(c, r, alpha);
+        }
+        c.restore();
+    }
 
-            p.setShader(null);
-            p.setStyle(Paint.Style.FILL);
-            p.setColor(0xFF000000);
-            p.setAlpha(alpha);
-            c.drawCircle(bh.x, bh.y, r * 0.6f, p);
+    // Centered on the origin; the caller has already rotated and pulsed the canvas
+    private void drawBlackHoleEffect(Canvas c, float r, int alpha) {
+        pEffectFill.setShader(effects.get(EFFECT_HOLE_GLOW, 0xFF4A0080, r * 1.5f));
+        pEffectFill.setAlpha(alpha);
+        c.drawCircle(0f, 0f, r * 1.5f, pEffectFill);
+
+        pEffectFill.setShader(null);
+        pEffectFill.setColor(0xFF000000);
+        pEffectFill.setAlpha(alpha);
+        c.drawCircle(0f, 0f, r * 0.6f, pEffectFill);
+
+        pEffectStroke.setStrokeWidth(3f);
+        pEffectStroke.setColor(0xFF8B00FF);
+        pEffectStroke.setAlpha(alpha);
+        c.drawCircle(0f, 0f, r * 0.9f, pEffectStroke);
+
+        pEffectStroke.setStrokeWidth(2f);
+        pEffectStroke.setAlpha(alpha / 2);
+        for (int i = 0; i < SPOKE_COS.length; i++) {
+            c.drawLine(SPOKE_COS[i] * r * 1.2f, SPOKE_SIN[i] * r * 1.2f,
+                    SPOKE_COS[i] * r * 0.9f, SPOKE_SIN[i] * r * 0.9f, pEffectStroke);
+        }
+    }
 
-            p.setStyle(Paint.Style.STROKE);
-            p.setStrokeWidth(3f);
-            p.setColor(0xFF8B00FF);
-            p.setAlpha(alpha);
-            c.drawCircle(bh.x, bh.y, r * 0.9f, p);
+    private void drawRotatingBumpers(Canvas c, WorldSnapshot s) {
+        for (int i = 0; i < s.bumperCount; i++) {
+            if (!s.bumperRotates[i]) continue;
+            FRect rect = s.bumperRects[i];
 
             c.save();
-            c.rotate(rotation, bh.x, bh.y);
-            for (int i = 0; i < 8; i++) {
-                float angle = i * 45f;
-                float rad = (float)Math.toRadians(angle);
-                float startX = bh.x + (float)Math.cos(rad) * r * 1.2f;
-                float startY = bh.y + (float)Math.sin(rad) * r * 1.2f;
-                float endX = bh.x + (float)Math.cos(rad) * r * 0.9f;
-                float endY = bh.y + (float)Math.sin(rad) * r * 0.9f;
-
-                p.setStrokeWidth(2f);
-                p.setAlpha(alpha / 2);
-                c.drawLine(startX, startY, endX, endY, p);
-            }
+            long age = s.nowMs - s.bumperSpawnMs[i];
+            float rotation = (age * 0.05f) % 360f;
+            c.rotate(rotation, rect.centerX(), rect.centerY());
+            c.drawRect(rect.left, rect.top, rect.right, rect.bottom, pBumper);
             c.restore();
         }
     }
 
-    private void drawBumpers(Canvas c) {
-        // Log the number of bumpers being drawn for debugging
-        if (bumperSystem != null && bumperSystem.getBumpers() != null) {
-            android.util.Log.d("GameView", "Drawing " + bumperSystem.getBumpers().size() + " bumpers.");
-        }
+    // +++ Static layer +++
 
-        for (Bumper bumper : bumperSystem.getBumpers()) {
-            if (bumper == null || bumper.rect == null) continue;
+    private void drawStaticLayer(Canvas c, WorldSnapshot s) {
+        int w = (int) s.screenW;
+        int h = (int) s.screenH;
+        if (w <= 0 || h <= 0) return;
 
-            c.save();
+        if (staticLayer == null || staticLayer.getWidth() != w || staticLayer.getHeight() != h) {
+            if (staticLayer != null) staticLayer.recycle();
+            staticLayer = Bitmap.createBitmap(w, h, Bitmap.Config.ARGB_8888);
+            staticCanvas = new Canvas(staticLayer);
+            staticLayerValid = false;
+        }
 
-            // Rotate if needed
-            if (bumper.rotates) {
-                long age = System.currentTimeMillis() - bumper.spawnAtMs;
-                float rotation = (age * 0.05f) % 360f;
-                c.rotate(rotation, bumper.rect.centerX(), bumper.rect.centerY());
-            }
+        if (!staticLayerValid || staticLayerKey != s.staticKey) {
+            rasterizeStaticLayer(s);
+            staticLayerKey = s.staticKey;
+            staticLayerValid = true;
+        }
 
-            c.drawRect(bumper.rect, pBumper);
-            c.restore();
+        // Only the part of the screen that has anything on it
+        if (staticBounds.width() > 0 && staticBounds.height() > 0) {
+            c.drawBitmap(staticLayer, staticBounds, staticBounds, null);
         }
     }
 
-    private void drawBoxes(Canvas c) {
-        Paint pBoxDynamic = new Paint(pBox);
-        Paint pText = new Paint();
-        pText.setColor(Color.WHITE);
-        pText.setTextSize(18f);
-        pText.setTextAlign(Paint.Align.CENTER);
-        pText.setStyle(Paint.Style.FILL);
+    private void rasterizeStaticLayer(WorldSnapshot s) {
+        Canvas lc = staticCanvas;
+        lc.drawColor(Color.TRANSPARENT, PorterDuff.Mode.CLEAR);
+        float left = Float.MAX_VALUE, top = Float.MAX_VALUE, right = -Float.MAX_VALUE, bottom = -Float.MAX_VALUE;
+
+        for (int i = 0; i < s.bumperCount; i++) {
+            if (s.bumperRotates[i]) continue;
+            FRect rect = s.bumperRects[i];
+            lc.drawRect(rect.left, rect.top, rect.right, rect.bottom, pBumper);
+            left = Math.min(left, rect.left);
+            top = Math.min(top, rect.top);
+            right = Math.max(right, rect.right);
+            bottom = Math.max(bottom, rect.bottom);
+        }
+
+        for (int i = 0; i < s.boxCount; i++) {
+            FRect rect = s.boxRects[i];
+            int hp = s.boxHp[i];
 
-        for (Box box : boxes) {
             // Color based on HP
-            pBoxDynamic.setColor(getBoxColor(box.hp));
-            c.drawRect(box.rect, pBoxDynamic);
+            pBoxFill.setColor(getBoxColor(hp));
+            lc.drawRect(rect.left, rect.top, rect.right, rect.bottom, pBoxFill);
 
             // Draw HP text
-            c.drawText(
-                    String.valueOf(box.hp),
-                    box.rect.centerX(),
-                    box.rect.centerY() + 6f,
-                    pText
+            lc.drawText(
+                    String.valueOf(hp),
+                    rect.centerX(),
+                    rect.centerY() + 6f,
+                    pBoxText
             );
+            left = Math.min(left, rect.left);
+            top = Math.min(top, rect.top);
+            right = Math.max(right, rect.right);
+            bottom = Math.max(bottom, rect.bottom);
+        }
+
+        if (left > right) {
+            staticBounds.set(0, 0, 0, 0);
+        } else {
+            staticBounds.set(
+                    Math.max(0, (int) left - 1),
+                    Math.max(0, (int) top - 1),
+                    Math.min(staticLayer.getWidth(), (int) Math.ceil(right) + 1),
+                    Math.min(staticLayer.getHeight(), (int) Math.ceil(bottom) + 1));
         }
+        staticRasterCount++;
     }
 
     private int getBoxColor(int hp) {
@@ -1308,64 +912,46 @@ public class GameView extends SurfaceView implements Runnable {
         else return 0xFFE8B896;              // Light tan
     }
 
-    private void drawBalls(Canvas c) {
-        for (Ball ball : balls) {
-            if (cachedYarnBitmap != null) {
-                float targetSize = ball.r;
-
-                if (Math.abs(cachedYarnSize - targetSize) < 2f) {
-                    c.drawBitmap(cachedYarnBitmap, ball.x, ball.y, pBall);
-                } else {
-                    // Different size (small balls) - scale on demand
-                    Bitmap scaled = Bitmap.createScaledBitmap(
-                            yarnBitmap,
-                            (int)ball.r,
-                            (int)ball.r,
-                            true
-                    );
-                    c.drawBitmap(scaled, ball.x, ball.y, pBall);
-                }
+    private void drawBalls(Canvas c, WorldSnapshot s, float alpha) {
+        for (int i = 0, n = s.ballCount; i < n; i++) {
+            float r = s.ballR[i];
+            float x = s.ballPrevX[i] + (s.ballX[i] - s.ballPrevX[i]) * alpha;
+            float y = s.ballPrevY[i] + (s.ballY[i] - s.ballPrevY[i]) * alpha;
+
+            Bitmap yarn = sprites.get(SpriteAtlas.YARN, atlasBitmap(), r, r);
+            if (yarn != null) {
+                c.drawBitmap(yarn, x, y, pBall);
             } else {
                 // No sprite - draw circle
-                c.drawOval(ball.x, ball.y, ball.x + ball.r, ball.y + ball.r, pBall);
+                c.drawOval(x, y, x + r, y + r, pBall);
             }
 
             // Draw indicator for small balls
-            if (ball.isSmall) {
-                Paint pSmall = new Paint();
-                pSmall.setColor(0x88FFFF00); // Semi-transparent yellow
-                pSmall.setStyle(Paint.Style.STROKE);
-                pSmall.setStrokeWidth(2f);
-                c.drawCircle(ball.centerX(), ball.centerY(), ball.r / 2f, pSmall);
+            if (s.ballSmall[i]) {
+                c.drawCircle(x + r * 0.5f, y + r * 0.5f, r / 2f, pSmallBall);
             }
         }
     }
 
-    private void drawCat(Canvas c) {
-        if (cachedCatBitmap != null) {
-            c.drawBitmap(cachedCatBitmap, catX, catY, pCat);
-        } else if (catBitmap != null) {
-            // Cache not ready - try to create it
-            updateCachedCatBitmap();
-            if (cachedCatBitmap != null) {
-                c.drawBitmap(cachedCatBitmap, catX, catY, pCat);
-            } else {
-                // Caching failed - draw rectangle
-                c.drawRect(catX, catY, catX + catW, catY + catH, pCat);
-            }
+    private void drawCat(Canvas c, WorldSnapshot s, float alpha) {
+        float catX = s.prevCatX + (s.catX - s.prevCatX) * alpha;
+        float catY = s.catY;
+        float catW = s.catW;
+        float catH = s.catH;
+
+        Bitmap cat = sprites.get(SpriteAtlas.CAT, atlasBitmap(), catW, catH);
+        if (cat != null) {
+            c.drawBitmap(cat, catX, catY, pCat);
         } else {
             // No sprite - draw rectangle
             c.drawRect(catX, catY, catX + catW, catY + catH, pCat);
         }
     }
 
-    private void drawPopups(Canvas c) {
-        for (Popup p : popups) {
-            c.save();
-            c.translate(p.x, p.y);
-            c.scale(p.scale, p.scale);
-            c.drawText(p.txt, 0, 0, p.p);
-            c.restore();
+    private void drawPopups(Canvas c, WorldSnapshot s) {
+        for (int k = 0, n = s.popupCount; k < n; k++) {
+            Paint p = popupPaints[s.popupBucket(k, popupPaints.length)];
+            c.drawText(s.popupText[k], 0, s.popupLength[k], s.popupX[k], s.popupY[k], p);
         }
     }
 
@@ -1373,9 +959,15 @@ public class GameView extends SurfaceView implements Runnable {
 
     public void start() {
         if (thread == null || !thread.isAlive()) {
+            // Both threads are stopped, so the first snapshot can be taken here
+            snapshots.back().capture(sim, popups, clock.nanoTime(), timestep.getTickNanos());
+            snapshots.publish();
+
             running = true;
-            thread = new Thread(this);
+            thread = new Thread(this, "sim");
+            renderThread = new Thread(renderLoop, "render");
             thread.start();
+            renderThread.start();
         }
     }
 
@@ -1385,14 +977,158 @@ public class GameView extends SurfaceView implements Runnable {
             if (thread != null) {
                 thread.join();
             }
+            if (renderThread != null) {
+                renderThread.join();
+            }
         } catch (InterruptedException e) {
             // Ignore
         }
+
+        // Both threads are done, safe to read the recorder and sim here
+        saveReplay();
+        saveRun();
     }
 
-    public void setStateToPlaying() {
-        state = State.PLAYING;
+    // Call before start(); the profiler is rebuilt on the new clock, whose
+    // phases are each recorded by one thread
+    public void setClock(Clock clock) {
+        this.clock = clock;
+        profiler = new FrameProfiler(clock);
+        sim.setProfiler(profiler);
+    }
+
+    public void setPerfOverlay(boolean show) {
+        showPerfOverlay = show;
+    }
+
+    /**
+     * Appends the frame-time histograms to file and starts them over, so each
+     * block covers one foreground session. Call after stop().
+     */
+    public void dumpFrameStats(File file) {
+        if (profiler.get(FrameProfiler.FRAME).getCount() == 0L) return;
+        File dir = file.getParentFile();
+        if (dir != null && !dir.isDirectory() && !dir.mkdirs()) return;
+
+        try (Writer out = new FileWriter(file, true)) {
+            out.write("# session ending " + clock.currentTimeMillis()
+                    + ", ticks/s " + GameConfig.SIM_TICKS_PER_SECOND
+                    + ", caught up " + timestep.getCaughtUpTicks()
+                    + ", skipped " + timestep.getSkippedTicks() + "\n");
+            profiler.writeTo(out);
+            out.write("\n");
+        } catch (IOException e) {
+            android.util.Log.w("GameView", "Failed to write frame stats: " + e.getMessage());
+        }
+        profiler.reset();
+    }
 
+    /**
+     * Starts a new seeded run on the game thread. Replaces the old
+     * startRun / clearGameObjects / spawnInitialBall sequence.
+     */
+    public void beginRun() {
+        beginRun(clock.nanoTime() ^ clock.currentTimeMillis() * 0x9E3779B97F4A7C15L);
+    }
+
+    public void beginRun(long seed) {
+        awaitingResume = false;
+        pendingRunSeed = seed;
+        pendingRun = true;
+        setStateToPlaying();
+    }
+
+    // Where the last run's replay is written; null disables saving
+    public void setReplayDir(File dir) {
+        this.replayDir = dir;
+    }
+
+    private void saveReplay() {
+        if (replayDir == null || !recorder.isRecording() || recorder.getTickCount() == 0) return;
+        if (!replayDir.isDirectory() && !replayDir.mkdirs()) return;
+
+        Replay replay = recorder.snapshot(sim);
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(new File(replayDir, REPLAY_FILE)))) {
+            replay.write(out);
+        } catch (IOException e) {
+            android.util.Log.w("GameView", "Failed to save replay: " + e.getMessage());
+        }
+    }
+
+    // Where an unfinished run is kept between sessions; null disables it
+    public void setSaveFile(File file) {
+        this.saveFile = file;
+    }
+
+    // Copy-on-pause: only the capture runs here, the file is written on the save thread
+    private void saveRun() {
+        if (saveFile == null) return;
+        final File file = saveFile;
+
+        if (!sim.isRunInProgress()) {
+            saveExecutor.execute(() -> {
+                if (file.exists() && !file.delete()) {
+                    android.util.Log.w("GameView", "Failed to delete save-state");
+                }
+            });
+            return;
+        }
+
+        SaveState spare = spareSave.getAndSet(null);
+        final SaveState state = spare != null ? spare : new SaveState();
+        long start = clock.nanoTime();
+        state.capture(sim);
+        long took = clock.nanoTime() - start;
+        if (took > GameConfig.SAVE_CAPTURE_BUDGET_NANOS) {
+            android.util.Log.w("GameView", "Save-state capture took " + took / 1000L + " us");
+        }
+
+        saveExecutor.execute(() -> {
+            File dir = file.getParentFile();
+            if (dir != null && !dir.isDirectory() && !dir.mkdirs()) return;
+            File tmp = new File(file.getPath() + ".tmp");
+            try (OutputStream out = new BufferedOutputStream(new FileOutputStream(tmp))) {
+                state.write(out);
+            } catch (IOException e) {
+                android.util.Log.w("GameView", "Failed to save run: " + e.getMessage());
+                return;
+            } finally {
+                spareSave.set(state);
+            }
+            // Rename so a crash mid-write never leaves a torn save behind
+            if (!tmp.renameTo(file)) {
+                android.util.Log.w("GameView", "Failed to replace save-state");
+            }
+        });
+    }
+
+    /**
+     * Loads the run saved by the last session, if any, to be resumed on the
+     * game thread's first tick. The run stays paused until a tap on the
+     * field. Call before start(); returns whether a run was found.
+     */
+    public boolean restoreSavedRun() {
+        if (saveFile == null || !saveFile.isFile()) return false;
+
+        SaveState state = new SaveState();
+        try (InputStream in = new BufferedInputStream(new FileInputStream(saveFile))) {
+            state.read(in);
+        } catch (IOException e) {
+            android.util.Log.w("GameView", "Discarding save-state: " + e.getMessage());
+            saveFile.delete();
+            return false;
+        }
+        pendingRestore = state;
+        awaitingResume = true;
+        return true;
+    }
+
+    // True while a restored run waits, paused, for the tap that continues it
+    public boolean isAwaitingResume() {
+        return awaitingResume;
+    }
+
+    public void setStateToPlaying() {
         // Start background music
         if (backgroundMusicPlayer != null && !backgroundMusicPlayer.isPlaying()) {
             backgroundMusicPlayer.start();
@@ -1405,20 +1141,8 @@ public class GameView extends SurfaceView implements Runnable {
         }
     }
 
-    public void clearGameObjects() {
-        // Clear all lists of objects
-        balls.clear();
-        boxes.clear();
-        popups.clear();
-
-        // Reset subsystems
-        bumperSystem.clearAllBumpers();
-        portalSystem.clearPortals();
-        blackHoleSystem.clearBlackHole();
-    }
-
     public void setStateToTitle() {
-        state = State.TITLE;
+        pendingTitle = true;
 
         // Start title music
         if (titleMusicPlayer != null && !titleMusicPlayer.isPlaying()) {
@@ -1432,12 +1156,9 @@ public class GameView extends SurfaceView implements Runnable {
         }
     }
 
-    public void spawnInitialBall() {
-        balls.clear();
-        float r = Math.max(10f, screenW * ballSizePercent);
-        float x = (screenW - r) / 2f;
-        float y = (screenH - r) / 2f;
-        balls.add(new Ball(x, y, r, randomVX(), startingVY));
+    // Simulation time as of the last tick
+    public long getSimTimeMs() {
+        return simNowMs;
     }
 
     public void setLevelUpListener(LevelUpListener listener) {
@@ -1450,96 +1171,6 @@ public class GameView extends SurfaceView implements Runnable {
 
     public void applyUpgradeDirect(String key) {
         if (key == null || key.isEmpty()) return;
-
-        gs.unlockUpgrade(key);
-
-        switch (key) {
-            case "score_x2":
-                spawnPopup("Score Doubled!", screenW / 2f, screenH / 2f);
-                break;
-
-            case "combo_plus1":
-                spawnPopup("Combo XP Increased!", screenW / 2f, screenH / 2f);
-                break;
-
-            case "multi_full_burst":
-                spawnExtraYarn(); // Spawns one extra
-                spawnExtraYarn(); // Spawns a second one
-                spawnPopup("+2 Full Yarn Balls!", screenW / 2f, screenH / 2f);
-                break;
-
-            case "box_reward_up":
-                spawnPopup("Box Rewards Up!", screenW / 2f, screenH / 2f);
-                break;
-
-            case "blackhole_box_destroyer":
-                spawnPopup("Black Holes Destroy Boxes!", screenW / 2f, screenH / 2f);
-                break;
-
-            case "max_stress_plus20":
-                gs.addMaxStress(GameConfig.UPGRADE_MAX_STRESS_INCREASE);
-                spawnPopup("Max Stress +20!", screenW / 2f, screenH / 2f);
-                break;
-
-            case "stress_reducer":
-                spawnPopup("Catches Reduce More Stress!", screenW / 2f, screenH / 2f);
-                break;
-
-            case "cat_width_plus":
-                catW *= GameConfig.UPGRADE_CAT_WIDTH_INCREASE;
-                catW = Math.min(catW, screenW * GameConfig.CAT_MAX_WIDTH_FRACTION);
-                catX = (screenW - catW) / 2f;
-                updateCachedCatBitmap();
-                spawnPopup("Cat Wider!", screenW / 2f, screenH / 2f);
-                break;
-
-            case "extra_yarn":
-                spawnExtraYarn();
-                spawnPopup("+1 Yarn Ball!", screenW / 2f, screenH / 2f);
-                break;
-
-            case "portal_freq_plus":
-                spawnPopup("Portals More Frequent!", screenW / 2f, screenH / 2f);
-                break;
-
-            case "cat_reflect":
-                spawnPopup("Cat Can Save a Miss!", screenW / 2f, screenH / 2f);
-                break;
-
-            case "vy_plus":
-                for (Ball b : balls) b.vy *= GameConfig.UPGRADE_SPEED_INCREASE;
-                startingVY *= GameConfig.UPGRADE_SPEED_INCREASE;
-                spawnPopup("Vertical Speed Up!", screenW / 2f, screenH / 2f);
-                break;
-
-            case "vx_plus":
-                for (Ball b : balls) b.vx *= GameConfig.UPGRADE_SPEED_INCREASE;
-                minVX *= GameConfig.UPGRADE_SPEED_INCREASE;
-                maxVX *= GameConfig.UPGRADE_SPEED_INCREASE;
-                spawnPopup("Horizontal Speed Up!", screenW / 2f, screenH / 2f);
-                break;
-
-            default:
-                spawnPopup("Upgrade Applied!", screenW / 2f, screenH / 2f);
-                break;
-        }
-    }
-
-    private void spawnExtraYarn() {
-        float r = Math.max(10f, screenW * ballSizePercent);
-        Ball newBall = new Ball(
-                catX + catW / 2f - r / 2f,
-                catY - r - 4f,
-                r,
-                randomVX(),
-                -Math.abs(startingVY),
-                false
-        );
-        balls.add(newBall);
-    }
-
-    private float randomVX() {
-        float v = minVX + rnd.nextFloat() * (maxVX - minVX);
-        return rnd.nextBoolean() ? v : -v;
+        pendingUpgrade = key;
     }
-}
\ No newline at end of file
+}
@@ -1,16 +1,12 @@
 package com.rngym.myapplication;
 
 import android.content.SharedPreferences;
-import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
 import android.graphics.Color;
 import android.os.Bundle;
 import android.os.Handler;
 import android.view.View;
 import android.widget.Button;
 import android.widget.CheckBox;
-import android.widget.ImageView;
-import android.widget.LinearLayout;
 
 import android.widget.SeekBar;
 import android.widget.TextView;
@@ -18,6 +14,9 @@ import android.widget.Toast;
 import androidx.cardview.widget.CardView;
 import androidx.appcompat.app.AppCompatActivity;
 
+import java.io.File;
+import java.util.concurrent.atomic.AtomicBoolean;
+
 public class MainActivity extends AppCompatActivity {
 
     private GameView gameView;
@@ -29,7 +28,7 @@ public class MainActivity extends AppCompatActivity {
     private CardView card1, card2, card3;
     private TextView title1, title2, title3, desc1, desc2, desc3;
     private TextView tvLevel, tvScore, tvCombo;
-    private LinearLayout expBarContainer, stressBarContainer;
+    private SegmentedBarView expBar, stressBar;
     private TextView tvExpText, tvStressText, tvExpLabel, tvStressLabel;
     private TextView tvFinalScore;
     private Button btnRestart;
@@ -39,39 +38,55 @@ public class MainActivity extends AppCompatActivity {
     private static final String KEY_VIBRATION = "vibration_enabled";
     private static final String KEY_SOUND_VOLUME = "sound_volume";
 
+    // === HUD ===
+    // GameState pushes a HudSnapshot from the game thread when something
+    // changed; at most one update is queued on the UI thread at a time.
     private Handler hudUpdateHandler = new Handler();
-    private Runnable hudUpdateRunnable;
+    private final AtomicBoolean hudUpdatePosted = new AtomicBoolean(false);
+    private final Runnable hudUpdateRunnable = this::updateHUD;
+    private final Runnable comboPulseRunnable = this::updateComboPulse;
+    private HudSnapshot shownHud = HudSnapshot.EMPTY;
 
-    private Bitmap expSegmentBitmap;
-    private Bitmap stressSegmentBitmap;
-    private static final int MAX_SEGMENTS = 10;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_main);
 
-        GameState.get().init(this);
+        // Saves from the game thread are batched and written off-thread
+        GameState.get().init(new WriteBehindStore(
+                new PrefsStore(getSharedPreferences(GameState.PREFS, MODE_PRIVATE)),
+                GameConfig.SAVE_FLUSH_INTERVAL_MS));
         prefs = getSharedPreferences(PREFS_NAME, MODE_PRIVATE);
 
-        loadProgressSegmentImages();
-
         if (!initializeViews()) {
             Toast.makeText(this, "Critical error: UI elements missing", Toast.LENGTH_LONG).show();
             finish();
             return;
         }
 
+        loadProgressSegmentImages();
+
+        gameView.setReplayDir(new File(getFilesDir(), "replays"));
+        gameView.setSaveFile(new File(getFilesDir(), "saves/current_run.wps"));
+
         setupListeners();
         loadSettings();
-        startHUDUpdateLoop();
+        subscribeHUD();
         GameState.get().setPaused(true);
+
+        // Pick up an unfinished run where the last session left it; it stays
+        // paused until the player taps the field
+        if (gameView.restoreSavedRun()) {
+            titleOverlay.setVisibility(View.GONE);
+            gameView.setStateToPlaying();
+        }
     }
 
     @Override
     protected void onResume() {
         super.onResume();
-        if (gameView != null && !GameState.get().isPaused()) {
+        if (gameView != null && (!GameState.get().isPaused() || gameView.isAwaitingResume())) {
             gameView.start();
         }
     }
@@ -81,8 +96,11 @@ public class MainActivity extends AppCompatActivity {
         super.onPause();
         if (gameView != null) {
             gameView.stop();
+            gameView.dumpFrameStats(new File(getFilesDir(), "perf/frame_stats.txt"));
         }
         saveSettings();
+        // apply() only queues the disk write, and Android waits for it before stopping
+        GameState.get().flushSaves();
     }
 
     @Override
@@ -91,14 +109,17 @@ public class MainActivity extends AppCompatActivity {
         if (gameView != null) {
             gameView.stop();
         }
-        if (hudUpdateHandler != null && hudUpdateRunnable != null) {
-            hudUpdateHandler.removeCallbacks(hudUpdateRunnable);
-        }
+        GameState.get().setHudListener(null);
+        hudUpdateHandler.removeCallbacks(hudUpdateRunnable);
+        hudUpdateHandler.removeCallbacks(comboPulseRunnable);
     }
 
     private void loadProgressSegmentImages() {
-        expSegmentBitmap = BitmapFactory.decodeResource(getResources(), R.drawable.progress_exp);
-        stressSegmentBitmap = BitmapFactory.decodeResource(getResources(), R.drawable.progress_stress);
+        // Drawn straight from the shared sprite atlas
+        SpriteAtlas atlas = SpriteAtlas.get(this);
+        if (atlas == null) return;
+        if (expBar != null) expBar.setSprite(atlas, SpriteAtlas.EXP_SEGMENT);
+        if (stressBar != null) stressBar.setSprite(atlas, SpriteAtlas.STRESS_SEGMENT);
     }
 
     private boolean initializeViews() {
@@ -137,8 +158,8 @@ public class MainActivity extends AppCompatActivity {
         tvScore = findViewById(R.id.tvScore);
         tvCombo = findViewById(R.id.tvCombo);
 
-        expBarContainer = findViewById(R.id.expBarContainer);
-        stressBarContainer = findViewById(R.id.stressBarContainer);
+        expBar = findViewById(R.id.expBar);
+        stressBar = findViewById(R.id.stressBar);
         tvExpText = findViewById(R.id.tvExpText);
         tvStressText = findViewById(R.id.tvStressText);
         tvExpLabel = findViewById(R.id.tvExpLabel);
@@ -154,72 +175,31 @@ public class MainActivity extends AppCompatActivity {
         return btnRestart != null && tvFinalScore != null;
     }
 
-    private void updateProgressBars() {
-        GameState gs = GameState.get();
-        updateExpBar(gs);
-        updateStressBar(gs);
+    private void updateProgressBars(HudSnapshot hud, HudSnapshot old) {
+        updateExpBar(hud, old);
+        updateStressBar(hud, old);
     }
 
-    private void updateExpBar(GameState gs) {
-        if (expBarContainer == null || expSegmentBitmap == null) return;
-
-        int currentXP = gs.getXP();
-        int level = gs.getLevel();
-        int xpForNextLevel = GameConfig.xpForLevel(level);
-        float xpPercent = Math.min(1f, Math.max(0f, (float) currentXP / xpForNextLevel));
+    private void updateExpBar(HudSnapshot hud, HudSnapshot old) {
+        if (expBar == null) return;
+        if (hud.xp == old.xp && hud.level == old.level) return;
 
-        int segmentsToShow = Math.round(xpPercent * MAX_SEGMENTS);
-
-        expBarContainer.removeAllViews();
-
-        for (int i = 0; i < MAX_SEGMENTS; i++) {
-            ImageView segment = new ImageView(this);
-            segment.setLayoutParams(new LinearLayout.LayoutParams(40, 30));
-
-            if (i < segmentsToShow) {
-                segment.setImageBitmap(expSegmentBitmap);
-                segment.setAlpha(1.0f);
-            } else {
-                segment.setImageBitmap(expSegmentBitmap);
-                segment.setAlpha(0.2f);
-            }
-
-            expBarContainer.addView(segment, 0);
-        }
+        int xpForNextLevel = hud.xpForNextLevel();
+        expBar.setValue((float) hud.xp / xpForNextLevel);
 
         if (tvExpText != null) {
-            tvExpText.setText(String.format("%d/%d", currentXP, xpForNextLevel));
+            tvExpText.setText(String.format("%d/%d", hud.xp, xpForNextLevel));
         }
     }
 
-    private void updateStressBar(GameState gs) {
-        if (stressBarContainer == null || stressSegmentBitmap == null) return;
-
-        float currentStress = gs.getStress();
-        float maxStress = gs.getMaxStress();
-        float stressPercent = Math.min(1f, Math.max(0f, currentStress / maxStress));
-
-        int segmentsToShow = Math.round(stressPercent * MAX_SEGMENTS);
-
-        stressBarContainer.removeAllViews();
-
-        for (int i = 0; i < MAX_SEGMENTS; i++) {
-            ImageView segment = new ImageView(this);
-            segment.setLayoutParams(new LinearLayout.LayoutParams(40, 30));
-
-            if (i < segmentsToShow) {
-                segment.setImageBitmap(stressSegmentBitmap);
-                segment.setAlpha(1.0f);
-            } else {
-                segment.setImageBitmap(stressSegmentBitmap);
-                segment.setAlpha(0.2f);
-            }
-
-            stressBarContainer.addView(segment, 0);
-        }
+    private void updateStressBar(HudSnapshot hud, HudSnapshot old) {
+        if (stressBar == null) return;
+        // Text shows whole numbers, so sub-unit stress changes only move the bar
+        stressBar.setValue(hud.stress / hud.maxStress);
+        if (Math.round(hud.stress) == Math.round(old.stress) && hud.maxStress == old.maxStress) return;
 
         if (tvStressText != null) {
-            tvStressText.setText(String.format("%.0f/%.0f", currentStress, maxStress));
+            tvStressText.setText(String.format("%.0f/%.0f", hud.stress, hud.maxStress));
         }
 
 //        if (currentStress >= maxStress && !gs.isPaused()) {
@@ -254,7 +234,7 @@ public class MainActivity extends AppCompatActivity {
         }));
 
         gameView.setGameOverListener((finalScore, highScore) -> runOnUiThread(() -> {
-            showGameOver(finalScore);
+            showGameOver(finalScore, highScore);
         }));
     }
 
@@ -262,13 +242,7 @@ public class MainActivity extends AppCompatActivity {
         titleOverlay.setVisibility(View.GONE);
         gameOverOverlay.setVisibility(View.GONE);
 
-        GameState.get().resetRun();
-        GameState.get().setPaused(false);
-
-        gameView.resetGameOverFlag();
-
-        gameView.spawnInitialBall();
-        gameView.setStateToPlaying();
+        gameView.beginRun();
         gameView.start();
     }
 
@@ -276,25 +250,17 @@ public class MainActivity extends AppCompatActivity {
 
         gameOverOverlay.setVisibility(View.GONE);
 
-        GameState.get().resetRun();
-        GameState.get().setPaused(false);
-
-        gameView.clearGameObjects();
-        gameView.resetGameOverFlag();
-
-
-        gameView.spawnInitialBall();
-        gameView.setStateToPlaying();
+        gameView.beginRun();
         gameView.start();
     }
 
-    private void showGameOver(int finalScore) {
+    private void showGameOver(int finalScore, int highScore) {
         // GameState.get().maybeUpdateHighScore();
 
         if (tvFinalScore != null) {
             String scoreText = "Final Score: " + finalScore + "\n" +
-                    "High Score: " + GameState.get().getHighScore() + "\n" +
-                    "Max Combo: " + GameState.get().getMaxCombo();
+                    "High Score: " + highScore + "\n" +
+                    "Max Combo: " + GameState.get().getHud().maxCombo;
             tvFinalScore.setText(scoreText);
         }
 
@@ -317,10 +283,11 @@ public class MainActivity extends AppCompatActivity {
         if (GameState.get().isPaused()) return;
 
         GameState.get().setPaused(true);
-        int finalScore = GameState.get().getScore();
-        int highScore = GameState.get().getHighScore();
+        HudSnapshot hud = GameState.get().getHud();
+        int finalScore = hud.score;
+        int highScore = hud.highScore;
 
-        runOnUiThread(() -> showGameOver(finalScore));
+        runOnUiThread(() -> showGameOver(finalScore, highScore));
     }
 
     private void showUpgradeOverlay(UpgradeManager.Choice[] choices) {
@@ -345,9 +312,9 @@ public class MainActivity extends AppCompatActivity {
         }
 
         card.setOnClickListener(v -> {
+            // Applied and unpaused on the game thread
             gameView.applyUpgradeDirect(choice.key);
             upgradeOverlay.setVisibility(View.GONE);
-            GameState.get().setPaused(false);
             gameView.start();
         });
     }
@@ -385,35 +352,41 @@ public class MainActivity extends AppCompatActivity {
         Toast.makeText(this, "WallPAWng\nDeveloped by: Group 1\nVersion: 2.0", Toast.LENGTH_LONG).show();
     }
 
-    private void startHUDUpdateLoop() {
-        hudUpdateRunnable = new Runnable() {
-            @Override
-            public void run() {
-                updateHUD();
-                hudUpdateHandler.postDelayed(this, 100);
-            }
-        };
-        hudUpdateHandler.post(hudUpdateRunnable);
+    private void subscribeHUD() {
+        // Runs on the game thread: coalesce into one pending UI update
+        GameState.get().setHudListener(hud -> postHUDUpdate());
+        // Shows whatever was published last; a recreated activity starts from EMPTY
+        postHUDUpdate();
     }
 
-    private void updateHUD() {
-        GameState gs = GameState.get();
+    private void postHUDUpdate() {
+        if (hudUpdatePosted.compareAndSet(false, true)) {
+            hudUpdateHandler.post(hudUpdateRunnable);
+        }
+    }
 
-        if (tvLevel != null) {
-            tvLevel.setText("LVL " + gs.getLevel());
+    private void updateHUD() {
+        hudUpdatePosted.set(false);
+        HudSnapshot hud = GameState.get().getHud();
+        HudSnapshot old = shownHud;
+        if (hud.version == old.version) return;
+        shownHud = hud;
+
+        if (tvLevel != null && hud.level != old.level) {
+            tvLevel.setText("LVL " + hud.level);
             tvLevel.setAlpha(0.3f);
         }
 
-        if (tvScore != null) {
-            tvScore.setText(String.valueOf(gs.getScore()));
+        if (tvScore != null && hud.score != old.score) {
+            tvScore.setText(String.valueOf(hud.score));
             tvScore.setAlpha(0.3f);
         }
 
-        if (tvCombo != null) {
-            int combo = gs.getCombo();
+        if (tvCombo != null && hud.combo != old.combo) {
+            int combo = hud.combo;
 
             if (combo > 0) {
-                float multiplier = gs.getComboMultiplier();
+                float multiplier = hud.comboMultiplier();
                 String comboText = (multiplier > 1.0f) ?
                         "x" + combo + " (" + String.format("%.1f", multiplier) + "x)" :
                         "x" + combo;
@@ -425,19 +398,29 @@ public class MainActivity extends AppCompatActivity {
                 else if (combo >= 10) tvCombo.setTextColor(0xFFFF6B6B);
                 else if (combo >= 5) tvCombo.setTextColor(0xFFFFD700);
                 else tvCombo.setTextColor(0xFFFFFFFF);
-
-                if (gs.isComboExpiring()) {
-                    long timeSince = gs.getTimeSinceLastCatch();
-                    float alpha = 0.5f + 0.5f * (float)Math.sin(timeSince * 0.01f);
-                    tvCombo.setAlpha(alpha);
-                } else {
-                    tvCombo.setAlpha(0.3f);
-                }
             } else {
                 tvCombo.setVisibility(View.INVISIBLE);
             }
         }
 
-        updateProgressBars();
+        updateProgressBars(hud, old);
+        updateComboPulse();
+    }
+
+    // The combo fades with time, not state changes, so it ticks on its own while shown
+    private void updateComboPulse() {
+        hudUpdateHandler.removeCallbacks(comboPulseRunnable);
+        HudSnapshot hud = shownHud;
+        if (tvCombo == null || hud.combo == 0) return;
+
+        long now = gameView.getSimTimeMs();
+        if (hud.isComboExpiring(now)) {
+            long timeSince = hud.timeSinceLastCatch(now);
+            float alpha = 0.5f + 0.5f * (float)Math.sin(timeSince * 0.01f);
+            tvCombo.setAlpha(alpha);
+        } else {
+            tvCombo.setAlpha(0.3f);
+        }
+        hudUpdateHandler.postDelayed(comboPulseRunnable, 100);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,60 @@
+package com.rngym.myapplication;
+
+import android.content.SharedPreferences;
+
+import java.util.Set;
+
+/**
+ * PrefsStore - SharedPreferences backing for GameState persistence.
+ * Writes collect in one editor and are applied together on flush(), so a
+ * WriteBehindStore batch costs a single apply().
+ *
+ * Nothing reaches SharedPreferences until flush(), so this is only ever
+ * built wrapped in a WriteBehindStore, which flushes after every batch.
+ * Package-private to keep it that way.
+ */
+class PrefsStore implements GameState.Store {
+    private final SharedPreferences prefs;
+    private SharedPreferences.Editor editor;
+
+    PrefsStore(SharedPreferences prefs) {
+        this.prefs = prefs;
+    }
+
+    @Override
+    public int getInt(String key, int def) {
+        return prefs.getInt(key, def);
+    }
+
+    @Override
+    public Set<String> getStringSet(String key, Set<String> def) {
+        return prefs.getStringSet(key, def);
+    }
+
+    @Override
+    public void putInt(String key, int value) {
+        editor().putInt(key, value);
+    }
+
+    @Override
+    public void putStringSet(String key, Set<String> values) {
+        editor().putStringSet(key, values);
+    }
+
+    @Override
+    public void clear() {
+        editor().clear();
+    }
+
+    @Override
+    public void flush() {
+        if (editor == null) return;
+        editor.apply();
+        editor = null;
+    }
+
+    private SharedPreferences.Editor editor() {
+        if (editor == null) editor = prefs.edit();
+        return editor;
+    }
+}
@@ -0,0 +1,103 @@
+package com.rngym.myapplication;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.util.AttributeSet;
+import android.view.View;
+
+/**
+ * SegmentedBarView - a vertical HUD bar of segment sprites, lit from the
+ * bottom up. Replaces a LinearLayout of ImageViews that was rebuilt on
+ * every HUD tick: this view is measured once, draws straight from the
+ * sprite atlas, and only invalidates when the number of lit segments
+ * changes.
+ */
+public class SegmentedBarView extends View {
+
+    public static final int DEFAULT_SEGMENTS = 10;
+    public static final int SEGMENT_WIDTH_PX = 40;
+    public static final int SEGMENT_HEIGHT_PX = 30;
+    private static final int DIM_ALPHA = 51; // 20%, unlit segments
+
+    private int segments = DEFAULT_SEGMENTS;
+    private int lit = 0;
+    private long redraws = 0L;
+
+    private SpriteAtlas atlas = null;
+    private int sprite = -1;
+
+    private final Paint litPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+    private final Paint dimPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+    private final Rect dst = new Rect();
+
+    public SegmentedBarView(Context ctx) {
+        super(ctx);
+        dimPaint.setAlpha(DIM_ALPHA);
+    }
+
+    public SegmentedBarView(Context ctx, AttributeSet attrs) {
+        super(ctx, attrs);
+        dimPaint.setAlpha(DIM_ALPHA);
+    }
+
+    public void setSprite(SpriteAtlas atlas, int sprite) {
+        this.atlas = atlas;
+        this.sprite = sprite;
+        invalidate();
+    }
+
+    public void setSegments(int segments) {
+        this.segments = Math.max(1, segments);
+        requestLayout();
+        invalidate();
+    }
+
+    /** Fill fraction 0..1; redraws only if the rounded segment count changes. */
+    public void setValue(float fraction) {
+        float f = Math.min(1f, Math.max(0f, fraction));
+        int n = Math.round(f * segments);
+        if (n == lit) return;
+        lit = n;
+        redraws++;
+        invalidate();
+    }
+
+    public int getLitSegments() {
+        return lit;
+    }
+
+    // How many times setValue asked for a redraw
+    public long getRedrawCount() {
+        return redraws;
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        int w = SEGMENT_WIDTH_PX + getPaddingLeft() + getPaddingRight();
+        int h = SEGMENT_HEIGHT_PX * segments + getPaddingTop() + getPaddingBottom();
+        setMeasuredDimension(resolveSize(w, widthMeasureSpec), resolveSize(h, heightMeasureSpec));
+    }
+
+    @Override
+    protected void onDraw(Canvas c) {
+        if (atlas == null || sprite < 0) return;
+        Rect src = atlas.region(sprite);
+        if (src.width() <= 0 || src.height() <= 0) return;
+
+        // Fit the sprite inside each slot, centered, like ImageView's FIT_CENTER
+        float scale = Math.min(SEGMENT_WIDTH_PX / (float) src.width(), SEGMENT_HEIGHT_PX / (float) src.height());
+        int w = Math.round(src.width() * scale);
+        int h = Math.round(src.height() * scale);
+        int left = getPaddingLeft() + (SEGMENT_WIDTH_PX - w) / 2;
+
+        int slotBottom = getHeight() - getPaddingBottom();
+        for (int i = 0; i < segments; i++) {
+            int top = slotBottom - SEGMENT_HEIGHT_PX + (SEGMENT_HEIGHT_PX - h) / 2;
+            dst.set(left, top, left + w, top + h);
+            c.drawBitmap(atlas.bitmap, src, dst, i < lit ? litPaint : dimPaint);
+            slotBottom -= SEGMENT_HEIGHT_PX;
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.rngym.myapplication;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Canvas;
+import android.graphics.Matrix;
+import android.graphics.Rect;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * SpriteAtlas - every game sprite packed into one bitmap. Packed on the
+ * first launch after an install or update and saved to the cache dir, so
+ * later launches decode a single PNG instead of one per sprite. Sprites are
+ * addressed by id; scaled() cuts a sprite's region out at the size it is
+ * drawn, and GameView keeps those copies in a SpriteCache and draws them
+ * unscaled.
+ */
+public class SpriteAtlas {
+
+    // === SPRITE IDS ===
+    public static final int CAT = 0;
+    public static final int YARN = 1;
+    public static final int PORTAL = 2;
+    public static final int BLACK_HOLE = 3;
+    public static final int EXP_SEGMENT = 4;
+    public static final int STRESS_SEGMENT = 5;
+
+    private static final int[] RESOURCES = {
+            R.drawable.cat_sprite,
+            R.drawable.yarnball_red,
+            R.drawable.portal_blue,
+            R.drawable.black_hole,
+            R.drawable.progress_exp,
+            R.drawable.progress_stress
+    };
+
+    private static final int PADDING = 2;       // Keeps filtered edges from bleeding
+    private static final int MAX_WIDTH = 2048;
+
+    private static SpriteAtlas instance;
+
+    public final Bitmap bitmap;
+    private final AtlasLayout layout;
+    private final Rect[] regions;
+    private final Matrix scaleMatrix = new Matrix();
+
+    private SpriteAtlas(Bitmap bitmap, AtlasLayout layout) {
+        this.bitmap = bitmap;
+        this.layout = layout;
+        regions = new Rect[layout.count()];
+        for (int i = 0; i < regions.length; i++) {
+            regions[i] = new Rect(layout.x[i], layout.y[i], layout.x[i] + layout.w[i], layout.y[i] + layout.h[i]);
+        }
+    }
+
+    /** The shared atlas, loaded from cache or packed on first use. Null if no sprite decodes. */
+    public static synchronized SpriteAtlas get(Context context) {
+        if (instance == null) instance = load(context.getApplicationContext());
+        return instance;
+    }
+
+    public Rect region(int sprite) {
+        return regions[sprite];
+    }
+
+    /** Sprite scaled straight out of the atlas, with no full-size intermediate. */
+    public Bitmap scaled(int sprite, int width, int height) {
+        Rect r = regions[sprite];
+        if (r.width() <= 0 || r.height() <= 0) return null;
+        synchronized (scaleMatrix) {
+            scaleMatrix.setScale(width / (float) r.width(), height / (float) r.height());
+            return Bitmap.createBitmap(bitmap, r.left, r.top, r.width(), r.height(), scaleMatrix, true);
+        }
+    }
+
+    // === LOAD / PACK ===
+
+    private static SpriteAtlas load(Context context) {
+        File dir = new File(context.getCacheDir(), "atlas");
+        File png = new File(dir, "sprites.png");
+        File index = new File(dir, "sprites.idx");
+        long key = buildKey(context);
+
+        // +++ Cached atlas +++
+        if (png.exists() && index.exists()) {
+            try (InputStream in = new BufferedInputStream(new FileInputStream(index))) {
+                AtlasLayout layout = AtlasLayout.read(in, key);
+                if (layout != null && layout.count() == RESOURCES.length) {
+                    Bitmap bitmap = BitmapFactory.decodeFile(png.getPath(), decodeOptions());
+                    if (bitmap != null) return new SpriteAtlas(bitmap, layout);
+                }
+            } catch (IOException e) {
+                android.util.Log.w("SpriteAtlas", "Atlas cache unreadable: " + e.getMessage());
+            }
+        }
+
+        // +++ First launch: pack +++
+        SpriteAtlas atlas = pack(context);
+        if (atlas != null) save(atlas, png, index, key);
+        return atlas;
+    }
+
+    private static SpriteAtlas pack(Context context) {
+        Bitmap[] sources = new Bitmap[RESOURCES.length];
+        int[] widths = new int[RESOURCES.length];
+        int[] heights = new int[RESOURCES.length];
+        boolean any = false;
+
+        for (int i = 0; i < RESOURCES.length; i++) {
+            sources[i] = BitmapFactory.decodeResource(context.getResources(), RESOURCES[i], decodeOptions());
+            if (sources[i] != null) {
+                widths[i] = sources[i].getWidth();
+                heights[i] = sources[i].getHeight();
+                any = true;
+            }
+        }
+        if (!any) return null;
+
+        AtlasLayout layout = AtlasLayout.pack(widths, heights, PADDING, MAX_WIDTH);
+        Bitmap bitmap = Bitmap.createBitmap(layout.width, layout.height, Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(bitmap);
+        for (int i = 0; i < sources.length; i++) {
+            if (sources[i] == null) continue;
+            canvas.drawBitmap(sources[i], layout.x[i], layout.y[i], null);
+            sources[i].recycle();
+        }
+        return new SpriteAtlas(bitmap, layout);
+    }
+
+    private static void save(SpriteAtlas atlas, File png, File index, long key) {
+        File dir = png.getParentFile();
+        if (dir != null && !dir.exists() && !dir.mkdirs()) return;
+        index.delete();
+
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(png))) {
+            atlas.bitmap.compress(Bitmap.CompressFormat.PNG, 100, out);
+        } catch (IOException e) {
+            android.util.Log.w("SpriteAtlas", "Atlas not saved: " + e.getMessage());
+            return;
+        }
+        // Index last, so a half-written PNG is never trusted
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(index))) {
+            atlas.layout.write(out, key);
+        } catch (IOException e) {
+            android.util.Log.w("SpriteAtlas", "Atlas index not saved: " + e.getMessage());
+        }
+    }
+
+    // Native size, ARGB so alpha edges survive packing
+    private static BitmapFactory.Options decodeOptions() {
+        BitmapFactory.Options o = new BitmapFactory.Options();
+        o.inScaled = false;
+        o.inPreferredConfig = Bitmap.Config.ARGB_8888;
+        return o;
+    }
+
+    // Changes with every install or update, so new art is always repacked
+    private static long buildKey(Context context) {
+        try {
+            return context.getPackageManager().getPackageInfo(context.getPackageName(), 0).lastUpdateTime;
+        } catch (Exception e) {
+            return 0L;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+plugins {
+    java
+    alias(libs.plugins.jmh)
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+dependencies {
+    jmh(project(":core"))
+}
+
+// ./gradlew :benchmark:jmh  -> build/results/jmh/results.json
+jmh {
+    jmhVersion.set(libs.versions.jmh)
+    warmupIterations.set(3)
+    iterations.set(5)
+    fork.set(1)
+    resultFormat.set("JSON")
+}
+
+// === BASELINES ===
+// Committed results so slowdowns show up in review:
+//   ./gradlew :benchmark:jmh :benchmark:saveBaseline      -> baselines/baseline.json
+//   ./gradlew :benchmark:jmh :benchmark:compareBaseline   -> fails if anything got slower
+//     than -PbenchmarkTolerance (default 0.10 = 10%)
+val jmhResults = layout.buildDirectory.file("results/jmh/results.json")
+val baseline = layout.projectDirectory.file("baselines/baseline.json")
+
+tasks.register<Copy>("saveBaseline") {
+    from(jmhResults)
+    into(layout.projectDirectory.dir("baselines"))
+    rename { "baseline.json" }
+}
+
+tasks.register("compareBaseline") {
+    val tolerance = (findProperty("benchmarkTolerance") as String?)?.toDouble() ?: 0.10
+    doLast {
+        val baselineFile = baseline.asFile
+        val resultsFile = jmhResults.get().asFile
+        if (!baselineFile.exists()) throw GradleException("No baseline yet, run saveBaseline first")
+        if (!resultsFile.exists()) throw GradleException("No results yet, run jmh first")
+
+        // "Benchmark.method(param=value,...)" -> average time
+        fun scores(file: File): Map<String, Double> {
+            @Suppress("UNCHECKED_CAST")
+            val runs = groovy.json.JsonSlurper().parse(file) as List<Map<String, Any?>>
+            return runs.associate { run ->
+                @Suppress("UNCHECKED_CAST")
+                val params = (run["params"] as Map<String, Any?>?)
+                    ?.entries?.joinToString(",") { "${it.key}=${it.value}" } ?: ""
+                @Suppress("UNCHECKED_CAST")
+                val metric = run["primaryMetric"] as Map<String, Any?>
+                "${run["benchmark"]}($params)" to (metric["score"] as Number).toDouble()
+            }
+        }
+
+        val before = scores(baselineFile)
+        val after = scores(resultsFile)
+        val regressions = mutableListOf<String>()
+        for ((name, score) in after.toSortedMap()) {
+            val old = before[name] ?: continue
+            val change = (score - old) / old
+            val line = String.format("%-90s %12.3f -> %12.3f  %+6.1f%%", name, old, score, change * 100)
+            println(line)
+            if (change > tolerance) regressions += line
+        }
+        if (regressions.isNotEmpty()) {
+            throw GradleException("Slower than baseline by more than ${tolerance * 100}%:\n" +
+                    regressions.joinToString("\n"))
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.rngym.myapplication;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BallCollisionBenchmark - one tick of ball vs ball collisions at 100, 1k
+ * and 10k balls. Balls drift between calls so the sort-and-sweep order is
+ * nearly sorted, as it is in play. The world grows with the ball count to
+ * keep density constant.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BallCollisionBenchmark {
+
+    private static final float BALL = 20f;
+    private static final float AREA_PER_BALL = 60f * 60f;
+
+    @Param({"100", "1000", "10000"})
+    public int balls;
+
+    private final BallBuffer buffer = new BallBuffer(GameConfig.INITIAL_BALL_CAPACITY);
+    private final BallCollider collider = new BallCollider();
+    private float worldSize;
+    private long now = 0L;
+
+    @Setup
+    public void setup() {
+        Random rnd = new Random(42);
+        worldSize = (float) Math.sqrt(balls * AREA_PER_BALL);
+
+        buffer.clear();
+        collider.reset();
+        for (int i = 0; i < balls; i++) {
+            buffer.add(rnd.nextFloat() * (worldSize - BALL), rnd.nextFloat() * (worldSize - BALL), BALL,
+                    rnd.nextFloat() * 8f - 4f, rnd.nextFloat() * 8f - 4f, 0, 0L);
+        }
+    }
+
+    @Benchmark
+    public int sweepAndPrune() {
+        drift();
+        collider.resolve(buffer, now);
+        return collider.getCollisions();
+    }
+
+    // All pairs, for comparison
+    @Benchmark
+    public int bruteForce() {
+        drift();
+        int hits = 0;
+        BallBuffer b = buffer;
+        for (int i = 0, n = b.size(); i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                float dx = b.x[j] - b.x[i];
+                float dy = b.y[j] - b.y[i];
+                if (dx * dx + dy * dy < BALL * BALL) hits++;
+            }
+        }
+        return hits;
+    }
+
+    // Moves every ball one tick and bounces it off the world edges
+    private void drift() {
+        now += 16L;
+        BallBuffer b = buffer;
+        for (int i = 0, n = b.size(); i < n; i++) {
+            b.x[i] += b.vx[i];
+            b.y[i] += b.vy[i];
+            if (b.x[i] < 0f || b.x[i] > worldSize - BALL) b.vx[i] = -b.vx[i];
+            if (b.y[i] < 0f || b.y[i] > worldSize - BALL) b.vy[i] = -b.vy[i];
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.rngym.myapplication;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * BenchmarkWorld - a seeded Simulation filled with indestructible,
+ * long-lived boxes and bumpers plus balls, spaced at least one ball apart
+ * like the in-game spawners guarantee. Level-ups and game over would pause
+ * the run, so the world keeps itself playing.
+ */
+final class BenchmarkWorld {
+
+    static final float SCREEN_W = 1080f;
+    static final float SCREEN_H = 2200f;
+
+    // 2x wider and taller than the screen so 512 colliders and 2k balls
+    // still leave ball-sized gaps between them
+    static final float WORLD_W = SCREEN_W * 2f;
+    static final float WORLD_H = SCREEN_H * 2f;
+    static final float BALL = 24f;
+    static final float CEILING = 100f;
+    static final long TICK_NANOS = GameConfig.REFERENCE_FRAME_NANOS;
+
+    private BenchmarkWorld() {}
+
+    /** Half the colliders become boxes, half bumpers. */
+    static Simulation create(int balls, int colliders, long seed) {
+        Random rnd = new Random(seed);
+
+        Simulation sim = new Simulation(0L);
+        sim.setListener(new KeepPlaying(sim));
+        sim.setScreenSize(WORLD_W, WORLD_H);
+        sim.seed(seed);
+        sim.clearGameObjects();
+        sim.startRun();
+        sim.setState(Simulation.State.PLAYING);
+        GameState.get().setPaused(false);
+
+        List<FRect> placed = new ArrayList<>();
+        for (int i = 0; i < colliders / 2; i++) {
+            sim.addBox(new Box(freeRect(rnd, placed, 60f, GameConfig.BOX_HEIGHT), Integer.MAX_VALUE, 0, 0));
+            sim.bumperSystem.add(new Bumper(freeRect(rnd, placed, 160f, GameConfig.BUMPER_HEIGHT),
+                    0f, false, 1.2f, 0L, Long.MAX_VALUE / 2));
+        }
+        for (int i = 0; i < balls; i++) {
+            FRect spot = freeRect(rnd, placed, BALL, BALL);
+            placed.remove(placed.size() - 1);
+            sim.balls.add(spot.left, spot.top, BALL,
+                    rnd.nextFloat() * 20f - 10f, rnd.nextFloat() * 20f - 10f, 0, 0L);
+        }
+        return sim;
+    }
+
+    // Random spot in the world at least one ball size away from the others
+    static FRect freeRect(Random rnd, List<FRect> placed, float w, float h) {
+        FRect rect = new FRect();
+        for (int attempt = 0; attempt < 1000; attempt++) {
+            float left = rnd.nextFloat() * (WORLD_W - w);
+            float top = CEILING + rnd.nextFloat() * (WORLD_H - h - CEILING - 400f);
+            rect.set(left, top, left + w, top + h);
+            if (!tooClose(rect, placed)) break;
+        }
+        placed.add(rect);
+        return rect;
+    }
+
+    private static boolean tooClose(FRect rect, List<FRect> placed) {
+        for (FRect other : placed) {
+            if (rect.intersects(other.left - BALL, other.top - BALL,
+                    other.right + BALL, other.bottom + BALL)) return true;
+        }
+        return false;
+    }
+
+    private static final class KeepPlaying implements Simulation.Listener {
+        private final Simulation sim;
+
+        KeepPlaying(Simulation sim) {
+            this.sim = sim;
+        }
+
+        @Override public void onPopup(String template, int a, int b, float x, float y) {}
+        @Override public void onCatch() {}
+        @Override public void onMiss() {}
+
+        @Override
+        public void onLevelUp(int level, int xp, UpgradeManager.Choice[] choices) {
+            GameState.get().setPaused(false);
+        }
+
+        @Override
+        public void onGameOver(int finalScore, int highScore) {
+            sim.resetGameOverFlag();
+            sim.startRun();
+            sim.setState(Simulation.State.PLAYING);
+            GameState.get().setPaused(false);
+        }
+    }
+}
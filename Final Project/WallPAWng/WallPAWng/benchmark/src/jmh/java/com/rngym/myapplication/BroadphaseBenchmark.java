@@ -0,0 +1,98 @@
+package com.rngym.myapplication;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BroadphaseBenchmark - ball vs static collider lookups as the number of
+ * boxes and bumpers grows past the getMaxBoxesForLevel cap of 8.
+ * linearScan is the old per-substep loop, gridQuery the SpatialGrid path,
+ * simulationTick a full Simulation.step in a BenchmarkWorld.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BroadphaseBenchmark {
+
+    private static final float SCREEN_W = BenchmarkWorld.SCREEN_W;
+    private static final float SCREEN_H = BenchmarkWorld.SCREEN_H;
+    private static final int BALLS = 256;
+
+    @Param({"8", "32", "128", "512"})
+    public int colliders;
+
+    private final List<Box> boxes = new ArrayList<>();
+    private final SpatialGrid<Box> grid = new SpatialGrid<>(GameConfig.COLLIDER_CELL_SIZE);
+    private final List<Box> candidates = new ArrayList<>();
+    private FRect[] ballRects;
+
+    private Simulation sim;
+
+    @Setup
+    public void setup() {
+        Random rnd = new Random(42);
+        grid.resize(SCREEN_W, SCREEN_H);
+
+        boxes.clear();
+        for (int i = 0; i < colliders; i++) {
+            Box box = new Box(randomRect(rnd, 60f + rnd.nextFloat() * 80f, GameConfig.BOX_HEIGHT),
+                    Integer.MAX_VALUE, 0, 0);
+            boxes.add(box);
+            grid.insert(box, box.rect);
+        }
+
+        ballRects = new FRect[BALLS];
+        float r = SCREEN_W * GameConfig.BALL_SIZE_PERCENT;
+        for (int i = 0; i < BALLS; i++) {
+            ballRects[i] = randomRect(rnd, r, r);
+        }
+
+        sim = BenchmarkWorld.create(BALLS, colliders, 42L);
+    }
+
+    @Benchmark
+    public int linearScan() {
+        int hits = 0;
+        for (FRect ball : ballRects) {
+            for (int k = 0, n = boxes.size(); k < n; k++) {
+                if (FRect.intersects(ball, boxes.get(k).rect)) hits++;
+            }
+        }
+        return hits;
+    }
+
+    @Benchmark
+    public int gridQuery() {
+        int hits = 0;
+        for (FRect ball : ballRects) {
+            grid.query(ball.left, ball.top, ball.right, ball.bottom, candidates);
+            for (int k = 0, n = candidates.size(); k < n; k++) {
+                if (FRect.intersects(ball, candidates.get(k).rect)) hits++;
+            }
+        }
+        return hits;
+    }
+
+    @Benchmark
+    public int simulationTick() {
+        sim.step(0, BenchmarkWorld.TICK_NANOS);
+        return sim.balls.size();
+    }
+
+    private static FRect randomRect(Random rnd, float w, float h) {
+        float left = rnd.nextFloat() * (SCREEN_W - w);
+        float top = rnd.nextFloat() * (SCREEN_H - h);
+        return new FRect(left, top, left + w, top + h);
+    }
+}
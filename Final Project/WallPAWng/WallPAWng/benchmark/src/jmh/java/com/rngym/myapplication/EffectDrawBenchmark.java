@@ -0,0 +1,148 @@
+package com.rngym.myapplication;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.MultipleGradientPaint;
+import java.awt.RadialGradientPaint;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Line2D;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * EffectDrawBenchmark - cost of drawing one fallback black hole, before and
+ * after the effect cache. android.graphics can't run on the JVM, so both
+ * versions are drawn with java.awt on a software image, which mirrors the
+ * game's software SurfaceView canvas:
+ *   perFrameGradient - the old path: a new gradient and paint every frame,
+ *                      the hole drawn at its pulsed size, spokes from trig
+ *   cachedGradient   - the new path: a cached gradient at the origin, with
+ *                      pulse and rotation applied as a transform
+ * Filling the gradient dominates both; run with -prof gc to see the
+ * per-frame allocations the cache removes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EffectDrawBenchmark {
+
+    @Param({"32", "96"})
+    public int radius;
+
+    private static final Color GLOW = new Color(0xFF4A0080, true);
+    private static final Color CLEAR = new Color(0, true);
+    private static final Color RING = new Color(0xFF8B00FF, true);
+    private static final float[] STOPS = {0f, 1f};
+
+    private BufferedImage image;
+    private Graphics2D g;
+    private AffineTransform identity;
+    private final BasicStroke ringStroke = new BasicStroke(3f);
+    private final BasicStroke spokeStroke = new BasicStroke(2f);
+    private final Ellipse2D.Float circle = new Ellipse2D.Float();
+    private final Line2D.Float line = new Line2D.Float();
+    private final float[] spokeCos = new float[8];
+    private final float[] spokeSin = new float[8];
+
+    private EffectCache<RadialGradientPaint> effects;
+    private long age = 0L;
+
+    @Setup
+    public void setup() {
+        image = new BufferedImage(512, 512, BufferedImage.TYPE_INT_ARGB);
+        g = image.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        identity = g.getTransform();
+
+        for (int i = 0; i < 8; i++) {
+            double rad = Math.toRadians(i * 45.0);
+            spokeCos[i] = (float) Math.cos(rad);
+            spokeSin[i] = (float) Math.sin(rad);
+        }
+
+        effects = new EffectCache<>((kind, color, r) -> new RadialGradientPaint(
+                0f, 0f, r, STOPS, new Color[]{new Color(color, true), CLEAR},
+                MultipleGradientPaint.CycleMethod.NO_CYCLE),
+                GameConfig.EFFECT_CACHE_CAPACITY, GameConfig.EFFECT_RADIUS_QUANTUM);
+    }
+
+    @TearDown
+    public void tearDown() {
+        g.dispose();
+    }
+
+    @Benchmark
+    public void perFrameGradient() {
+        age += 16L;
+        float cx = 256f, cy = 256f;
+        float rotation = (age * GameConfig.BLACKHOLE_ROTATION_SPEED) % 360f;
+        float r = radius * (1f + 0.1f * (float) Math.sin(age * 0.003f));
+
+        g.setPaint(new RadialGradientPaint(cx, cy, r * 1.5f, STOPS, new Color[]{GLOW, CLEAR},
+                MultipleGradientPaint.CycleMethod.NO_CYCLE));
+        g.fill(new Ellipse2D.Float(cx - r * 1.5f, cy - r * 1.5f, r * 3f, r * 3f));
+
+        g.setPaint(Color.BLACK);
+        g.fill(new Ellipse2D.Float(cx - r * 0.6f, cy - r * 0.6f, r * 1.2f, r * 1.2f));
+
+        g.setPaint(RING);
+        g.setStroke(new BasicStroke(3f));
+        g.draw(new Ellipse2D.Float(cx - r * 0.9f, cy - r * 0.9f, r * 1.8f, r * 1.8f));
+
+        g.rotate(Math.toRadians(rotation), cx, cy);
+        g.setStroke(new BasicStroke(2f));
+        for (int i = 0; i < 8; i++) {
+            float rad = (float) Math.toRadians(i * 45f);
+            g.draw(new Line2D.Float(
+                    cx + (float) Math.cos(rad) * r * 1.2f, cy + (float) Math.sin(rad) * r * 1.2f,
+                    cx + (float) Math.cos(rad) * r * 0.9f, cy + (float) Math.sin(rad) * r * 0.9f));
+        }
+        g.setTransform(identity);
+    }
+
+    @Benchmark
+    public void cachedGradient() {
+        age += 16L;
+        float r = radius;
+        float rotation = (age * GameConfig.BLACKHOLE_ROTATION_SPEED) % 360f;
+        float pulse = 1f + 0.1f * (float) Math.sin(age * 0.003f);
+
+        g.translate(256.0, 256.0);
+        g.rotate(Math.toRadians(rotation));
+        g.scale(pulse, pulse);
+
+        g.setPaint(effects.get(0, 0xFF4A0080, r * 1.5f));
+        circle.setFrame(-r * 1.5f, -r * 1.5f, r * 3f, r * 3f);
+        g.fill(circle);
+
+        g.setPaint(Color.BLACK);
+        circle.setFrame(-r * 0.6f, -r * 0.6f, r * 1.2f, r * 1.2f);
+        g.fill(circle);
+
+        g.setPaint(RING);
+        g.setStroke(ringStroke);
+        circle.setFrame(-r * 0.9f, -r * 0.9f, r * 1.8f, r * 1.8f);
+        g.draw(circle);
+
+        g.setStroke(spokeStroke);
+        for (int i = 0; i < 8; i++) {
+            line.setLine(spokeCos[i] * r * 1.2f, spokeSin[i] * r * 1.2f,
+                    spokeCos[i] * r * 0.9f, spokeSin[i] * r * 0.9f);
+            g.draw(line);
+        }
+        g.setTransform(identity);
+    }
+}
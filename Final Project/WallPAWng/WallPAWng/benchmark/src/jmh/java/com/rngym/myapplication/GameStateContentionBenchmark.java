@@ -0,0 +1,218 @@
+package com.rngym.myapplication;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GameStateContentionBenchmark - one game-thread tick of GameState traffic
+ * while the UI thread reads the HUD as fast as it can, before and after
+ * GameState went single-writer:
+ *   locked       - the old shape, kept here as LockedGameState: a
+ *                  synchronized singleton getter and synchronized accessors,
+ *                  so every call in the collision loop takes the monitor the
+ *                  HUD is polling
+ *   singleWriter - GameState today: plain field access on the game thread,
+ *                  one publishHud per tick, and the HUD reading the
+ *                  published snapshot
+ * Each hit does what a paddle catch does in Simulation. The reader spins
+ * instead of waiting 100 ms, which is the worst case for the lock. Lock
+ * acquisitions per tick are printed at the end of each trial.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class GameStateContentionBenchmark {
+
+    @Param({"1", "16"})
+    public int hitsPerTick;
+
+    private long now = 0L;
+    private long ticks = 0L;
+    private long lockedLocksAtStart;
+
+    @Setup
+    public void setup() {
+        GameState gs = GameState.get();
+        gs.clearUpgrades();
+        gs.resetRun(0L);
+        gs.unlockUpgrade("score_x2");
+        gs.publishHud();
+
+        LockedGameState locked = LockedGameState.get();
+        locked.reset();
+        locked.unlockUpgrade("score_x2");
+        lockedLocksAtStart = locked.acquisitions();
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (ticks == 0L) return;
+        long locks = LockedGameState.get().acquisitions() - lockedLocksAtStart;
+        System.out.printf("%nlock acquisitions per tick (hitsPerTick=%d): %.1f%n",
+                hitsPerTick, locks / (double) ticks);
+    }
+
+    // === LOCKED ===
+
+    @Benchmark
+    @Group("locked")
+    @GroupThreads(1)
+    public int lockedTick() {
+        now += 16L;
+        ticks++;
+        int score = 0;
+        for (int i = 0; i < hitsPerTick; i++) {
+            LockedGameState.get().registerCatch(now);
+            float mult = LockedGameState.get().getComboMultiplier();
+            int combo = LockedGameState.get().getCombo();
+            int gain = LockedGameState.get().hasUpgrade("score_x2") ? 20 : 10;
+            LockedGameState.get().addXP(combo > 1 ? 2 : 1);
+            LockedGameState.get().addScore((int) (gain * mult));
+            score += LockedGameState.get().getLevel();
+        }
+        return score;
+    }
+
+    // The old updateHUD: a dozen synchronized getters per refresh
+    @Benchmark
+    @Group("locked")
+    @GroupThreads(1)
+    public float lockedHud() {
+        LockedGameState gs = LockedGameState.get();
+        return gs.getLevel() + gs.getScore() + gs.getCombo() + gs.getComboMultiplier()
+                + (gs.isComboExpiring(now) ? 1 : 0) + gs.getTimeSinceLastCatch(now)
+                + gs.getXP() + gs.getLevel() + gs.getStress() + gs.getMaxStress();
+    }
+
+    // === SINGLE WRITER ===
+
+    @Benchmark
+    @Group("singleWriter")
+    @GroupThreads(1)
+    public int singleWriterTick() {
+        now += 16L;
+        ticks++;
+        GameState gs = GameState.get();
+        int score = 0;
+        for (int i = 0; i < hitsPerTick; i++) {
+            gs.registerCatch(now);
+            float mult = gs.getComboMultiplier();
+            int combo = gs.getCombo();
+            int gain = gs.hasUpgrade("score_x2") ? 20 : 10;
+            gs.addXP(combo > 1 ? 2 : 1);
+            gs.addScore((int) (gain * mult));
+            score += gs.getLevel();
+        }
+        gs.publishHud();
+        return score;
+    }
+
+    @Benchmark
+    @Group("singleWriter")
+    @GroupThreads(1)
+    public float singleWriterHud() {
+        HudSnapshot hud = GameState.get().getHud();
+        return hud.level + hud.score + hud.combo + hud.comboMultiplier()
+                + (hud.isComboExpiring(now) ? 1 : 0) + hud.timeSinceLastCatch(now)
+                + hud.xp + hud.level + hud.stress + hud.maxStress;
+    }
+
+    // The accessors GameState had before it went single-writer
+    private static final class LockedGameState {
+        private static LockedGameState instance;
+        private static long getCalls = 0L;     // guarded by the class monitor
+        private long acquisitions = 0L;        // guarded by the instance monitor
+
+        private int score, level = 1, xp, combo;
+        private float stress, maxStress = 100f;
+        private long lastCatchTime;
+        private final Set<String> upgrades = new HashSet<>();
+
+        static synchronized LockedGameState get() {
+            getCalls++;
+            if (instance == null) instance = new LockedGameState();
+            return instance;
+        }
+
+        static synchronized long getCalls() {
+            return getCalls;
+        }
+
+        synchronized long acquisitions() {
+            return acquisitions + getCalls();
+        }
+
+        synchronized void reset() {
+            acquisitions++;
+            score = 0; level = 1; xp = 0; combo = 0;
+            stress = 0f; lastCatchTime = 0L;
+            upgrades.clear();
+        }
+
+        synchronized void unlockUpgrade(String name) {
+            acquisitions++;
+            upgrades.add(name);
+        }
+
+        synchronized boolean hasUpgrade(String name) {
+            acquisitions++;
+            return upgrades.contains(name);
+        }
+
+        synchronized void addScore(int v) {
+            acquisitions++;
+            score += v;
+            if (score < 0) score = 0;
+        }
+
+        synchronized void addXP(int v) {
+            acquisitions++;
+            xp += v;
+        }
+
+        synchronized void registerCatch(long t) {
+            acquisitions++;
+            if (lastCatchTime > 0 && (t - lastCatchTime) > GameConfig.COMBO_TIMEOUT_MS) combo = 0;
+            combo++;
+            lastCatchTime = t;
+        }
+
+        synchronized int getScore() { acquisitions++; return score; }
+        synchronized int getLevel() { acquisitions++; return level; }
+        synchronized int getXP() { acquisitions++; return xp; }
+        synchronized int getCombo() { acquisitions++; return combo; }
+        synchronized float getStress() { acquisitions++; return stress; }
+        synchronized float getMaxStress() { acquisitions++; return maxStress; }
+
+        synchronized float getComboMultiplier() {
+            acquisitions++;
+            if (combo >= 20) return 3.0f;
+            if (combo >= 10) return 2.0f;
+            if (combo >= 5) return 1.5f;
+            return 1.0f;
+        }
+
+        synchronized long getTimeSinceLastCatch(long t) {
+            acquisitions++;
+            return lastCatchTime == 0 ? Long.MAX_VALUE : t - lastCatchTime;
+        }
+
+        synchronized boolean isComboExpiring(long t) {
+            acquisitions++;
+            return combo != 0 && getTimeSinceLastCatch(t) > GameConfig.COMBO_TIMEOUT_MS * 0.7f;
+        }
+    }
+}
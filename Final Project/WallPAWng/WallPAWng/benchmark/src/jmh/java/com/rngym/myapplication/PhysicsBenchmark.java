@@ -0,0 +1,165 @@
+package com.rngym.myapplication;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PhysicsBenchmark - the per-ball physics building blocks over every ball
+ * of a BenchmarkWorld, plus a full tick of the same world.
+ * Benchmarks that change velocities restore them from a copy first, so
+ * every call sees the same input.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PhysicsBenchmark {
+
+    @Param({"16", "256", "2048"})
+    public int balls;
+
+    @Param({"8", "64", "256"})
+    public int colliders;
+
+    private Simulation sim;
+    private BallBuffer b;
+
+    private float[] vx0, vy0, x0, y0;
+    private final PhysicsEngine.Contact earliest = new PhysicsEngine.Contact();
+    private final FRect query = new FRect();
+    private final SpatialGrid<Box> boxGrid = new SpatialGrid<>(GameConfig.COLLIDER_CELL_SIZE);
+    private final List<Box> candidates = new ArrayList<>();
+    private final List<Bumper> bumperCandidates = new ArrayList<>();
+
+    @Setup
+    public void setup() {
+        sim = BenchmarkWorld.create(balls, colliders, 42L);
+        sim.blackHoleSystem.spawn(sim.now(), (int) BenchmarkWorld.WORLD_W, (int) BenchmarkWorld.WORLD_H);
+        b = sim.balls;
+
+        // Every other ball over the speed cap so clampVelocity has work to do
+        for (int i = 0; i < b.size(); i++) {
+            if (i % 2 == 0) {
+                b.vx[i] *= 20f;
+                b.vy[i] *= 20f;
+            }
+        }
+        vx0 = b.vx.clone();
+        vy0 = b.vy.clone();
+        x0 = b.x.clone();
+        y0 = b.y.clone();
+
+        boxGrid.resize(BenchmarkWorld.WORLD_W, BenchmarkWorld.WORLD_H);
+        for (int k = 0; k < sim.boxes.size(); k++) {
+            Box box = sim.boxes.get(k);
+            boxGrid.insert(box, box.rect);
+        }
+    }
+
+    @Benchmark
+    public float clampVelocity() {
+        restoreVelocities();
+        for (int i = 0, n = b.size(); i < n; i++) {
+            PhysicsEngine.clampVelocity(b, i);
+        }
+        return b.vx[0];
+    }
+
+    // Black hole pull sampled from the baked gravity field
+    @Benchmark
+    public float applyPull() {
+        restoreVelocities();
+        for (int i = 0, n = b.size(); i < n; i++) {
+            sim.blackHoleSystem.applyPull(b, i, 1f);
+        }
+        return b.vx[0];
+    }
+
+    // Balls start clear of every collider, so this is the common miss path
+    @Benchmark
+    public int firstIntersecting() {
+        int hits = 0;
+        for (int i = 0, n = b.size(); i < n; i++) {
+            query.set(b.x[i], b.y[i], b.x[i] + b.r[i], b.y[i] + b.r[i]);
+            if (firstBumperHit(query) != null) hits++;
+        }
+        return hits;
+    }
+
+    // Only bumpers sharing a grid cell with the ball are tested
+    private Bumper firstBumperHit(FRect ballRect) {
+        sim.bumperSystem.query(ballRect, bumperCandidates);
+        for (int k = 0, n = bumperCandidates.size(); k < n; k++) {
+            Bumper bumper = bumperCandidates.get(k);
+            if (FRect.intersects(ballRect, bumper.rect)) return bumper;
+        }
+        return null;
+    }
+
+    // Swept move of one tick against the boxes near each ball; this is the
+    // time-of-impact search that replaced moveWithSubsteps
+    @Benchmark
+    public int sweepMove() {
+        int hits = 0;
+        for (int i = 0, n = b.size(); i < n; i++) {
+            if (earliestBoxContact(i, vx0[i], vy0[i]) != null) hits++;
+        }
+        return hits;
+    }
+
+    // Sweep, push out and reflect off the first box hit, like handleBoxCollision
+    @Benchmark
+    public int boxCollision() {
+        restoreVelocities();
+        System.arraycopy(x0, 0, b.x, 0, b.size());
+        System.arraycopy(y0, 0, b.y, 0, b.size());
+
+        int hits = 0;
+        for (int i = 0, n = b.size(); i < n; i++) {
+            Box box = earliestBoxContact(i, b.vx[i], b.vy[i]);
+            if (box == null) continue;
+            b.x[i] += b.vx[i] * earliest.t;
+            b.y[i] += b.vy[i] * earliest.t;
+            PhysicsEngine.pushOut(b, i, box.rect, earliest);
+            PhysicsEngine.reflect(b, i, earliest, 1f);
+            hits++;
+        }
+        return hits;
+    }
+
+    // updateBalls and everything else in one Simulation.step
+    @Benchmark
+    public int simulationTick() {
+        sim.step(0, BenchmarkWorld.TICK_NANOS);
+        return sim.balls.size();
+    }
+
+    private Box earliestBoxContact(int i, float dx, float dy) {
+        float x = b.x[i], y = b.y[i], size = b.r[i];
+        query.set(Math.min(x, x + dx), Math.min(y, y + dy),
+                Math.max(x, x + dx) + size, Math.max(y, y + dy) + size);
+        boxGrid.query(query.left, query.top, query.right, query.bottom, candidates);
+
+        Box hit = null;
+        earliest.reset();
+        for (int k = 0, m = candidates.size(); k < m; k++) {
+            Box box = candidates.get(k);
+            if (PhysicsEngine.sweep(x, y, size, dx, dy, box.rect, earliest)) hit = box;
+        }
+        return hit;
+    }
+
+    private void restoreVelocities() {
+        System.arraycopy(vx0, 0, b.vx, 0, b.size());
+        System.arraycopy(vy0, 0, b.vy, 0, b.size());
+    }
+}
@@ -0,0 +1,76 @@
+package com.rngym.myapplication;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SaveStateBenchmark - what pausing costs: capture() runs on the sim thread
+ * while it waits, write() and read+restore run off it. Setup prints the
+ * size of the save for each world.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SaveStateBenchmark {
+
+    @Param({"16", "256", "2048"})
+    public int balls;
+
+    @Param({"8", "64", "256"})
+    public int colliders;
+
+    private Simulation sim;
+    private Simulation target;
+    private final SaveState saved = new SaveState();
+    private final SaveState loaded = new SaveState();
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream(64 * 1024);
+    private byte[] bytes;
+
+    @Setup
+    public void setup() throws IOException {
+        sim = BenchmarkWorld.create(balls, colliders, 42L);
+        for (int i = 0; i < 60; i++) {
+            sim.step(0, BenchmarkWorld.TICK_NANOS);
+        }
+        target = new Simulation(0L);
+
+        saved.capture(sim);
+        saved.write(out);
+        bytes = out.toByteArray();
+        System.out.println("save-state " + balls + " balls / " + colliders
+                + " colliders: " + bytes.length + " bytes");
+    }
+
+    // Copy-on-pause, the only part the sim thread waits for
+    @Benchmark
+    public int capture() {
+        saved.capture(sim);
+        return saved.ballCount;
+    }
+
+    @Benchmark
+    public int write() throws IOException {
+        out.reset();
+        saved.write(out);
+        return out.size();
+    }
+
+    // Startup path: parse the file and rebuild a Simulation from it
+    @Benchmark
+    public int readAndRestore() throws IOException {
+        loaded.read(new ByteArrayInputStream(bytes));
+        loaded.restore(target);
+        return target.balls.size();
+    }
+}
@@ -0,0 +1,50 @@
+package com.rngym.myapplication;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SpawnPlacementBenchmark - one spawn's worth of placement on a
+ * BenchmarkWorld: marking the field into the occupancy grid, then sampling
+ * a box-sized rect. The cost follows the grid size, not how full it is.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SpawnPlacementBenchmark {
+
+    @Param({"16", "256", "2048"})
+    public int balls;
+
+    @Param({"8", "64", "256"})
+    public int colliders;
+
+    private Simulation sim;
+    private final Random rnd = new Random(42L);
+    private final FRect out = new FRect();
+
+    @Setup
+    public void setup() {
+        sim = BenchmarkWorld.create(balls, colliders, 42L);
+    }
+
+    @Benchmark
+    public OccupancyGrid markField() {
+        return sim.spawnGrid();
+    }
+
+    @Benchmark
+    public boolean placeBox() {
+        return sim.spawnGrid().sample(GameConfig.BOX_MAX_WIDTH, GameConfig.BOX_HEIGHT,
+                0f, 0f, BenchmarkWorld.WORLD_W, BenchmarkWorld.WORLD_H, rnd, out);
+    }
+}
@@ -0,0 +1,135 @@
+package com.rngym.myapplication;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * AtlasLayout - where each sprite sits inside one packed atlas texture.
+ * Built by shelf packing: sprites go tallest first, left to right along
+ * rows, and every power-of-two width that fits is tried so the atlas with
+ * the least area wins. The layout can be saved next to the atlas image so
+ * later launches skip packing.
+ */
+public class AtlasLayout {
+
+    private static final int MAGIC = 0x57504154; // "WPAT"
+    private static final int VERSION = 1;
+
+    public final int width, height;
+    public final int[] x, y, w, h;
+
+    public AtlasLayout(int width, int height, int[] x, int[] y, int[] w, int[] h) {
+        this.width = width;
+        this.height = height;
+        this.x = x;
+        this.y = y;
+        this.w = w;
+        this.h = h;
+    }
+
+    public int count() {
+        return x.length;
+    }
+
+    // === PACKING ===
+
+    /**
+     * Packs sprites of the given sizes with `padding` px between them and
+     * the edges, no wider than maxWidth. Sprite i of the result is sprite i
+     * of the input.
+     */
+    public static AtlasLayout pack(int[] widths, int[] heights, int padding, int maxWidth) {
+        int n = widths.length;
+        if (heights.length != n) throw new IllegalArgumentException("widths and heights differ in length");
+
+        // Tallest first keeps every row close to its own height
+        Integer[] order = new Integer[n];
+        int widest = 0;
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+            widest = Math.max(widest, widths[i]);
+        }
+        Arrays.sort(order, (a, b) -> heights[b] != heights[a] ? heights[b] - heights[a] : widths[b] - widths[a]);
+
+        int minWidth = widest + padding * 2;
+        if (minWidth > maxWidth) throw new IllegalArgumentException("sprite wider than atlas: " + widest);
+
+        AtlasLayout best = null;
+        for (int atlasW = Integer.highestOneBit(Math.max(1, minWidth - 1)) << 1; ; atlasW <<= 1) {
+            int tryW = Math.min(atlasW, maxWidth);
+            AtlasLayout layout = shelfPack(order, widths, heights, padding, tryW);
+            if (best == null || (long) layout.width * layout.height < (long) best.width * best.height) {
+                best = layout;
+            }
+            if (tryW >= maxWidth) break;
+        }
+        return best;
+    }
+
+    private static AtlasLayout shelfPack(Integer[] order, int[] widths, int[] heights, int padding, int atlasW) {
+        int n = widths.length;
+        int[] x = new int[n], y = new int[n], w = new int[n], h = new int[n];
+        int penX = padding, penY = padding, rowH = 0, usedW = 0;
+
+        for (Integer idx : order) {
+            int i = idx;
+            if (penX + widths[i] + padding > atlasW) {
+                // New row
+                penX = padding;
+                penY += rowH + padding;
+                rowH = 0;
+            }
+            x[i] = penX;
+            y[i] = penY;
+            w[i] = widths[i];
+            h[i] = heights[i];
+            penX += widths[i] + padding;
+            rowH = Math.max(rowH, heights[i]);
+            usedW = Math.max(usedW, penX);
+        }
+        return new AtlasLayout(Math.max(usedW, 1), Math.max(penY + rowH + padding, 1), x, y, w, h);
+    }
+
+    // === FILE FORMAT ===
+
+    /** Writes the layout tagged with `key`, so a stale index can be spotted. */
+    public void write(OutputStream out, long key) throws IOException {
+        DataOutputStream d = new DataOutputStream(out);
+        d.writeInt(MAGIC);
+        d.writeInt(VERSION);
+        d.writeLong(key);
+        d.writeInt(width);
+        d.writeInt(height);
+        d.writeInt(count());
+        for (int i = 0; i < count(); i++) {
+            d.writeInt(x[i]);
+            d.writeInt(y[i]);
+            d.writeInt(w[i]);
+            d.writeInt(h[i]);
+        }
+        d.flush();
+    }
+
+    /** Reads a layout written with the same key, or null if it is for something else. */
+    public static AtlasLayout read(InputStream in, long key) throws IOException {
+        DataInputStream d = new DataInputStream(in);
+        if (d.readInt() != MAGIC || d.readInt() != VERSION || d.readLong() != key) return null;
+        int width = d.readInt();
+        int height = d.readInt();
+        int n = d.readInt();
+        if (width <= 0 || height <= 0 || n < 0 || n > 4096) throw new IOException("Corrupt atlas index");
+
+        int[] x = new int[n], y = new int[n], w = new int[n], h = new int[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = d.readInt();
+            y[i] = d.readInt();
+            w[i] = d.readInt();
+            h[i] = d.readInt();
+        }
+        return new AtlasLayout(width, height, x, y, w, h);
+    }
+}
@@ -0,0 +1,162 @@
+package com.rngym.myapplication;
+
+/**
+ * BallBuffer - structure-of-arrays storage for every yarn ball.
+ * Ball i lives at index i of each parallel array. Removal swaps the last
+ * ball into the hole, so indices are only stable until the next remove().
+ */
+public class BallBuffer {
+
+    // Flags
+    public static final int FLAG_SMALL = 1;
+
+    // Portal cooldown
+    public static final long TELEPORT_COOLDOWN_MS = 900;
+
+    // Collision cooldown, kept apart for boxes/bumpers and for other balls
+    public static final long COLLISION_COOLDOWN_MS = 100;
+
+    // Small balls expire after this long
+    public static final long SMALL_BALL_LIFETIME = 10000L; // 10 seconds
+
+    // Position & physics (x/y is the top-left corner, r the sprite size)
+    public float[] x, y, r;
+    public float[] vx, vy;
+
+    // Position at the start of the last tick, for render interpolation
+    public float[] prevX, prevY;
+
+    // Timers
+    public long[] lastTeleportedAt;
+    public long[] lastCollisionTimeMs;
+    public long[] lastBallHitMs;
+    public long[] spawnTime;
+
+    public int[] flags;
+
+    private int size = 0;
+
+    public BallBuffer(int initialCapacity) {
+        allocate(Math.max(1, initialCapacity));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return x.length;
+    }
+
+    public int add(float bx, float by, float br, float bvx, float bvy, int bflags, long now) {
+        if (size == x.length) {
+            grow();
+        }
+        int i = size++;
+        x[i] = bx;
+        y[i] = by;
+        r[i] = br;
+        vx[i] = bvx;
+        vy[i] = bvy;
+        prevX[i] = bx;
+        prevY[i] = by;
+        lastTeleportedAt[i] = 0L;
+        lastCollisionTimeMs[i] = 0L;
+        lastBallHitMs[i] = 0L;
+        spawnTime[i] = now;
+        flags[i] = bflags;
+        return i;
+    }
+
+    // Swap-remove: the last ball moves into slot i
+    public void remove(int i) {
+        int last = --size;
+        if (i != last) {
+            x[i] = x[last];
+            y[i] = y[last];
+            r[i] = r[last];
+            vx[i] = vx[last];
+            vy[i] = vy[last];
+            prevX[i] = prevX[last];
+            prevY[i] = prevY[last];
+            lastTeleportedAt[i] = lastTeleportedAt[last];
+            lastCollisionTimeMs[i] = lastCollisionTimeMs[last];
+            lastBallHitMs[i] = lastBallHitMs[last];
+            spawnTime[i] = spawnTime[last];
+            flags[i] = flags[last];
+        }
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public float centerX(int i) {
+        return x[i] + r[i] * 0.5f;
+    }
+
+    public float centerY(int i) {
+        return y[i] + r[i] * 0.5f;
+    }
+
+    public void setCenter(int i, float cx, float cy) {
+        x[i] = cx - r[i] * 0.5f;
+        y[i] = cy - r[i] * 0.5f;
+    }
+
+    // Skip interpolation after a jump (teleport, respawn)
+    public void snap(int i) {
+        prevX[i] = x[i];
+        prevY[i] = y[i];
+    }
+
+    public boolean isMoving(int i) {
+        return Math.abs(vx[i]) > 0.1f || Math.abs(vy[i]) > 0.1f;
+    }
+
+    public boolean isSmall(int i) {
+        return (flags[i] & FLAG_SMALL) != 0;
+    }
+
+    public boolean isExpired(int i, long now) {
+        if (!isSmall(i)) return false; // Normal balls never expire
+        return now - spawnTime[i] > SMALL_BALL_LIFETIME;
+    }
+
+    private void allocate(int capacity) {
+        x = new float[capacity];
+        y = new float[capacity];
+        r = new float[capacity];
+        vx = new float[capacity];
+        vy = new float[capacity];
+        prevX = new float[capacity];
+        prevY = new float[capacity];
+        lastTeleportedAt = new long[capacity];
+        lastCollisionTimeMs = new long[capacity];
+        lastBallHitMs = new long[capacity];
+        spawnTime = new long[capacity];
+        flags = new int[capacity];
+    }
+
+    private void grow() {
+        int n = size;
+        float[] ox = x, oy = y, or = r, ovx = vx, ovy = vy, opx = prevX, opy = prevY;
+        long[] otp = lastTeleportedAt, ocol = lastCollisionTimeMs, ohit = lastBallHitMs, ospawn = spawnTime;
+        int[] oflags = flags;
+
+        allocate(x.length * 2);
+
+        System.arraycopy(ox, 0, x, 0, n);
+        System.arraycopy(oy, 0, y, 0, n);
+        System.arraycopy(or, 0, r, 0, n);
+        System.arraycopy(ovx, 0, vx, 0, n);
+        System.arraycopy(ovy, 0, vy, 0, n);
+        System.arraycopy(opx, 0, prevX, 0, n);
+        System.arraycopy(opy, 0, prevY, 0, n);
+        System.arraycopy(otp, 0, lastTeleportedAt, 0, n);
+        System.arraycopy(ocol, 0, lastCollisionTimeMs, 0, n);
+        System.arraycopy(ohit, 0, lastBallHitMs, 0, n);
+        System.arraycopy(ospawn, 0, spawnTime, 0, n);
+        System.arraycopy(oflags, 0, flags, 0, n);
+    }
+}
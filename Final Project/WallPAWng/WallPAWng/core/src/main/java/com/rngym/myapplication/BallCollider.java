@@ -0,0 +1,153 @@
+package com.rngym.myapplication;
+
+/**
+ * BallCollider - elastic ball vs ball collisions with a sort-and-sweep
+ * broadphase along x. The sort order is kept between ticks and repaired with
+ * an insertion sort, which is close to O(n) because balls only move a little
+ * per tick. Balls are treated as circles of diameter r, mass r * r.
+ * Overlaps are always separated. The impulse waits out
+ * COLLISION_COOLDOWN_MS on each ball's own lastBallHitMs, so ball-ball hits
+ * never touch the box and bumper timer.
+ */
+public class BallCollider {
+
+    private int[] order = new int[GameConfig.INITIAL_BALL_CAPACITY];
+    private int count = 0;
+
+    // === STATS (last resolve call) ===
+    private int pairsTested = 0;
+    private int collisions = 0;
+
+    public void resolve(BallBuffer b, long now) {
+        syncOrder(b.size());
+        sortByLeftEdge(b);
+
+        pairsTested = 0;
+        collisions = 0;
+
+        float[] x = b.x;
+        for (int k = 0; k < count; k++) {
+            int i = order[k];
+            float right = x[i] + b.r[i];
+
+            // Only balls whose left edge starts before this one ends can touch it
+            for (int m = k + 1; m < count; m++) {
+                int j = order[m];
+                if (x[j] >= right) break;
+                pairsTested++;
+                collide(b, i, j, now);
+            }
+        }
+    }
+
+    public void reset() {
+        count = 0;
+    }
+
+    // Drops entries past `balls` like syncOrder would, so the saved order is valid
+    void saveTo(SaveState s, int balls) {
+        s.ensureBalls(count);
+        int w = 0;
+        for (int k = 0; k < count; k++) {
+            if (order[k] < balls) s.order[w++] = order[k];
+        }
+        s.orderCount = w;
+    }
+
+    void loadFrom(SaveState s) {
+        if (s.orderCount > order.length) order = new int[s.orderCount * 2];
+        System.arraycopy(s.order, 0, order, 0, s.orderCount);
+        count = s.orderCount;
+    }
+
+    public int getPairsTested() {
+        return pairsTested;
+    }
+
+    public int getCollisions() {
+        return collisions;
+    }
+
+    // Keeps order a permutation of 0..n-1 across adds and swap-removes
+    private void syncOrder(int n) {
+        if (n < count) {
+            int w = 0;
+            for (int k = 0; k < count; k++) {
+                if (order[k] < n) order[w++] = order[k];
+            }
+            count = w;
+        } else if (n > count) {
+            if (n > order.length) {
+                int[] grown = new int[Math.max(n, order.length * 2)];
+                System.arraycopy(order, 0, grown, 0, count);
+                order = grown;
+            }
+            for (int i = count; i < n; i++) {
+                order[count++] = i;
+            }
+        }
+    }
+
+    private void sortByLeftEdge(BallBuffer b) {
+        float[] x = b.x;
+        for (int k = 1; k < count; k++) {
+            int idx = order[k];
+            float key = x[idx];
+            int m = k - 1;
+            while (m >= 0 && x[order[m]] > key) {
+                order[m + 1] = order[m];
+                m--;
+            }
+            order[m + 1] = idx;
+        }
+    }
+
+    private void collide(BallBuffer b, int i, int j, long now) {
+        float ri = b.r[i] * 0.5f, rj = b.r[j] * 0.5f;
+        float dx = (b.x[j] + rj) - (b.x[i] + ri);
+        float dy = (b.y[j] + rj) - (b.y[i] + ri);
+        float minDist = ri + rj;
+        float dist2 = dx * dx + dy * dy;
+        if (dist2 >= minDist * minDist) return;
+
+        // Contact normal from i to j
+        float dist = (float) Math.sqrt(dist2);
+        float nx, ny;
+        if (dist > 0.0001f) {
+            nx = dx / dist;
+            ny = dy / dist;
+        } else {
+            nx = 1f;
+            ny = 0f;
+        }
+
+        float invMi = 1f / (b.r[i] * b.r[i]);
+        float invMj = 1f / (b.r[j] * b.r[j]);
+        float invSum = invMi + invMj;
+
+        // Separate the overlap in proportion to inverse mass
+        float push = (minDist - dist) / invSum;
+        b.x[i] -= nx * push * invMi;
+        b.y[i] -= ny * push * invMi;
+        b.x[j] += nx * push * invMj;
+        b.y[j] += ny * push * invMj;
+
+        // Exchange momentum along the normal if they are approaching and
+        // neither has just bounced off another ball
+        float approach = (b.vx[j] - b.vx[i]) * nx + (b.vy[j] - b.vy[i]) * ny;
+        long[] hit = b.lastBallHitMs;
+        if (approach < 0f
+                && now - hit[i] >= BallBuffer.COLLISION_COOLDOWN_MS
+                && now - hit[j] >= BallBuffer.COLLISION_COOLDOWN_MS) {
+            float impulse = -2f * approach / invSum;
+            b.vx[i] -= impulse * invMi * nx;
+            b.vy[i] -= impulse * invMi * ny;
+            b.vx[j] += impulse * invMj * nx;
+            b.vy[j] += impulse * invMj * ny;
+            hit[i] = now;
+            hit[j] = now;
+        }
+
+        collisions++;
+    }
+}
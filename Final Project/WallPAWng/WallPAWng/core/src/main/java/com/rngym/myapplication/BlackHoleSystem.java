@@ -0,0 +1,211 @@
+package com.rngym.myapplication;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BlackHoleSystem {
+
+    public static class BlackHole {
+        public float x, y, r;
+        public long spawnMs;
+        public long durationMs;
+        public float rotation = 0f;  // Current rotation angle
+        public float pullStrength;  // Dynamic pull strength based on distance
+        public int id = EntityStore.NONE;
+
+        public BlackHole(float x, float y, float r, long s, long d, float pullStrength){
+            this.x=x; this.y=y; this.r=r; spawnMs=s; durationMs=d; this.pullStrength=pullStrength;
+        }
+
+        public FRect rect(FRect out) {
+            out.set(x-r, y-r, x+r, y+r);
+            return out;
+        }
+    }
+
+    private final List<BlackHole> holes = new ArrayList<>();
+    private final SeededRandom rnd = new SeededRandom();
+    private final Simulation sim; // Entity registry
+    private final FRect bounds = new FRect();
+
+    // Combined pull of all holes, rebaked when holes or the upgrade change
+    private final GravityField field = new GravityField(GameConfig.GRAVITY_FIELD_CELL_SIZE);
+    private float pullMultiplier = 1.0f;
+    private float fieldW = 0f, fieldH = 0f;
+    private boolean fieldDirty = false;
+
+    // Black hole storm: raise to allow several holes at once
+    public int maxHoles = GameConfig.BLACKHOLE_MAX_COUNT;
+
+    // Configurable values
+    public long minDuration = 5000L;
+    public long maxDuration = 9000L;
+    public long cooldownMs = 9000L;
+    private long lastGone = 0L;
+
+    // Pull strength parameters
+    public float basePullStrength = 0.32f;
+    public float maxPullStrength = 0.16f;
+    public float minPullDistance = 100f;  // Minimum distance for pull effect
+    public float maxPullDistance = 300f;  // Maximum distance for pull effect
+    public float corePullRadius = 0.8f;   // Radius of the core (no pull inside)
+    public float edgePullFactor = 2.0f;   // Extra pull at the edge of the black hole
+
+    public BlackHoleSystem(Simulation sim) {
+        this.sim = sim;
+    }
+
+    public void setSeed(long seed) {
+        rnd.setSeed(seed);
+    }
+
+    // First active hole, or null
+    public BlackHole get() {
+        return holes.isEmpty() ? null : holes.get(0);
+    }
+
+    public List<BlackHole> getHoles() {
+        return holes;
+    }
+
+    public GravityField getField() {
+        return field;
+    }
+
+    public void update(long now, int screenW, int screenH) {
+
+        // Read the upgrade once per tick instead of once per ball
+        float multiplier = GameState.get().hasUpgrade("blackhole_pull_plus")
+                ? GameConfig.UPGRADE_BLACKHOLE_PULL_MULTIPLIER : 1.0f;
+        if (multiplier != pullMultiplier || screenW != fieldW || screenH != fieldH) {
+            pullMultiplier = multiplier;
+            fieldW = screenW;
+            fieldH = screenH;
+            fieldDirty = true;
+        }
+
+        if (now - GameState.get().getGameStartTime() >= GameConfig.EARLY_GAME_GRACE_PERIOD_MS) {
+            for (int i = holes.size() - 1; i >= 0; i--) {
+                BlackHole hole = holes.get(i);
+
+                // Update rotation for visual effect
+                hole.rotation += GameConfig.BLACKHOLE_ROTATION_SPEED;
+
+                // Check if black hole should expire
+                if (now - hole.spawnMs >= hole.durationMs) {
+                    holes.remove(i);
+                    sim.entities.destroy(hole.id);
+                    lastGone = now;
+                    fieldDirty = true;
+                }
+            }
+
+            if (holes.size() < maxHoles && now - lastGone >= cooldownMs) {
+                spawn(now, screenW, screenH);
+            }
+        }
+
+        if (fieldDirty) {
+            field.bake(holes, pullMultiplier, fieldW, fieldH);
+            fieldDirty = false;
+        }
+    }
+
+    public void primeSpawnTimer(long now) {
+        this.lastGone = now;
+    }
+
+    public void spawn(long now, int sw, int sh) {
+        if (sw <= 0 || sh <= 0) return;
+
+        // Calculate radius based on screen size
+        float minR = GameConfig.BLACKHOLE_MIN_RADIUS;
+        float maxR = GameConfig.BLACKHOLE_MAX_RADIUS;
+        float r = minR + rnd.nextFloat() * (maxR - minR);
+
+        // Calculate safe spawn area (avoid edges and cat area)
+        float margin = r * 2f;
+        float catAreaTop = sh * 0.7f;
+
+        // Random position within safe area
+        float x = margin + rnd.nextFloat() * (sw - margin * 2);
+        float y = margin + rnd.nextFloat() * (catAreaTop - margin * 2);
+
+        // Calculate duration
+        long minD = Math.min(minDuration, maxDuration);
+        long maxD = Math.max(minDuration, maxDuration);
+        int durRange = (int)Math.max(1L, maxD - minD);
+        long dur = minD + rnd.nextInt(durRange);
+
+        // Create the black hole with dynamic pull strength
+        float pullStrength = basePullStrength + rnd.nextFloat() * (maxPullStrength - basePullStrength);
+        add(new BlackHole(x, y, r, now, dur, pullStrength));
+
+        // Rebake now so the new hole pulls from this tick on
+        fieldW = sw;
+        fieldH = sh;
+        field.bake(holes, pullMultiplier, fieldW, fieldH);
+        fieldDirty = false;
+
+        // Reset cooldown
+        lastGone = now;
+    }
+
+
+    private void add(BlackHole hole) {
+        holes.add(hole);
+        hole.id = sim.entities.create(hole.rect(bounds));
+    }
+
+    private void removeAll() {
+        for (int i = 0, n = holes.size(); i < n; i++) {
+            sim.entities.destroy(holes.get(i).id);
+        }
+        holes.clear();
+    }
+
+    public void clearBlackHole() {
+        removeAll();
+        field.clear();
+        lastGone = 0L; // Reset spawn timer
+    }
+
+    // Samples the baked field; cost is the same for any number of holes
+    public void applyPull(BallBuffer b, int i, float frameScale) {
+        field.apply(b, i, frameScale);
+    }
+
+    // === SAVE STATE ===
+
+    void saveTo(SaveState s) {
+        int n = holes.size();
+        s.ensureHoles(n);
+        for (int i = 0; i < n; i++) {
+            BlackHole h = holes.get(i);
+            s.holeX[i] = h.x;
+            s.holeY[i] = h.y;
+            s.holeR[i] = h.r;
+            s.holeRotation[i] = h.rotation;
+            s.holePull[i] = h.pullStrength;
+            s.holeSpawnMs[i] = h.spawnMs;
+            s.holeDurationMs[i] = h.durationMs;
+        }
+        s.holeCount = n;
+        s.holeLastGone = lastGone;
+        s.rng[SaveState.RNG_BLACK_HOLES] = rnd.getState();
+    }
+
+    // The field is rebaked on the next update
+    void loadFrom(SaveState s) {
+        removeAll();
+        for (int i = 0; i < s.holeCount; i++) {
+            BlackHole h = new BlackHole(s.holeX[i], s.holeY[i], s.holeR[i],
+                    s.holeSpawnMs[i], s.holeDurationMs[i], s.holePull[i]);
+            h.rotation = s.holeRotation[i];
+            add(h);
+        }
+        lastGone = s.holeLastGone;
+        rnd.setState(s.rng[SaveState.RNG_BLACK_HOLES]);
+        fieldDirty = true;
+    }
+}
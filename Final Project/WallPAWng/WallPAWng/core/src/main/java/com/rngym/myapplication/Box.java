@@ -0,0 +1,34 @@
+package com.rngym.myapplication;
+
+public class Box implements ObjectPool.Poolable {
+    public FRect rect;
+    public int hp;
+    public int xpReward;
+    public int scoreReward;
+    public int id = EntityStore.NONE;
+
+    public Box(FRect r, int hp, int xp, int sc) {
+        rect = r;
+        this.hp = hp;
+        this.xpReward = xp;
+        this.scoreReward = sc;
+    }
+
+    // Pooled boxes keep their own rect and copy into it
+    public Box set(FRect r, int hp, int xp, int sc) {
+        rect.set(r);
+        this.hp = hp;
+        this.xpReward = xp;
+        this.scoreReward = sc;
+        return this;
+    }
+
+    @Override
+    public void reset() {
+        rect.set(0f, 0f, 0f, 0f);
+        hp = 0;
+        xpReward = 0;
+        scoreReward = 0;
+        id = EntityStore.NONE;
+    }
+}
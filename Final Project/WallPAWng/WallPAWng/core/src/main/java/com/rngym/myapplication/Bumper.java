@@ -0,0 +1,42 @@
+package com.rngym.myapplication;
+
+public class Bumper implements ObjectPool.Poolable {
+    public FRect rect;
+    public float angleDeg;
+    public boolean rotates;
+    public float bounce;
+    public long spawnAtMs;
+    public long lifeMs;
+    public int id = EntityStore.NONE;
+
+    public Bumper(FRect rect, float angleDeg, boolean rotates, float bounce, long spawnAtMs, long lifeMs) {
+        this.rect = rect;
+        this.angleDeg = angleDeg;
+        this.rotates = rotates;
+        this.bounce = bounce;
+        this.spawnAtMs = spawnAtMs;
+        this.lifeMs = lifeMs;
+    }
+
+    // Pooled bumpers keep their own rect and copy into it
+    public Bumper set(FRect rect, float angleDeg, boolean rotates, float bounce, long spawnAtMs, long lifeMs) {
+        this.rect.set(rect);
+        this.angleDeg = angleDeg;
+        this.rotates = rotates;
+        this.bounce = bounce;
+        this.spawnAtMs = spawnAtMs;
+        this.lifeMs = lifeMs;
+        return this;
+    }
+
+    @Override
+    public void reset() {
+        rect.set(0f, 0f, 0f, 0f);
+        angleDeg = 0f;
+        rotates = false;
+        bounce = 0f;
+        spawnAtMs = 0L;
+        lifeMs = 0L;
+        id = EntityStore.NONE;
+    }
+}
@@ -0,0 +1,203 @@
+package com.rngym.myapplication;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BumperSystem {
+    private final List<Bumper> bumpers = new ArrayList<>();
+    private final SpatialGrid<Bumper> grid = new SpatialGrid<>(GameConfig.COLLIDER_CELL_SIZE);
+    private final SeededRandom rnd = new SeededRandom();
+    private final Simulation sim; // Shared spawn grid
+    private final FRect spawnRect = new FRect();
+
+    // Expired bumpers come back from here instead of being reallocated
+    public final ObjectPool<Bumper> pool = new ObjectPool<>(GameConfig.BUMPER_POOL_CAPACITY,
+            () -> new Bumper(new FRect(), 0f, false, 0f, 0L, 0L));
+
+    private long lastGone = 0L;
+    private long cooldownMs = 5000L; // 5 second cooldown after all bumpers expire
+    private float screenW = 0;
+    private float screenH = 0;
+
+    // Editable parameters (tweakable)
+    public int maxBumpers = 3;
+    public float minWidthFrac = 0.10f;
+    public float maxWidthFrac = 0.30f;
+    public float heightPx = 20f;
+
+    public BumperSystem(Simulation sim) {
+        this.sim = sim;
+    }
+
+    public List<Bumper> getBumpers() { return bumpers; }
+
+    public void setSeed(long seed) {
+        rnd.setSeed(seed);
+    }
+
+    // regenerate bumpers randomly avoiding the catRect area
+    public void regenerate(float screenW, float screenH, FRect catRect, long nowMs) {
+
+        this.screenW = screenW;
+        this.screenH = screenH;
+
+        removeAll();
+        grid.resize(screenW, screenH);
+
+        if (screenW <= 0 || screenH <= 0) {
+            return;
+        }
+
+        int count = 1;
+
+        for (int i = 0; i < count; i++) {
+            float w = screenW * (minWidthFrac + rnd.nextFloat() * (maxWidthFrac - minWidthFrac));
+            float h = heightPx;
+
+            OccupancyGrid free = sim.spawnGrid();
+            free.mark(catRect.left - 80f, catRect.top - 80f, catRect.right + 80f, catRect.bottom + 80f);
+            if (!free.sample(w, h, 0f, 0f, screenW, screenH, rnd, spawnRect)) {
+                return;
+            }
+
+            boolean rotates = rnd.nextFloat() < 0.25f;
+            float angle = 0f;
+            float bounce = 1.2f;
+            long life = 30000L;
+
+            add(pool.obtain().set(spawnRect, angle, rotates, bounce, nowMs, life));
+        }
+    }
+
+    public void update(long nowMs) {
+
+        if (nowMs - GameState.get().getGameStartTime() < GameConfig.EARLY_GAME_GRACE_PERIOD_MS) {
+            return;
+        }
+
+        // Remove any expired bumpers
+        for (int i = bumpers.size() - 1; i >= 0; i--) {
+            Bumper b = bumpers.get(i);
+            if (nowMs - b.spawnAtMs > b.lifeMs) {
+                bumpers.remove(i);
+                grid.remove(b, b.rect);
+                sim.entities.destroy(b.id);
+                pool.free(b);
+            }
+        }
+
+        if (nowMs - lastGone > 15000L) { // 15 seconds
+            trySpawnOneBumper(nowMs);
+            lastGone = nowMs; // Reset the timer
+        }
+    }
+
+    public void primeSpawnTimer(long now) {
+        this.lastGone = now;
+    }
+
+    public void clearAllBumpers() {
+        removeAll();
+        grid.clear();
+        lastGone = 0L; // Reset spawn timer
+    }
+
+    void trySpawnOneBumper(long nowMs) {
+        if (screenW <= 0 || screenH <= 0) return;
+
+        float w = screenW * (minWidthFrac + rnd.nextFloat() * (maxWidthFrac - minWidthFrac));
+        float h = heightPx;
+
+        // Everything on the field plus the lane the cat patrols
+        OccupancyGrid free = sim.spawnGrid();
+        free.mark(screenW * 0.3f, screenH * 0.8f, screenW * 0.7f, screenH * 0.95f);
+        if (!free.sample(w, h, 0f, 0f, screenW, screenH, rnd, spawnRect)) {
+            return;
+        }
+
+        boolean rotates = rnd.nextFloat() < 0.25f;
+        float angle = 0f;
+        float bounce = 1.2f;
+        long life = 20000L + rnd.nextInt(10000); // 20-30 seconds life
+
+        add(pool.obtain().set(spawnRect, angle, rotates, bounce, nowMs, life));
+    }
+
+    public void spawn(long now) {
+        if (screenW <= 0 || screenH <= 0) {
+            return;
+        }
+
+        float w = 100f;
+        float h = 20f;
+        float left = screenW / 2f - w / 2f;
+        float top = screenH / 2f - h / 2f;
+        spawnRect.set(left, top, left + w, top + h);
+
+        long life = 30000L; // 30 seconds
+        add(pool.obtain().set(spawnRect, 0f, false, 1.2f, now, life));
+        lastGone = now; // Reset cooldown timer
+    }
+
+    // New field size mid-run; the bumpers stay where they are
+    public void resize(float screenW, float screenH) {
+        this.screenW = screenW;
+        this.screenH = screenH;
+        grid.resize(screenW, screenH);
+        for (int i = 0, n = bumpers.size(); i < n; i++) {
+            Bumper b = bumpers.get(i);
+            grid.insert(b, b.rect);
+        }
+    }
+
+    public void add(Bumper b) {
+        bumpers.add(b);
+        grid.insert(b, b.rect);
+        b.id = sim.entities.create(b.rect);
+    }
+
+    private void removeAll() {
+        for (int i = 0, n = bumpers.size(); i < n; i++) {
+            Bumper b = bumpers.get(i);
+            sim.entities.destroy(b.id);
+            pool.free(b);
+        }
+        bumpers.clear();
+    }
+
+    public void query(FRect area, List<Bumper> out) {
+        grid.query(area.left, area.top, area.right, area.bottom, out);
+    }
+
+    // === SAVE STATE ===
+
+    void saveTo(SaveState s) {
+        int n = bumpers.size();
+        s.ensureBumpers(n);
+        for (int i = 0; i < n; i++) {
+            Bumper b = bumpers.get(i);
+            s.bumperRects[i].set(b.rect);
+            s.bumperAngle[i] = b.angleDeg;
+            s.bumperBounce[i] = b.bounce;
+            s.bumperRotates[i] = b.rotates;
+            s.bumperSpawnMs[i] = b.spawnAtMs;
+            s.bumperLifeMs[i] = b.lifeMs;
+        }
+        s.bumperCount = n;
+        s.bumperLastGone = lastGone;
+        s.rng[SaveState.RNG_BUMPERS] = rnd.getState();
+    }
+
+    void loadFrom(SaveState s) {
+        screenW = s.screenW;
+        screenH = s.screenH;
+        removeAll();
+        grid.resize(screenW, screenH);
+        for (int i = 0; i < s.bumperCount; i++) {
+            add(pool.obtain().set(s.bumperRects[i], s.bumperAngle[i], s.bumperRotates[i],
+                    s.bumperBounce[i], s.bumperSpawnMs[i], s.bumperLifeMs[i]));
+        }
+        lastGone = s.bumperLastGone;
+        rnd.setState(s.rng[SaveState.RNG_BUMPERS]);
+    }
+}
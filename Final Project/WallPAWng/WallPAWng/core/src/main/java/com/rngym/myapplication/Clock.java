@@ -0,0 +1,25 @@
+package com.rngym.myapplication;
+
+/**
+ * Clock - time source for the game loop and render-side animations.
+ * Gameplay never reads it directly; the Simulation keeps its own clock
+ * advanced by step(), so runs can be replayed without wall-clock time.
+ */
+public interface Clock {
+
+    long nanoTime();
+
+    long currentTimeMillis();
+
+    Clock SYSTEM = new Clock() {
+        @Override
+        public long nanoTime() {
+            return System.nanoTime();
+        }
+
+        @Override
+        public long currentTimeMillis() {
+            return System.currentTimeMillis();
+        }
+    };
+}
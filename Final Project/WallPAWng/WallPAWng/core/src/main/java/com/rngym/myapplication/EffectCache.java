@@ -0,0 +1,96 @@
+package com.rngym.myapplication;
+
+/**
+ * EffectCache - gradients and other shaders built once per (kind, color,
+ * radius) and reused every frame. Radii round to a quantum so a shrinking
+ * or pulsing effect doesn't mint a new shader per pixel; animation is meant
+ * to come from canvas transforms, not new shaders. Holds at most `capacity`
+ * entries and drops the least recently used one past that.
+ */
+public class EffectCache<S> {
+
+    public interface Factory<S> {
+        // Build a shader centered on the origin
+        S create(int kind, int color, float radius);
+    }
+
+    private final Factory<S> factory;
+    private final int quantum;
+
+    // === ENTRIES ===
+    private final int[] kinds, colors, radii;
+    private final long[] lastUsed;
+    private final Object[] shaders;
+    private int count = 0;
+    private long clock = 0L;
+
+    // === STATS ===
+    private long hits = 0L;
+    private long misses = 0L;
+
+    public EffectCache(Factory<S> factory, int capacity, int quantum) {
+        this.factory = factory;
+        this.quantum = Math.max(1, quantum);
+        kinds = new int[capacity];
+        colors = new int[capacity];
+        radii = new int[capacity];
+        lastUsed = new long[capacity];
+        shaders = new Object[capacity];
+    }
+
+    @SuppressWarnings("unchecked")
+    public S get(int kind, int color, float radius) {
+        int r = quantize(radius);
+        clock++;
+
+        for (int i = 0; i < count; i++) {
+            if (kinds[i] == kind && colors[i] == color && radii[i] == r) {
+                hits++;
+                lastUsed[i] = clock;
+                return (S) shaders[i];
+            }
+        }
+
+        misses++;
+        S shader = factory.create(kind, color, r);
+        int i = count < shaders.length ? count++ : leastRecentlyUsed();
+        kinds[i] = kind;
+        colors[i] = color;
+        radii[i] = r;
+        lastUsed[i] = clock;
+        shaders[i] = shader;
+        return shader;
+    }
+
+    public int quantize(float radius) {
+        int q = Math.round(radius / quantum) * quantum;
+        return Math.max(quantum, q);
+    }
+
+    public void clear() {
+        for (int i = 0; i < count; i++) {
+            shaders[i] = null;
+        }
+        count = 0;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    private int leastRecentlyUsed() {
+        int oldest = 0;
+        for (int i = 1; i < count; i++) {
+            if (lastUsed[i] < lastUsed[oldest]) oldest = i;
+        }
+        return oldest;
+    }
+}
@@ -0,0 +1,119 @@
+package com.rngym.myapplication;
+
+import java.util.Arrays;
+
+/**
+ * EntityStore - bounds of everything on the field that isn't a ball
+ * (boxes, bumpers, portals and black holes) in dense arrays at [0, count),
+ * so Simulation.spawnGrid() marks every kind in one loop. Each object gets
+ * an id when it spawns and hands it back on removal, which swaps the last
+ * entry into the gap to keep the arrays packed.
+ *
+ * Ids carry a generation next to their slot, so destroying an id twice, or
+ * after clear(), never removes whatever reuses the slot.
+ */
+public class EntityStore {
+
+    // No entity; what unregistered objects hold
+    public static final int NONE = -1;
+
+    // id = generation << SLOT_BITS | slot, always positive
+    private static final int SLOT_BITS = 20;
+    private static final int SLOT_MASK = (1 << SLOT_BITS) - 1;
+    private static final int GENERATION_MASK = (1 << (31 - SLOT_BITS)) - 1;
+
+    // === DENSE BOUNDS ===
+    // Indexed [0, count); order changes on removal
+    private int[] ids;
+    public float[] left, top, right, bottom;
+    private int count = 0;
+
+    // === SLOTS ===
+    // Per slot: its current generation and where its entity sits in the dense arrays
+    private int[] generation;
+    private int[] dense;
+    private int[] freeSlots;
+    private int freeCount = 0;
+    private int slotCount = 0;
+
+    public EntityStore(int capacity) {
+        capacity = Math.max(1, capacity);
+        ids = new int[capacity];
+        left = new float[capacity];
+        top = new float[capacity];
+        right = new float[capacity];
+        bottom = new float[capacity];
+        generation = new int[capacity];
+        dense = new int[capacity];
+        freeSlots = new int[capacity];
+    }
+
+    public int size() {
+        return count;
+    }
+
+    /** Registers an entity and returns its id. */
+    public int create(FRect bounds) {
+        if (count == ids.length) grow();
+
+        int slot = freeCount > 0 ? freeSlots[--freeCount] : slotCount++;
+        int i = count++;
+        int id = generation[slot] << SLOT_BITS | slot;
+        dense[slot] = i;
+        ids[i] = id;
+        left[i] = bounds.left;
+        top[i] = bounds.top;
+        right[i] = bounds.right;
+        bottom[i] = bounds.bottom;
+        return id;
+    }
+
+    /** Unregisters an entity; stale or NONE ids are ignored. Returns whether it was alive. */
+    public boolean destroy(int id) {
+        if (!isAlive(id)) return false;
+        int slot = id & SLOT_MASK;
+        int i = dense[slot];
+        int last = --count;
+
+        // Move the last entity into the gap
+        if (i != last) {
+            ids[i] = ids[last];
+            left[i] = left[last];
+            top[i] = top[last];
+            right[i] = right[last];
+            bottom[i] = bottom[last];
+            dense[ids[i] & SLOT_MASK] = i;
+        }
+
+        generation[slot] = (generation[slot] + 1) & GENERATION_MASK;
+        freeSlots[freeCount++] = slot;
+        return true;
+    }
+
+    private boolean isAlive(int id) {
+        if (id < 0) return false;
+        int slot = id & SLOT_MASK;
+        return slot < slotCount && generation[slot] == id >>> SLOT_BITS
+                && dense[slot] < count && ids[dense[slot]] == id;
+    }
+
+    /** Drops every entity; all ids handed out so far go stale. */
+    public void clear() {
+        for (int i = count - 1; i >= 0; i--) {
+            destroy(ids[i]);
+        }
+    }
+
+    private void grow() {
+        int cap = ids.length * 2;
+        if (cap > SLOT_MASK + 1) throw new IllegalStateException("Too many entities: " + ids.length);
+        ids = Arrays.copyOf(ids, cap);
+        left = Arrays.copyOf(left, cap);
+        top = Arrays.copyOf(top, cap);
+        right = Arrays.copyOf(right, cap);
+        bottom = Arrays.copyOf(bottom, cap);
+        generation = Arrays.copyOf(generation, cap);
+        dense = Arrays.copyOf(dense, cap);
+        freeSlots = Arrays.copyOf(freeSlots, cap);
+    }
+}
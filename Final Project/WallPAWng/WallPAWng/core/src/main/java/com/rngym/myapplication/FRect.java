@@ -0,0 +1,65 @@
+package com.rngym.myapplication;
+
+/**
+ * FRect - Android-free float rectangle used by the simulation.
+ * Mirrors the parts of android.graphics.RectF the game relies on.
+ */
+public class FRect {
+    public float left, top, right, bottom;
+
+    public FRect() {}
+
+    public FRect(float left, float top, float right, float bottom) {
+        this.left = left;
+        this.top = top;
+        this.right = right;
+        this.bottom = bottom;
+    }
+
+    public FRect(FRect r) {
+        this(r.left, r.top, r.right, r.bottom);
+    }
+
+    public void set(float left, float top, float right, float bottom) {
+        this.left = left;
+        this.top = top;
+        this.right = right;
+        this.bottom = bottom;
+    }
+
+    public void set(FRect r) {
+        set(r.left, r.top, r.right, r.bottom);
+    }
+
+    public float width() {
+        return right - left;
+    }
+
+    public float height() {
+        return bottom - top;
+    }
+
+    public float centerX() {
+        return (left + right) * 0.5f;
+    }
+
+    public float centerY() {
+        return (top + bottom) * 0.5f;
+    }
+
+    public void inset(float dx, float dy) {
+        left += dx;
+        top += dy;
+        right -= dx;
+        bottom -= dy;
+    }
+
+    public boolean intersects(float l, float t, float r, float b) {
+        return left < r && l < right && top < b && t < bottom;
+    }
+
+    // Same semantics as RectF.intersects: touching edges do not count
+    public static boolean intersects(FRect a, FRect b) {
+        return a.left < b.right && b.left < a.right && a.top < b.bottom && b.top < a.bottom;
+    }
+}
@@ -0,0 +1,80 @@
+package com.rngym.myapplication;
+
+/**
+ * FixedTimestep - nanoTime accumulator that turns variable frame times into
+ * a whole number of fixed simulation ticks, plus an interpolation factor for
+ * rendering between the last two ticks.
+ */
+public class FixedTimestep {
+
+    private final long tickNanos;
+    private final int maxTicksPerFrame;
+
+    private long lastNanos = -1L;
+    private long accumulator = 0L;
+
+    // === STATS ===
+    private long totalTicks = 0L;
+    private long caughtUpTicks = 0L; // extra ticks run to catch up after a slow frame
+    private long skippedTicks = 0L;  // ticks dropped by the catch-up limit
+
+    public FixedTimestep(int ticksPerSecond, int maxTicksPerFrame) {
+        if (ticksPerSecond <= 0) throw new IllegalArgumentException("ticksPerSecond must be > 0");
+        this.tickNanos = 1_000_000_000L / ticksPerSecond;
+        this.maxTicksPerFrame = Math.max(1, maxTicksPerFrame);
+    }
+
+    public void reset(long nowNanos) {
+        lastNanos = nowNanos;
+        accumulator = 0L;
+    }
+
+    /**
+     * Adds the time since the previous call and returns how many ticks to run.
+     * Anything beyond maxTicksPerFrame is dropped so a long stall cannot turn
+     * into a spiral of death.
+     */
+    public int advance(long nowNanos) {
+        if (lastNanos < 0) lastNanos = nowNanos;
+        long frameNanos = Math.max(0L, nowNanos - lastNanos);
+        lastNanos = nowNanos;
+        accumulator += frameNanos;
+
+        long due = accumulator / tickNanos;
+        int ticks = (int) Math.min(due, maxTicksPerFrame);
+        if (due > ticks) {
+            skippedTicks += due - ticks;
+            accumulator -= (due - ticks) * tickNanos;
+        }
+        accumulator -= ticks * tickNanos;
+
+        totalTicks += ticks;
+        if (ticks > 1) caughtUpTicks += ticks - 1;
+        return ticks;
+    }
+
+    // Fraction of a tick left in the accumulator, 0..1
+    public float alpha() {
+        return accumulator / (float) tickNanos;
+    }
+
+    public long nanosUntilNextTick() {
+        return tickNanos - accumulator;
+    }
+
+    public long getTickNanos() {
+        return tickNanos;
+    }
+
+    public long getTotalTicks() {
+        return totalTicks;
+    }
+
+    public long getCaughtUpTicks() {
+        return caughtUpTicks;
+    }
+
+    public long getSkippedTicks() {
+        return skippedTicks;
+    }
+}
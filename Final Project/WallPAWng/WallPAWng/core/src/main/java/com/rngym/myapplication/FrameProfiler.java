@@ -0,0 +1,101 @@
+package com.rngym.myapplication;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Locale;
+
+/**
+ * FrameProfiler - one LatencyHistogram per phase of the game loop.
+ * Probes are a clock read and a histogram increment:
+ *
+ *   long t = profiler.now();
+ *   ...phase...
+ *   t = profiler.record(FrameProfiler.DRAW, t);
+ *
+ * Histograms aren't synchronized, so each phase has exactly one writer:
+ * the render thread records LOCK_CANVAS through FRAME and draws the
+ * overlay, the sim thread records SUBSYSTEMS and GAMEPLAY through
+ * Simulation.setProfiler. Never record a phase from a second thread; the
+ * overlay's reads of the sim phases are approximate. Dump it once both
+ * threads have stopped.
+ */
+public class FrameProfiler {
+
+    // === PHASES ===
+    // Sim thread
+    public static final int SUBSYSTEMS = 0;   // portal / black hole / bumper updates
+    public static final int GAMEPLAY = 1;     // updateGameplay
+    // Render thread
+    public static final int LOCK_CANVAS = 2;  // holder.lockCanvas
+    public static final int DRAW = 3;         // all draw calls
+    public static final int UNLOCK_POST = 4;  // holder.unlockCanvasAndPost
+    public static final int FRAME = 5;        // one pass of the render loop
+    public static final int PHASE_COUNT = 6;
+
+    private static final String[] NAMES = {
+            "subsystems", "gameplay", "lockCanvas", "draw", "unlockAndPost", "frame"
+    };
+
+    private final Clock clock;
+    private final LatencyHistogram[] phases = new LatencyHistogram[PHASE_COUNT];
+
+    public FrameProfiler(Clock clock) {
+        this.clock = clock;
+        for (int i = 0; i < PHASE_COUNT; i++) {
+            phases[i] = new LatencyHistogram();
+        }
+    }
+
+    public long now() {
+        return clock.nanoTime();
+    }
+
+    // Records now - startNanos for the phase and returns now, so probes chain
+    public long record(int phase, long startNanos) {
+        long t = clock.nanoTime();
+        phases[phase].record(t - startNanos);
+        return t;
+    }
+
+    public LatencyHistogram get(int phase) {
+        return phases[phase];
+    }
+
+    public static String name(int phase) {
+        return NAMES[phase];
+    }
+
+    public void reset() {
+        for (int i = 0; i < PHASE_COUNT; i++) {
+            phases[i].reset();
+        }
+    }
+
+    /**
+     * Writes a summary table in microseconds, then the non-empty buckets of
+     * every phase as "lowerBoundNanos:count" so dumps from two builds can be
+     * merged or compared bucket by bucket.
+     */
+    public void writeTo(Writer out) throws IOException {
+        out.write(String.format(Locale.US, "%-14s %10s %10s %10s %10s %10s %10s%n",
+                "phase", "count", "mean_us", "p50_us", "p99_us", "p99.9_us", "max_us"));
+        for (int p = 0; p < PHASE_COUNT; p++) {
+            LatencyHistogram h = phases[p];
+            out.write(String.format(Locale.US, "%-14s %10d %10.1f %10.1f %10.1f %10.1f %10.1f%n",
+                    NAMES[p], h.getCount(), h.getMean() / 1e3,
+                    h.percentile(0.50) / 1e3, h.percentile(0.99) / 1e3,
+                    h.percentile(0.999) / 1e3, h.getMax() / 1e3));
+        }
+
+        for (int p = 0; p < PHASE_COUNT; p++) {
+            LatencyHistogram h = phases[p];
+            out.write("buckets " + NAMES[p]);
+            for (int i = 0; i < h.bucketCount(); i++) {
+                long n = h.countAt(i);
+                if (n > 0L) out.write(" " + LatencyHistogram.lowerBound(i) + ":" + n);
+            }
+            out.write("\n");
+        }
+        out.flush();
+    }
+}
@@ -20,6 +20,12 @@ public class GameConfig {
     public static final float STARTING_VY = 20f;  // Initial vertical velocity
     public static final float MIN_VX = 10f;  // Minimum horizontal velocity
     public static final float MAX_VX = 20f;  // Maximum horizontal velocity
+    public static final int INITIAL_BALL_CAPACITY = 64;  // BallBuffer grows past this
+    public static final int INITIAL_ENTITY_CAPACITY = 64;  // EntityStore grows past this
+    public static final int BOX_POOL_CAPACITY = 16;  // Freed boxes kept for reuse
+    public static final int BUMPER_POOL_CAPACITY = 8;  // Freed bumpers kept for reuse
+    public static final int PORTAL_POOL_CAPACITY = 4;  // Freed portals kept for reuse
+    public static final boolean BALL_COLLISIONS = true;  // Elastic ball vs ball bounces
 
     // ==================== BOX SPAWNER CONFIGURATION ====================
     public static final long BOX_SPAWN_COOLDOWN = 8000L;  // 8 seconds between spawns
@@ -42,6 +48,10 @@ public class GameConfig {
     public static final long BUMPER_MIN_LIFE = 8000L;  // 8 seconds
     public static final long BUMPER_MAX_LIFE = 22000L;  // 22 seconds
 
+    // ==================== BROADPHASE CONFIGURATION ====================
+    public static final float COLLIDER_CELL_SIZE = 128f;  // Uniform grid cell for boxes & bumpers
+    public static final float SPAWN_CELL_SIZE = 16f;  // Occupancy grid cell for spawn placement
+
     // ==================== PORTAL CONFIGURATION ====================
     public static final long PORTAL_MIN_DURATION = 6000L;  // 6 seconds
     public static final long PORTAL_MAX_DURATION = 11000L;  // 11 seconds
@@ -58,13 +68,15 @@ public class GameConfig {
     public static final float BLACKHOLE_MAX_RADIUS = 64f;
     public static final float BLACKHOLE_ROTATION_SPEED = 0.1f;  // Rotation speed for visual effect
     public static final float UPGRADE_BLACKHOLE_PULL_MULTIPLIER = 1.5f;  // Upgrade multiplier for black hole pull
+    public static final int BLACKHOLE_MAX_COUNT = 1;  // Holes alive at once (raise for a black hole storm)
+    public static final float GRAVITY_FIELD_CELL_SIZE = 32f;  // Spacing of the baked pull grid
 
     // ==================== PHYSICS CONFIGURATION ====================
     public static final float GRAVITY = 0f;  // No gravity
     public static final float BOUNCE_DAMPING = 0.98f;  // Energy loss on bounce
     public static final float WALL_BOUNCE_DAMPING = 0.98f;
     public static final float MAX_SPEED = 120f;  // Maximum velocity magnitude
-    public static final float SUBSTEP_DISTANCE = 18f;  // Physics sub-step size
+    public static final int MAX_CONTACTS_PER_TICK = 8;  // Swept contacts resolved per ball per tick
 
     public static final float MIN_SPEED_AFTER_COLLISION = 16.0f; // Minimum speed after any collision
 
@@ -108,13 +120,25 @@ public class GameConfig {
     public static final long POPUP_LIFETIME = 1000L;  // 1.0 seconds
     public static final float POPUP_RISE_SPEED = -40f;  // Negative = upward
     public static final float POPUP_SCALE_MAX = 1.25f;  // Scale up to 125%
+    public static final int POPUP_CAPACITY = 32;  // Oldest popup is recycled past this
+    public static final int POPUP_PAINT_BUCKETS = 16;  // Fade/shrink steps over a popup's life
 
     public static final float HUD_TEXT_SIZE = 18f;
     public static final float HUD_SMALL_TEXT_SIZE = 16f;
+    public static final long SPRITE_CACHE_BYTES = 8L * 1024 * 1024;  // Scaled sprites kept around
+    public static final int SPRITE_SIZE_QUANTUM = 4;  // Sprite sizes round to this many px
+    public static final int EFFECT_CACHE_CAPACITY = 16;  // Fallback gradients kept around
+    public static final int EFFECT_RADIUS_QUANTUM = 4;  // Gradient radii round to this many px
+    public static final boolean SHOW_PERF_OVERLAY = false;  // Per-phase p50/p99/p99.9 on screen
 
     // ==================== TIMING CONFIGURATION ====================
     public static final int TARGET_FPS = 60;
     public static final long FRAME_TIME_MS = 16;  // ~60 FPS
+    public static final long REFERENCE_FRAME_NANOS = 1_000_000_000L / TARGET_FPS;  // Per-frame speeds assume this frame
+    public static final int SIM_TICKS_PER_SECOND = 60;  // Fixed simulation rate
+    public static final int MAX_CATCH_UP_TICKS = 5;  // Ticks per frame before time is dropped
+    public static final long SAVE_FLUSH_INTERVAL_MS = 2000L;  // Saves coalesce for this long before hitting disk
+    public static final long SAVE_CAPTURE_BUDGET_NANOS = 2_000_000L;  // Copy-on-pause should stay under this
 
     // ==================== DIFFICULTY SCALING ====================
 
@@ -0,0 +1,443 @@
+package com.rngym.myapplication;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * GameState - score, stress, combo and upgrades for the current run.
+ * Single-writer: the simulation thread owns every field and calls the
+ * mutators and getters without locking. Before the game thread starts
+ * (init, replays, tests) the starting thread is the owner. Other threads
+ * read the HudSnapshot published by publishHud; the only field they may
+ * write is the paused flag.
+ */
+public class GameState {
+    private static final GameState instance = new GameState();
+
+    // === CORE GAME STATE ===
+    private int score = 0;
+    private int highScore = 0;
+    private float stress = 0f;
+    private float maxStress = 100f;
+    private volatile boolean paused = false; // also set by the UI thread
+    private int level = 1;
+    private int xp = 0;
+
+    // === COMBO SYSTEM ===
+    private int combo = 0;
+    private int maxCombo = 0;
+    private long lastCatchTime = 0L;
+
+    // === RUNTIME FLAGS ===
+    private boolean ballMoving = false;
+    private long gameStartTime = 0L;
+
+    // === PORTAL / BLACKHOLE TIMERS ===
+    private long portalCooldown = 60000L;
+    private long nextPortalTime = 0L;
+    private long blackHoleCooldown = 30000L;
+
+    // === HUD PUBLISHING ===
+    // Bumped by every mutator the HUD shows; publishHud copies the state out
+    // only when it moved. hud is the one hand-off to other threads.
+    public interface HudListener {
+        void onHudChanged(HudSnapshot hud);
+    }
+
+    private long version = 0L;
+    private volatile HudSnapshot hud = HudSnapshot.EMPTY;
+    private volatile HudListener hudListener;
+
+    // === PERSISTENCE ===
+    // Writes happen on the game thread, so the store should defer the disk
+    // work (see WriteBehindStore); flush() pushes anything still pending.
+    public interface Store {
+        int getInt(String key, int def);
+        Set<String> getStringSet(String key, Set<String> def);
+        void putInt(String key, int value);
+        void putStringSet(String key, Set<String> values);
+        void clear();
+        // Makes every earlier write durable; a store may hold writes until then
+        default void flush() {}
+    }
+
+    private Store prefs;
+    private int maxComboEver = 0; // saved all-time max, so catches don't read the store
+    public static final String PREFS = "game_prefs";
+    private static final String KEY_HS = "highscore";
+    private static final String KEY_MAX_COMBO = "max_combo_ever";
+    private static final String KEY_UPGRADES = "upgrades";
+
+    // === UPGRADES ===
+    private final Set<String> upgrades = new HashSet<>();
+
+    private GameState() {}
+
+    public static GameState get() {
+        return instance;
+    }
+
+    // === LOAD SAVE DATA ===
+    public void init(Store store) {
+        if (prefs == null) {
+            prefs = store;
+            highScore = prefs.getInt(KEY_HS, 0);
+            maxCombo = prefs.getInt(KEY_MAX_COMBO, 0);
+            maxComboEver = maxCombo;
+
+            Set<String> savedUpgrades = prefs.getStringSet(KEY_UPGRADES, new HashSet<>());
+            upgrades.addAll(savedUpgrades);
+            changed();
+            publishHud();
+        }
+    }
+
+    // ==================== SCORE ====================
+
+    public void addScore(int v) {
+        int old = score;
+        score += v;
+        if (score < 0) {
+            score = 0;
+        }
+        if (score != old) changed();
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public void resetScore() {
+        if (score == 0) return;
+        score = 0;
+        changed();
+    }
+
+    // ==================== HIGHSCORE ====================
+
+    public int getHighScore() {
+        return highScore;
+    }
+
+    public void maybeUpdateHighScore() {
+        if (score > highScore) {
+            highScore = score;
+            if (prefs != null) {
+                prefs.putInt(KEY_HS, highScore);
+            }
+            changed();
+        }
+    }
+
+    // ==================== STRESS ====================
+
+    public void addStress(float s) {
+        setStress(stress + s);
+    }
+
+    // Called every tick for decay, so only a real change bumps the HUD
+    public void setStress(float s) {
+        float old = stress;
+        stress = s;
+        clampStress(0f, maxStress);
+        if (stress != old) changed();
+    }
+
+    public float getStress() {
+        return stress;
+    }
+
+    public float getMaxStress() {
+        return maxStress;
+    }
+
+    public void setMaxStress(float value) {
+        if (maxStress == value) return;
+        maxStress = value;
+        changed();
+    }
+
+    public void addMaxStress(float amount) {
+        setMaxStress(Math.min(maxStress + amount, 200f));
+    }
+
+    private void clampStress(float min, float max) {
+        if (stress < min) stress = min;
+        if (stress > max) stress = max;
+    }
+
+    // ==================== PAUSE ====================
+
+    public void setPaused(boolean p) {
+        paused = p;
+    }
+
+    public boolean isPaused() {
+        return paused;
+    }
+
+    // ==================== XP / LEVEL ====================
+
+    public void addXP(int v) {
+        if (v == 0) return;
+        xp += v;
+        changed();
+    }
+
+    public int getXP() {
+        return xp;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public void levelUp() {
+        level++;
+        xp = 0;
+        changed();
+    }
+
+    // ==================== COMBO SYSTEM ====================
+
+
+    public void registerCatch(long now) {
+
+        if (lastCatchTime > 0 && (now - lastCatchTime) > GameConfig.COMBO_TIMEOUT_MS) {
+            combo = 0; // Reset if timeout
+        }
+
+        // Increment combo
+        combo++;
+        lastCatchTime = now;
+
+        // Update max combo
+        if (combo > maxCombo) {
+            maxCombo = combo;
+
+            // Save all-time max
+            if (prefs != null && combo > maxComboEver) {
+                maxComboEver = combo;
+                prefs.putInt(KEY_MAX_COMBO, combo);
+            }
+        }
+        changed();
+    }
+
+    public void registerMiss() {
+        if (combo == 0 && lastCatchTime == 0L) return;
+        combo = 0;
+        lastCatchTime = 0L;
+        changed();
+    }
+
+
+    public int getCombo() {
+        return combo;
+    }
+
+    public int getMaxCombo() {
+        return maxCombo;
+    }
+
+    public float getComboMultiplier() {
+        if (combo >= 20) return 3.0f;
+        if (combo >= 10) return 2.0f;
+        if (combo >= 5) return 1.5f;
+        return 1.0f;
+    }
+
+    public long getTimeSinceLastCatch(long now) {
+        if (lastCatchTime == 0) return Long.MAX_VALUE;
+        return now - lastCatchTime;
+    }
+
+    public boolean isComboExpiring(long now) {
+        if (combo == 0) return false;
+        long timeSince = getTimeSinceLastCatch(now);
+        return timeSince > (GameConfig.COMBO_TIMEOUT_MS * 0.7f);
+    }
+
+    // ==================== UPGRADES ====================
+
+    public void unlockUpgrade(String name) {
+        if (name == null || name.isEmpty()) return;
+        if (!upgrades.add(name)) return;
+
+        // The store keeps this copy until it flushes
+        if (prefs != null) {
+            prefs.putStringSet(KEY_UPGRADES, new HashSet<>(upgrades));
+        }
+    }
+
+    public boolean hasUpgrade(String name) {
+        return upgrades.contains(name);
+    }
+
+    public Set<String> getUpgrades() {
+        return new HashSet<>(upgrades);
+    }
+
+    public void removeUpgrade(String name) {
+        if (!upgrades.remove(name)) return;
+        if (prefs != null) {
+            prefs.putStringSet(KEY_UPGRADES, new HashSet<>(upgrades));
+        }
+    }
+
+    public void clearUpgrades() {
+        if (upgrades.isEmpty()) return;
+        upgrades.clear();
+        if (prefs != null) {
+            prefs.putStringSet(KEY_UPGRADES, new HashSet<>());
+        }
+    }
+
+    // ==================== RUNTIME FLAGS ====================
+
+    public boolean isBallMoving() {
+        return ballMoving;
+    }
+
+    public void setBallMoving(boolean moving) {
+        ballMoving = moving;
+    }
+
+    // ==================== TIMERS ====================
+
+    public long getPortalCooldown() {
+        return portalCooldown;
+    }
+
+    public void setPortalCooldown(long cooldown) {
+        portalCooldown = cooldown;
+    }
+
+    public long getNextPortalTime() {
+        return nextPortalTime;
+    }
+
+    public void setNextPortalTime(long time) {
+        nextPortalTime = time;
+    }
+
+    public long getBlackHoleCooldown() {
+        return blackHoleCooldown;
+    }
+
+    public void setBlackHoleCooldown(long cooldown) {
+        blackHoleCooldown = cooldown;
+    }
+
+    // ==================== RESET ====================
+
+    public void resetRun(long now) {
+        score = 0;
+        stress = 0f;
+        level = 1;
+        xp = 0;
+        ballMoving = false;
+        combo = 0;
+        maxCombo = 0;
+        lastCatchTime = 0L;
+
+        gameStartTime = now;
+        changed();
+    }
+
+    public long getGameStartTime() {
+        return gameStartTime;
+    }
+
+    public void resetAll(long now) {
+        resetRun(now);
+        highScore = 0;
+        maxStress = 100f;
+        clearUpgrades();
+        maxComboEver = 0;
+        if (prefs != null) {
+            prefs.clear();
+        }
+        changed();
+    }
+
+    // Any thread; e.g. onPause, so nothing waits out the write-behind interval
+    public void flushSaves() {
+        Store store = prefs;
+        if (store != null) store.flush();
+    }
+
+    // ==================== SAVE STATE ====================
+
+    void saveTo(SaveState s) {
+        s.score = score;
+        s.level = level;
+        s.xp = xp;
+        s.combo = combo;
+        s.maxCombo = maxCombo;
+        s.stress = stress;
+        s.maxStress = maxStress;
+        s.lastCatchTime = lastCatchTime;
+        s.gameStartTime = gameStartTime;
+
+        s.ensureUpgrades(upgrades.size());
+        int i = 0;
+        for (String key : upgrades) {
+            s.upgrades[i++] = key;
+        }
+        s.upgradeCount = i;
+    }
+
+    // Paused is left to the caller; the saved upgrades are already in the store
+    void loadFrom(SaveState s) {
+        score = s.score;
+        level = s.level;
+        xp = s.xp;
+        combo = s.combo;
+        maxCombo = s.maxCombo;
+        stress = s.stress;
+        maxStress = s.maxStress;
+        lastCatchTime = s.lastCatchTime;
+        gameStartTime = s.gameStartTime;
+        ballMoving = false;
+
+        upgrades.clear();
+        for (int i = 0; i < s.upgradeCount; i++) {
+            upgrades.add(s.upgrades[i]);
+        }
+        changed();
+    }
+
+    // ==================== HUD ====================
+
+    private void changed() {
+        version++;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /** Latest published snapshot; safe from any thread. */
+    public HudSnapshot getHud() {
+        return hud;
+    }
+
+    // Any thread
+    public void setHudListener(HudListener listener) {
+        hudListener = listener;
+    }
+
+    /**
+     * Publishes a new HudSnapshot if anything changed since the last one and
+     * hands it to the listener. Owner thread only; the game loop calls it
+     * once per batch of ticks.
+     */
+    public HudSnapshot publishHud() {
+        if (hud.version == version) return hud;
+        hud = new HudSnapshot(version, score, highScore, level, xp,
+                stress, maxStress, combo, maxCombo, lastCatchTime);
+        if (hudListener != null) hudListener.onHudChanged(hud);
+        return hud;
+    }
+}
\ No newline at end of file
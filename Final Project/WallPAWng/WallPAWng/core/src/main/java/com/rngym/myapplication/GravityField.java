@@ -0,0 +1,134 @@
+package com.rngym.myapplication;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * GravityField - the combined pull of every black hole baked into a coarse
+ * grid of acceleration vectors (per reference frame). It is rebuilt only
+ * when holes spawn or expire; balls sample it with bilinear interpolation,
+ * so per-ball cost does not depend on the number of holes.
+ */
+public class GravityField {
+
+    private final float cellSize;
+    private int cols = 0, rows = 0; // grid nodes, not cells
+    private float[] ax = new float[0];
+    private float[] ay = new float[0];
+    private boolean empty = true;
+
+    public GravityField(float cellSize) {
+        this.cellSize = cellSize;
+    }
+
+    public boolean isEmpty() {
+        return empty;
+    }
+
+    /**
+     * Rebuilds the field for the given holes. Only nodes inside each hole's
+     * pull radius are touched, the rest stay zero.
+     */
+    public void bake(List<BlackHoleSystem.BlackHole> holes, float multiplier, float width, float height) {
+        int c = Math.max(2, (int) Math.ceil(width / cellSize) + 1);
+        int r = Math.max(2, (int) Math.ceil(height / cellSize) + 1);
+        if (c != cols || r != rows) {
+            cols = c;
+            rows = r;
+            ax = new float[cols * rows];
+            ay = new float[cols * rows];
+        } else {
+            Arrays.fill(ax, 0f);
+            Arrays.fill(ay, 0f);
+        }
+
+        empty = holes.isEmpty();
+        for (int h = 0; h < holes.size(); h++) {
+            addHole(holes.get(h), multiplier);
+        }
+    }
+
+    public void clear() {
+        Arrays.fill(ax, 0f);
+        Arrays.fill(ay, 0f);
+        empty = true;
+    }
+
+    // Same falloff the per-ball pull used: squared towards the edge, no pull
+    // inside the core, a weaker orbital push within two radii
+    private void addHole(BlackHoleSystem.BlackHole hole, float multiplier) {
+        float maxPullDist = hole.r * 8f;
+
+        int c0 = Math.max(0, (int) Math.floor((hole.x - maxPullDist) / cellSize));
+        int c1 = Math.min(cols - 1, (int) Math.ceil((hole.x + maxPullDist) / cellSize));
+        int r0 = Math.max(0, (int) Math.floor((hole.y - maxPullDist) / cellSize));
+        int r1 = Math.min(rows - 1, (int) Math.ceil((hole.y + maxPullDist) / cellSize));
+
+        for (int row = r0; row <= r1; row++) {
+            for (int col = c0; col <= c1; col++) {
+                float dx = hole.x - col * cellSize;
+                float dy = hole.y - row * cellSize;
+                float dist2 = dx * dx + dy * dy;
+                if (dist2 > maxPullDist * maxPullDist || dist2 < hole.r * hole.r) continue;
+
+                float dist = (float) Math.sqrt(dist2);
+                dx /= dist;
+                dy /= dist;
+
+                float normalizedDist = (dist - hole.r) / (maxPullDist - hole.r);
+                normalizedDist = Math.max(0f, Math.min(1f, normalizedDist));
+                float strengthFactor = 1.0f - normalizedDist;
+                strengthFactor *= strengthFactor;
+
+                float pull = hole.pullStrength * strengthFactor * multiplier;
+                float fx = dx * pull;
+                float fy = dy * pull;
+
+                if (dist < hole.r * 2.0f) {
+                    float orbital = pull * 0.3f;
+                    fx += -dy * orbital;
+                    fy += dx * orbital;
+                }
+
+                int k = row * cols + col;
+                ax[k] += fx;
+                ay[k] += fy;
+            }
+        }
+    }
+
+    // Adds the field at the ball's centre, scaled by frameScale, to its velocity
+    public void apply(BallBuffer b, int i, float frameScale) {
+        if (empty) return;
+
+        float gx = b.centerX(i) / cellSize;
+        float gy = b.centerY(i) / cellSize;
+        if (gx < 0f || gy < 0f || gx >= cols - 1 || gy >= rows - 1) return;
+
+        int col = (int) gx;
+        int row = (int) gy;
+        float tx = gx - col;
+        float ty = gy - row;
+
+        int k00 = row * cols + col;
+        int k10 = k00 + 1;
+        int k01 = k00 + cols;
+        int k11 = k01 + 1;
+
+        float w00 = (1f - tx) * (1f - ty);
+        float w10 = tx * (1f - ty);
+        float w01 = (1f - tx) * ty;
+        float w11 = tx * ty;
+
+        b.vx[i] += (ax[k00] * w00 + ax[k10] * w10 + ax[k01] * w01 + ax[k11] * w11) * frameScale;
+        b.vy[i] += (ay[k00] * w00 + ay[k10] * w10 + ay[k01] * w01 + ay[k11] * w11) * frameScale;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+}
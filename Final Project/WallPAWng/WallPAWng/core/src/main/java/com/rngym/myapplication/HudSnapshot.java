@@ -0,0 +1,61 @@
+package com.rngym.myapplication;
+
+/**
+ * HudSnapshot - immutable copy of everything the HUD shows, stamped with
+ * the GameState version it was taken at. GameState publishes a new one
+ * only when something changed, so the HUD can compare versions instead of
+ * re-reading the state under its lock.
+ */
+public final class HudSnapshot {
+
+    // Before anything was published; no field matches a real state, so the
+    // first diff against it touches every view
+    public static final HudSnapshot EMPTY = new HudSnapshot(-1L, -1, -1, 0, -1, -1f, -1f, -1, -1, 0L);
+
+    public final long version;
+    public final int score;
+    public final int highScore;
+    public final int level;
+    public final int xp;
+    public final float stress;
+    public final float maxStress;
+    public final int combo;
+    public final int maxCombo;
+    public final long lastCatchTime;
+
+    public HudSnapshot(long version, int score, int highScore, int level, int xp,
+                       float stress, float maxStress, int combo, int maxCombo, long lastCatchTime) {
+        this.version = version;
+        this.score = score;
+        this.highScore = highScore;
+        this.level = level;
+        this.xp = xp;
+        this.stress = stress;
+        this.maxStress = maxStress;
+        this.combo = combo;
+        this.maxCombo = maxCombo;
+        this.lastCatchTime = lastCatchTime;
+    }
+
+    public int xpForNextLevel() {
+        return GameConfig.xpForLevel(level);
+    }
+
+    // Same thresholds as GameState.getComboMultiplier
+    public float comboMultiplier() {
+        if (combo >= 20) return 3.0f;
+        if (combo >= 10) return 2.0f;
+        if (combo >= 5) return 1.5f;
+        return 1.0f;
+    }
+
+    public long timeSinceLastCatch(long now) {
+        if (lastCatchTime == 0) return Long.MAX_VALUE;
+        return now - lastCatchTime;
+    }
+
+    public boolean isComboExpiring(long now) {
+        if (combo == 0) return false;
+        return timeSinceLastCatch(now) > (GameConfig.COMBO_TIMEOUT_MS * 0.7f);
+    }
+}
@@ -0,0 +1,95 @@
+package com.rngym.myapplication;
+
+import java.util.Arrays;
+
+/**
+ * LatencyHistogram - fixed-size log-linear histogram of nanosecond
+ * durations. Every power of two is split into 16 linear buckets, so any
+ * reported value is within 1/16 (6.25%) of the real one. Recording is a few
+ * shifts and an array increment; nothing is allocated after construction.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BITS = 4;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    private static final int MAX_EXPONENT = 36; // ~68s, longer values land in the last bucket
+
+    private final long[] counts = new long[(MAX_EXPONENT - SUB_BITS + 1) * SUB_COUNT];
+    private long total = 0L;
+    private long max = 0L;
+    private long sum = 0L;
+
+    public void record(long nanos) {
+        if (nanos < 0L) nanos = 0L;
+        counts[bucketOf(nanos)]++;
+        total++;
+        sum += nanos;
+        if (nanos > max) max = nanos;
+    }
+
+    public void reset() {
+        Arrays.fill(counts, 0L);
+        total = 0L;
+        max = 0L;
+        sum = 0L;
+    }
+
+    public long getCount() {
+        return total;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    public long getMean() {
+        return total == 0L ? 0L : sum / total;
+    }
+
+    /**
+     * Upper edge of the bucket holding the q-th quantile (0..1), capped at
+     * the largest recorded value; the overflow bucket reports the max.
+     * 0 when empty.
+     */
+    public long percentile(double q) {
+        if (total == 0L) return 0L;
+        long rank = Math.max(1L, (long) Math.ceil(q * total));
+        long seen = 0L;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) return i == counts.length - 1 ? max : Math.min(upperBound(i), max);
+        }
+        return max;
+    }
+
+    // === BUCKETS ===
+
+    public int bucketCount() {
+        return counts.length;
+    }
+
+    public long countAt(int bucket) {
+        return counts[bucket];
+    }
+
+    public static int bucketOf(long nanos) {
+        if (nanos < SUB_COUNT) return (int) nanos;
+        int exp = 63 - Long.numberOfLeadingZeros(nanos);
+        if (exp >= MAX_EXPONENT) return (MAX_EXPONENT - SUB_BITS + 1) * SUB_COUNT - 1;
+        int sub = (int) (nanos >>> (exp - SUB_BITS)) & (SUB_COUNT - 1);
+        return (exp - SUB_BITS + 1) * SUB_COUNT + sub;
+    }
+
+    public static long lowerBound(int bucket) {
+        if (bucket < SUB_COUNT) return bucket;
+        int exp = bucket / SUB_COUNT + SUB_BITS - 1;
+        int sub = bucket % SUB_COUNT;
+        return (long) (SUB_COUNT + sub) << (exp - SUB_BITS);
+    }
+
+    public static long upperBound(int bucket) {
+        if (bucket < SUB_COUNT) return bucket;
+        int exp = bucket / SUB_COUNT + SUB_BITS - 1;
+        return lowerBound(bucket) + (1L << (exp - SUB_BITS)) - 1L;
+    }
+}
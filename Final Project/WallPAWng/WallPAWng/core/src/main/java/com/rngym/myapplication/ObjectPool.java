@@ -0,0 +1,79 @@
+package com.rngym.myapplication;
+
+import java.util.function.Supplier;
+
+/**
+ * ObjectPool - bounded free list for objects that come and go all run,
+ * like boxes, bumpers and portals. obtain() hands back a freed object when
+ * there is one (a hit) and only calls the factory on a miss; free() resets
+ * the object and keeps it unless the list is full, in which case it is
+ * left to the GC (a drop). Once the pool has seen the largest number alive
+ * at once, spawning and despawning allocate nothing.
+ *
+ * Not thread-safe: each pool belongs to the game thread. The counters are
+ * copied into WorldSnapshot for the perf overlay.
+ */
+public class ObjectPool<T extends ObjectPool.Poolable> {
+
+    /** Anything pooled: reset() drops the last owner's state. */
+    public interface Poolable {
+        void reset();
+    }
+
+    private final Supplier<T> factory;
+    private final Object[] free;
+    private int freeCount = 0;
+
+    // === STATS ===
+    private long hits = 0L;
+    private long misses = 0L;
+    private long drops = 0L;
+
+    public ObjectPool(int capacity, Supplier<T> factory) {
+        this.factory = factory;
+        this.free = new Object[Math.max(1, capacity)];
+    }
+
+    @SuppressWarnings("unchecked")
+    public T obtain() {
+        if (freeCount > 0) {
+            hits++;
+            T t = (T) free[--freeCount];
+            free[freeCount] = null;
+            return t;
+        }
+        misses++;
+        return factory.get();
+    }
+
+    /** Resets and keeps t for reuse; the caller must not touch it afterwards. */
+    public void free(T t) {
+        if (t == null) return;
+        t.reset();
+        if (freeCount < free.length) {
+            free[freeCount++] = t;
+        } else {
+            drops++;
+        }
+    }
+
+    public int getFreeCount() {
+        return freeCount;
+    }
+
+    public int getCapacity() {
+        return free.length;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getDrops() {
+        return drops;
+    }
+}
@@ -0,0 +1,163 @@
+package com.rngym.myapplication;
+
+import java.util.Random;
+
+/**
+ * OccupancyGrid - free-space index for spawn placement. Everything already
+ * on the field is marked into a bitmap of small cells, and a summed-area
+ * table over it answers "is this rect empty?" in four reads. sample() counts
+ * every free spot in a region and picks one at random, so placing anything
+ * costs one pass over the cells no matter how full the field is, and it
+ * fails only when there really is no room.
+ *
+ * Marks are conservative: a rect blocks every cell it touches, and placed
+ * rects stay inside whole free cells, so they never overlap a marked rect.
+ */
+public class OccupancyGrid {
+
+    private final float cellSize;
+    private int cols = 1, rows = 1;
+    private boolean[] occupied = new boolean[1];
+
+    // sat[(r * (cols + 1)) + c] = occupied cells above and left of (c, r)
+    private int[] sat = new int[4];
+    private boolean dirty = false;
+
+    public OccupancyGrid(float cellSize) {
+        this.cellSize = cellSize;
+    }
+
+    // Resize to cover the screen; existing marks are dropped
+    public void resize(float width, float height) {
+        int c = Math.max(1, (int) Math.ceil(width / cellSize));
+        int r = Math.max(1, (int) Math.ceil(height / cellSize));
+        if (c != cols || r != rows) {
+            cols = c;
+            rows = r;
+            occupied = new boolean[cols * rows];
+            sat = new int[(cols + 1) * (rows + 1)];
+        }
+        clear();
+    }
+
+    public void clear() {
+        for (int i = 0; i < occupied.length; i++) {
+            occupied[i] = false;
+        }
+        dirty = true;
+    }
+
+    // === MARKING ===
+
+    public void mark(FRect rect) {
+        mark(rect.left, rect.top, rect.right, rect.bottom);
+    }
+
+    public void mark(float left, float top, float right, float bottom) {
+        if (right <= left || bottom <= top) return;
+        int c0 = clampCol((int) Math.floor(left / cellSize));
+        int c1 = clampCol((int) Math.ceil(right / cellSize) - 1);
+        int r0 = clampRow((int) Math.floor(top / cellSize));
+        int r1 = clampRow((int) Math.ceil(bottom / cellSize) - 1);
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                occupied[r * cols + c] = true;
+            }
+        }
+        dirty = true;
+    }
+
+    // === QUERIES ===
+
+    /** Whether every cell the rect touches is free. Off-screen parts count as taken. */
+    public boolean isFree(float left, float top, float right, float bottom) {
+        int c0 = (int) Math.floor(left / cellSize);
+        int c1 = (int) Math.ceil(right / cellSize);
+        int r0 = (int) Math.floor(top / cellSize);
+        int r1 = (int) Math.ceil(bottom / cellSize);
+        if (c0 < 0 || r0 < 0 || c1 > cols || r1 > rows) return false;
+        build();
+        return countOccupied(c0, r0, c1, r1) == 0;
+    }
+
+    /**
+     * Picks a free w x h rect inside [minX, maxX] x [minY, maxY], uniformly
+     * over the cell positions that fit, with a random offset inside its
+     * cells. Writes it to out and returns true, or returns false when the
+     * region has no room. Draws nothing from rnd when it fails.
+     */
+    public boolean sample(float w, float h, float minX, float minY, float maxX, float maxY,
+                          Random rnd, FRect out) {
+        int cw = Math.max(1, (int) Math.ceil(w / cellSize));
+        int ch = Math.max(1, (int) Math.ceil(h / cellSize));
+        int c0 = Math.max(0, (int) Math.ceil(minX / cellSize));
+        int r0 = Math.max(0, (int) Math.ceil(minY / cellSize));
+        int c1 = Math.min(cols, (int) Math.floor(maxX / cellSize)) - cw;
+        int r1 = Math.min(rows, (int) Math.floor(maxY / cellSize)) - ch;
+        if (c1 < c0 || r1 < r0) return false;
+        build();
+
+        // +++ Count every free spot +++
+        int free = 0;
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                if (countOccupied(c, r, c + cw, r + ch) == 0) free++;
+            }
+        }
+        if (free == 0) return false;
+
+        // +++ Walk to the chosen one +++
+        int pick = rnd.nextInt(free);
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                if (countOccupied(c, r, c + cw, r + ch) != 0) continue;
+                if (pick-- > 0) continue;
+
+                float left = c * cellSize + rnd.nextFloat() * (cw * cellSize - w);
+                float top = r * cellSize + rnd.nextFloat() * (ch * cellSize - h);
+                out.set(left, top, left + w, top + h);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    // === SUMMED-AREA TABLE ===
+
+    // Rebuilt lazily, once per batch of marks
+    private void build() {
+        if (!dirty) return;
+        int stride = cols + 1;
+        for (int r = 0; r < rows; r++) {
+            int rowSum = 0;
+            for (int c = 0; c < cols; c++) {
+                if (occupied[r * cols + c]) rowSum++;
+                sat[(r + 1) * stride + c + 1] = sat[r * stride + c + 1] + rowSum;
+            }
+        }
+        dirty = false;
+    }
+
+    // Occupied cells in columns [c0, c1) and rows [r0, r1)
+    private int countOccupied(int c0, int r0, int c1, int r1) {
+        int stride = cols + 1;
+        return sat[r1 * stride + c1] - sat[r0 * stride + c1]
+                - sat[r1 * stride + c0] + sat[r0 * stride + c0];
+    }
+
+    private int clampCol(int c) {
+        return c < 0 ? 0 : (c >= cols ? cols - 1 : c);
+    }
+
+    private int clampRow(int r) {
+        return r < 0 ? 0 : (r >= rows ? rows - 1 : r);
+    }
+}
@@ -0,0 +1,109 @@
+package com.rngym.myapplication;
+
+public class PhysicsEngine {
+
+    // maximum allowed velocity magnitude (px per frame)
+    public static final float MAX_SPEED = 120f;
+
+    // clamp velocity to MAX_SPEED
+    public static void clampVelocity(BallBuffer b, int i) {
+        float vx = b.vx[i], vy = b.vy[i];
+        float mag = (float)Math.hypot(vx, vy);
+        if (mag > MAX_SPEED) {
+            float scale = MAX_SPEED / mag;
+            b.vx[i] *= scale;
+            b.vy[i] *= scale;
+        }
+    }
+
+    // === SWEPT AABB ===
+
+    // Earliest contact found so far while sweeping one ball
+    public static final class Contact {
+        public float t;       // fraction of the move, 0..1
+        public float nx, ny;  // axis-aligned surface normal
+
+        public void reset() {
+            t = 1f;
+            nx = 0f;
+            ny = 0f;
+        }
+
+        public void set(float t, float nx, float ny) {
+            this.t = t;
+            this.nx = nx;
+            this.ny = ny;
+        }
+    }
+
+    /**
+     * Sweeps the square (x, y, size) by (dx, dy) against rect r. If it touches
+     * r earlier than out.t, out is updated and true returned. A square that
+     * already overlaps r hits at t = 0 with the normal of the shallowest
+     * penetration, matching the old push-out.
+     */
+    public static boolean sweep(float x, float y, float size, float dx, float dy, FRect r, Contact out) {
+        float xEntry, xExit, yEntry, yExit;
+
+        if (dx > 0f) {
+            xEntry = (r.left - (x + size)) / dx;
+            xExit = (r.right - x) / dx;
+        } else if (dx < 0f) {
+            xEntry = (r.right - x) / dx;
+            xExit = (r.left - (x + size)) / dx;
+        } else {
+            if (x + size <= r.left || x >= r.right) return false;
+            xEntry = Float.NEGATIVE_INFINITY;
+            xExit = Float.POSITIVE_INFINITY;
+        }
+
+        if (dy > 0f) {
+            yEntry = (r.top - (y + size)) / dy;
+            yExit = (r.bottom - y) / dy;
+        } else if (dy < 0f) {
+            yEntry = (r.bottom - y) / dy;
+            yExit = (r.top - (y + size)) / dy;
+        } else {
+            if (y + size <= r.top || y >= r.bottom) return false;
+            yEntry = Float.NEGATIVE_INFINITY;
+            yExit = Float.POSITIVE_INFINITY;
+        }
+
+        float entry = Math.max(xEntry, yEntry);
+        float exit = Math.min(xExit, yExit);
+        if (entry >= exit || exit <= 0f || Math.max(entry, 0f) >= out.t) return false;
+
+        if (entry < 0f) {
+            // Already overlapping: leave through the shallowest side
+            float overlapLeft = (x + size) - r.left;
+            float overlapRight = r.right - x;
+            float overlapTop = (y + size) - r.top;
+            float overlapBottom = r.bottom - y;
+            float min = Math.min(Math.min(overlapLeft, overlapRight), Math.min(overlapTop, overlapBottom));
+
+            if (min == overlapLeft) out.set(0f, -1f, 0f);
+            else if (min == overlapRight) out.set(0f, 1f, 0f);
+            else if (min == overlapTop) out.set(0f, 0f, -1f);
+            else out.set(0f, 0f, 1f);
+        } else if (xEntry > yEntry) {
+            out.set(entry, dx > 0f ? -1f : 1f, 0f);
+        } else {
+            out.set(entry, 0f, dy > 0f ? -1f : 1f);
+        }
+        return true;
+    }
+
+    // Moves the ball 1px clear of r along the contact normal
+    public static void pushOut(BallBuffer b, int i, FRect r, Contact c) {
+        if (c.nx < 0f) b.x[i] = r.left - b.r[i] - 1f;
+        else if (c.nx > 0f) b.x[i] = r.right + 1f;
+        else if (c.ny < 0f) b.y[i] = r.top - b.r[i] - 1f;
+        else if (c.ny > 0f) b.y[i] = r.bottom + 1f;
+    }
+
+    // Turns the velocity away from the contact surface and scales it by bounce
+    public static void reflect(BallBuffer b, int i, Contact c, float bounce) {
+        if (c.nx != 0f) b.vx[i] = c.nx * Math.abs(b.vx[i]) * bounce;
+        if (c.ny != 0f) b.vy[i] = c.ny * Math.abs(b.vy[i]) * bounce;
+    }
+}
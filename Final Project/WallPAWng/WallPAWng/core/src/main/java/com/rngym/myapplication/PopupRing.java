@@ -0,0 +1,125 @@
+package com.rngym.myapplication;
+
+/**
+ * PopupRing - fixed-capacity ring of floating text popups. Text is formatted
+ * straight into per-slot char buffers, and since every popup lives equally
+ * long they expire oldest-first, so expiry just advances the head. When the
+ * ring is full the oldest popup is recycled. Nothing is allocated after
+ * construction.
+ */
+public class PopupRing {
+
+    public static final int MAX_CHARS = 48;
+
+    private final int capacity;
+    private final long lifeMs;
+    private final float riseSpeed;
+
+    // === SLOTS ===
+    public final float[] x, y;
+    public final long[] born;
+    public final float[] lifePct;  // 0 when spawned, 1 when expiring
+    public final char[][] text;
+    public final int[] length;
+
+    private int head = 0;
+    private int count = 0;
+
+    public PopupRing(int capacity, long lifeMs, float riseSpeed) {
+        this.capacity = capacity;
+        this.lifeMs = lifeMs;
+        this.riseSpeed = riseSpeed;
+        x = new float[capacity];
+        y = new float[capacity];
+        born = new long[capacity];
+        lifePct = new float[capacity];
+        text = new char[capacity][MAX_CHARS];
+        length = new int[capacity];
+    }
+
+    public void spawn(String template, int a, int b, float px, float py, long now) {
+        int s;
+        if (count < capacity) {
+            s = (head + count) % capacity;
+            count++;
+        } else {
+            // Full: reuse the oldest
+            s = head;
+            head = (head + 1) % capacity;
+        }
+
+        x[s] = px;
+        y[s] = py;
+        born[s] = now;
+        lifePct[s] = 0f;
+        length[s] = format(template, a, b, text[s]);
+    }
+
+    public void update(long now) {
+        while (count > 0 && now - born[head] > lifeMs) {
+            head = (head + 1) % capacity;
+            count--;
+        }
+
+        for (int k = 0; k < count; k++) {
+            int s = slot(k);
+            float pct = Math.min(1f, (now - born[s]) / (float) lifeMs);
+            lifePct[s] = pct;
+            y[s] += riseSpeed * (1f - pct * 0.5f);
+        }
+    }
+
+    public void clear() {
+        head = 0;
+        count = 0;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    // Slot of the k-th live popup, oldest first
+    public int slot(int k) {
+        return (head + k) % capacity;
+    }
+
+    // === FORMATTING ===
+
+    /**
+     * Copies template into out, replacing the first '#' with a and the
+     * second with b. Returns the number of chars written; text that does
+     * not fit is cut off.
+     */
+    public static int format(String template, int a, int b, char[] out) {
+        int n = 0;
+        int slot = 0;
+        for (int i = 0, len = template.length(); i < len && n < out.length; i++) {
+            char ch = template.charAt(i);
+            if (ch == '#' && slot < 2) {
+                n = appendInt(out, n, slot++ == 0 ? a : b);
+            } else {
+                out[n++] = ch;
+            }
+        }
+        return n;
+    }
+
+    // Writes v in decimal at pos and returns the new end; skipped if it doesn't fit
+    public static int appendInt(char[] out, int pos, int v) {
+        long value = v; // long so Integer.MIN_VALUE negates cleanly
+        boolean negative = value < 0;
+        if (negative) value = -value;
+
+        int digits = 1;
+        for (long p = 10; p <= value; p *= 10) digits++;
+        int end = pos + digits + (negative ? 1 : 0);
+        if (end > out.length) return pos;
+
+        if (negative) out[pos] = '-';
+        for (int i = end - 1; i >= end - digits; i--) {
+            out[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return end;
+    }
+}
@@ -0,0 +1,188 @@
+package com.rngym.myapplication;
+
+public class PortalSystem {
+
+    public static class Portal implements ObjectPool.Poolable {
+        public FRect rect;
+        public long spawnMs;
+        public long durationMs;
+        public int id = EntityStore.NONE;
+
+        public Portal(FRect r, long s, long d) {
+            rect = r;
+            spawnMs = s;
+            durationMs = d;
+        }
+
+        // Pooled portals keep their own rect and copy into it
+        public Portal set(FRect r, long s, long d) {
+            rect.set(r);
+            spawnMs = s;
+            durationMs = d;
+            return this;
+        }
+
+        @Override
+        public void reset() {
+            rect.set(0f, 0f, 0f, 0f);
+            spawnMs = 0L;
+            durationMs = 0L;
+            id = EntityStore.NONE;
+        }
+    }
+
+    private Portal pA = null;
+    private Portal pB = null;
+    private final Simulation sim; // Reference to Simulation for collision checking
+
+    private final SeededRandom rnd = new SeededRandom();
+    private final FRect spawnA = new FRect();
+    private final FRect spawnB = new FRect();
+
+    // Despawned pairs come back from here instead of being reallocated
+    public final ObjectPool<Portal> pool = new ObjectPool<>(GameConfig.PORTAL_POOL_CAPACITY,
+            () -> new Portal(new FRect(), 0L, 0L));
+
+    public long minDuration = 6000L;   // 6 sec
+    public long maxDuration = 11000L;  // 11 sec
+    public long cooldownMs = 7000L;    // after disappearance before respawn
+    private long lastGone = 0L;
+
+    private boolean hasTeleported = false;
+
+    // Constructor with Simulation reference
+    public PortalSystem(Simulation sim) {
+        this.sim = sim;
+    }
+
+    public void setSeed(long seed) {
+        rnd.setSeed(seed);
+    }
+
+    public Portal getA() { return pA; }
+    public Portal getB() { return pB; }
+
+    public void update(long now) {
+
+        if (now - GameState.get().getGameStartTime() < GameConfig.EARLY_GAME_GRACE_PERIOD_MS) {
+            return;
+        }
+
+        if (pA != null) {
+            if (now - pA.spawnMs >= pA.durationMs) {
+                // Despawn portals
+                setPortals(null, null);
+                hasTeleported = false;  // reset one-teleport rule
+                lastGone = now;
+            }
+        }
+        if (pA == null && now - lastGone > cooldownMs) {
+            spawn(now);
+        }
+    }
+
+    public void primeSpawnTimer(long now) {
+        this.lastGone = now;
+    }
+
+    void spawn(long now) {
+        float w = GameConfig.PORTAL_WIDTH;
+        float h = GameConfig.PORTAL_HEIGHT;
+
+        // Get screen dimensions from Simulation
+        float screenW = sim.screenW;
+        float screenH = sim.screenH;
+
+        // Get portal duration upgrade multiplier
+        float durationMultiplier = 1.0f;
+        if (GameState.get().hasUpgrade("portal_duration_up")) {
+            durationMultiplier = 1.0f + (GameConfig.UPGRADE_PORTAL_DURATION_INCREASE / (float)(maxDuration - minDuration));
+        }
+
+        // Both portals come from one grid of free space, B also clear of A
+        OccupancyGrid free = sim.spawnGrid();
+        if (!free.sample(w, h, 80f, 200f, screenW - 80f, screenH - 200f, rnd, spawnA)) {
+            return;
+        }
+        free.mark(spawnA);
+        if (!free.sample(w, h, 80f, 200f, screenW - 80f, screenH - 200f, rnd, spawnB)) {
+            return;
+        }
+
+        long range = maxDuration - minDuration;
+        long dur = (long)((minDuration + range * rnd.nextFloat()) * durationMultiplier);
+
+        setPortals(pool.obtain().set(spawnA, now, dur), pool.obtain().set(spawnB, now, dur));
+
+        hasTeleported = false;
+    }
+
+    public void clearPortals() {
+        setPortals(null, null);
+        hasTeleported = false;
+        lastGone = 0L; // Reset spawn timer
+    }
+
+    // Swaps the pair, keeping their entities in step; the old pair goes back to the pool
+    private void setPortals(Portal a, Portal b) {
+        if (pA != null) sim.entities.destroy(pA.id);
+        if (pB != null) sim.entities.destroy(pB.id);
+        pool.free(pA);
+        pool.free(pB);
+        pA = a;
+        pB = b;
+        if (a != null) a.id = sim.entities.create(a.rect);
+        if (b != null) b.id = sim.entities.create(b.rect);
+    }
+
+    public Portal whichPortal(FRect ballRect, long ballLastTP, long cooldown, long now) {
+        if (pA == null) return null;
+        if (hasTeleported) return null;
+
+        // Ball cooldown check
+        if (now - ballLastTP < cooldown) return null;
+
+        if (FRect.intersects(ballRect, pA.rect)) {
+            hasTeleported = true;
+            return pA;
+        }
+        if (FRect.intersects(ballRect, pB.rect)) {
+            hasTeleported = true;
+            return pB;
+        }
+
+        return null;
+    }
+
+    public Portal getLinked(Portal src) {
+        if (src == null) return null;
+        return (src == pA) ? pB : pA;
+    }
+
+    // === SAVE STATE ===
+
+    void saveTo(SaveState s) {
+        s.portalsActive = pA != null && pB != null;
+        if (s.portalsActive) {
+            s.portalA.set(pA.rect);
+            s.portalB.set(pB.rect);
+            s.portalSpawnMs = pA.spawnMs;
+            s.portalDurationMs = pA.durationMs;
+        }
+        s.portalLastGone = lastGone;
+        s.portalUsed = hasTeleported;
+        s.rng[SaveState.RNG_PORTALS] = rnd.getState();
+    }
+
+    void loadFrom(SaveState s) {
+        if (s.portalsActive) {
+            setPortals(pool.obtain().set(s.portalA, s.portalSpawnMs, s.portalDurationMs),
+                    pool.obtain().set(s.portalB, s.portalSpawnMs, s.portalDurationMs));
+        } else {
+            setPortals(null, null);
+        }
+        lastGone = s.portalLastGone;
+        hasTeleported = s.portalUsed;
+        rnd.setState(s.rng[SaveState.RNG_PORTALS]);
+    }
+}
@@ -0,0 +1,188 @@
+package com.rngym.myapplication;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Replay - one recorded run: the starting conditions plus the input bitmask
+ * of every tick and the upgrade picks with the tick they were applied on.
+ *
+ * File layout (all counts and deltas are unsigned LEB128 varints):
+ *   "WPRP", version, seed (8 bytes), startMs, tickNanos,
+ *   screenW, screenH, catW, startingVY, minVX, maxVX, maxStress (float bits),
+ *   upgrade count + UTF keys, tick count,
+ *   input runs: count, then (mask, length) per run,
+ *   picks: count, then (tick delta from previous pick, UTF key) per pick,
+ *   final state hash (8 bytes).
+ * Inputs change only on touch, so ten minutes of play fit in a few KB.
+ */
+public class Replay {
+
+    private static final int MAGIC = 0x57505250; // "WPRP"
+    public static final int VERSION = 1;
+
+    // Stored next to the INPUT_* bits of each tick
+    public static final int TICK_PAUSED = 1 << 7;
+
+    // === START CONDITIONS ===
+    public long seed;
+    public long startMs;
+    public long tickNanos;
+    public float screenW, screenH;
+    public float catW, startingVY, minVX, maxVX;
+    public float maxStress;
+    public String[] upgrades = new String[0];
+
+    // === TICKS ===
+    public int tickCount;
+    public byte[] ticks = new byte[0];   // INPUT_* bits | TICK_PAUSED, one per tick
+    public int pickCount;
+    public int[] pickTicks = new int[0]; // ascending
+    public String[] pickKeys = new String[0];
+
+    // Simulation.stateHash() when recording stopped
+    public long finalHash;
+
+    // === WRITE ===
+
+    public void write(OutputStream os) throws IOException {
+        DataOutputStream out = new DataOutputStream(os);
+        out.writeInt(MAGIC);
+        writeVarint(out, VERSION);
+        out.writeLong(seed);
+        writeVarlong(out, startMs);
+        writeVarlong(out, tickNanos);
+        out.writeFloat(screenW);
+        out.writeFloat(screenH);
+        out.writeFloat(catW);
+        out.writeFloat(startingVY);
+        out.writeFloat(minVX);
+        out.writeFloat(maxVX);
+        out.writeFloat(maxStress);
+
+        writeVarint(out, upgrades.length);
+        for (String key : upgrades) {
+            out.writeUTF(key);
+        }
+
+        // Run-length encoded tick masks
+        writeVarint(out, tickCount);
+        writeVarint(out, countRuns());
+        int t = 0;
+        while (t < tickCount) {
+            int mask = ticks[t] & 0xFF;
+            int run = 1;
+            while (t + run < tickCount && (ticks[t + run] & 0xFF) == mask) run++;
+            writeVarint(out, mask);
+            writeVarint(out, run);
+            t += run;
+        }
+
+        // Picks as tick deltas
+        writeVarint(out, pickCount);
+        int lastTick = 0;
+        for (int i = 0; i < pickCount; i++) {
+            writeVarint(out, pickTicks[i] - lastTick);
+            out.writeUTF(pickKeys[i]);
+            lastTick = pickTicks[i];
+        }
+
+        out.writeLong(finalHash);
+        out.flush();
+    }
+
+    private int countRuns() {
+        int runs = 0;
+        for (int t = 0; t < tickCount; t++) {
+            if (t == 0 || ticks[t] != ticks[t - 1]) runs++;
+        }
+        return runs;
+    }
+
+    // === READ ===
+
+    public static Replay read(InputStream is) throws IOException {
+        DataInputStream in = new DataInputStream(is);
+        if (in.readInt() != MAGIC) throw new IOException("Not a replay file");
+        int version = readVarint(in);
+        if (version != VERSION) throw new IOException("Unsupported replay version " + version);
+
+        Replay r = new Replay();
+        r.seed = in.readLong();
+        r.startMs = readVarlong(in);
+        r.tickNanos = readVarlong(in);
+        r.screenW = in.readFloat();
+        r.screenH = in.readFloat();
+        r.catW = in.readFloat();
+        r.startingVY = in.readFloat();
+        r.minVX = in.readFloat();
+        r.maxVX = in.readFloat();
+        r.maxStress = in.readFloat();
+
+        r.upgrades = new String[readVarint(in)];
+        for (int i = 0; i < r.upgrades.length; i++) {
+            r.upgrades[i] = in.readUTF();
+        }
+
+        r.tickCount = readVarint(in);
+        r.ticks = new byte[r.tickCount];
+        int runs = readVarint(in);
+        int t = 0;
+        for (int i = 0; i < runs; i++) {
+            byte mask = (byte) readVarint(in);
+            int run = readVarint(in);
+            if (t + run > r.tickCount) throw new IOException("Input runs exceed tick count");
+            Arrays.fill(r.ticks, t, t + run, mask);
+            t += run;
+        }
+        if (t != r.tickCount) throw new IOException("Input runs cover " + t + " of " + r.tickCount + " ticks");
+
+        r.pickCount = readVarint(in);
+        r.pickTicks = new int[r.pickCount];
+        r.pickKeys = new String[r.pickCount];
+        int lastTick = 0;
+        for (int i = 0; i < r.pickCount; i++) {
+            lastTick += readVarint(in);
+            r.pickTicks[i] = lastTick;
+            r.pickKeys[i] = in.readUTF();
+        }
+
+        r.finalHash = in.readLong();
+        return r;
+    }
+
+    // === VARINTS ===
+    // Shared with SaveState
+
+    static void writeVarint(DataOutputStream out, int v) throws IOException {
+        writeVarlong(out, v & 0xFFFFFFFFL);
+    }
+
+    static void writeVarlong(DataOutputStream out, long v) throws IOException {
+        while ((v & ~0x7FL) != 0) {
+            out.writeByte((int) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        out.writeByte((int) v);
+    }
+
+    static int readVarint(DataInputStream in) throws IOException {
+        long v = readVarlong(in);
+        if (v < 0 || v > Integer.MAX_VALUE) throw new IOException("Varint out of range: " + v);
+        return (int) v;
+    }
+
+    static long readVarlong(DataInputStream in) throws IOException {
+        long v = 0L;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            v |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return v;
+        }
+        throw new IOException("Malformed varint");
+    }
+}
@@ -0,0 +1,82 @@
+package com.rngym.myapplication;
+
+import java.io.BufferedInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * ReplayPlayer - re-simulates a recorded run headless, as fast as the CPU
+ * allows. It resets the shared GameState to the recorded upgrades, so only
+ * run it off-device or in tests.
+ *
+ * Usage: ReplayPlayer <file.wpr>
+ */
+public class ReplayPlayer {
+
+    private static final int INPUT_BITS = Simulation.INPUT_LEFT | Simulation.INPUT_RIGHT;
+
+    private static final Simulation.Listener SILENT = new Simulation.Listener() {
+        @Override public void onPopup(String template, int a, int b, float x, float y) {}
+        @Override public void onCatch() {}
+        @Override public void onMiss() {}
+        @Override public void onLevelUp(int level, int xp, UpgradeManager.Choice[] choices) {}
+        @Override public void onGameOver(int finalScore, int highScore) {}
+    };
+
+    /** Plays every tick of the replay on a new Simulation and returns it. */
+    public static Simulation play(Replay r, Simulation.Listener listener) {
+        GameState gs = GameState.get();
+        gs.clearUpgrades();
+        for (String key : r.upgrades) {
+            gs.unlockUpgrade(key);
+        }
+        gs.setMaxStress(r.maxStress);
+
+        Simulation sim = new Simulation(r.startMs);
+        sim.setListener(listener != null ? listener : SILENT);
+        sim.setScreenSize(r.screenW, r.screenH);
+        sim.catW = r.catW;
+        sim.startingVY = r.startingVY;
+        sim.minVX = r.minVX;
+        sim.maxVX = r.maxVX;
+        sim.beginRun(r.seed);
+
+        int pick = 0;
+        for (int t = 0; t < r.tickCount; t++) {
+            // Same order as the game loop: picks, then pause flag, then step
+            while (pick < r.pickCount && r.pickTicks[pick] == t) {
+                sim.applyUpgrade(r.pickKeys[pick++]);
+            }
+            int mask = r.ticks[t];
+            boolean paused = (mask & Replay.TICK_PAUSED) != 0;
+            gs.setPaused(paused);
+            sim.step(mask & INPUT_BITS, paused, r.tickNanos);
+        }
+        return sim;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: ReplayPlayer <file.wpr>");
+            System.exit(2);
+        }
+
+        Replay r;
+        try (InputStream in = new BufferedInputStream(new FileInputStream(args[0]))) {
+            r = Replay.read(in);
+        }
+
+        long start = System.nanoTime();
+        Simulation sim = play(r, null);
+        long elapsed = System.nanoTime() - start;
+
+        boolean match = sim.stateHash() == r.finalHash;
+        System.out.printf("%d ticks, %d picks, seed %d: %.1f ms (%.0f ticks/s)%n",
+                r.tickCount, r.pickCount, r.seed, elapsed / 1e6, r.tickCount / (elapsed / 1e9));
+        System.out.printf("score %d, level %d, balls %d, state hash %s%n",
+                GameState.get().getScore(), GameState.get().getLevel(), sim.balls.size(),
+                match ? "matches" : "DIVERGED");
+        if (!match) System.exit(1);
+    }
+}
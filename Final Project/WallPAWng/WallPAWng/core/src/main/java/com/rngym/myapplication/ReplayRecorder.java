@@ -0,0 +1,100 @@
+package com.rngym.myapplication;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * ReplayRecorder - captures a run as it is played. Call begin() right after
+ * Simulation.beginRun, pick() for upgrades applied before a tick, then
+ * tick() with the exact inputs passed to step(). Per tick it only writes one
+ * byte into a growing array.
+ */
+public class ReplayRecorder {
+
+    private boolean recording = false;
+    private final Replay header = new Replay();
+
+    private byte[] ticks = new byte[4096];
+    private int tickCount = 0;
+    private int[] pickTicks = new int[16];
+    private final List<String> pickKeys = new ArrayList<>();
+
+    public void begin(Simulation sim, long tickNanos) {
+        GameState gs = GameState.get();
+
+        header.seed = sim.getSeed();
+        header.startMs = sim.now();
+        header.tickNanos = tickNanos;
+        header.screenW = sim.screenW;
+        header.screenH = sim.screenH;
+        header.catW = sim.catW;
+        header.startingVY = sim.startingVY;
+        header.minVX = sim.minVX;
+        header.maxVX = sim.maxVX;
+        header.maxStress = gs.getMaxStress();
+
+        // Sorted so the same save always writes the same bytes
+        header.upgrades = gs.getUpgrades().toArray(new String[0]);
+        Arrays.sort(header.upgrades);
+
+        tickCount = 0;
+        pickKeys.clear();
+        recording = true;
+    }
+
+    public boolean isRecording() {
+        return recording;
+    }
+
+    public void stop() {
+        recording = false;
+    }
+
+    // Upgrade applied on the game thread before the next tick
+    public void pick(String key) {
+        if (!recording) return;
+        int n = pickKeys.size();
+        if (n == pickTicks.length) pickTicks = Arrays.copyOf(pickTicks, n * 2);
+        pickTicks[n] = tickCount;
+        pickKeys.add(key);
+    }
+
+    public void tick(int inputs, boolean paused) {
+        if (!recording) return;
+        if (tickCount == ticks.length) ticks = Arrays.copyOf(ticks, tickCount * 2);
+        ticks[tickCount++] = (byte) (inputs | (paused ? Replay.TICK_PAUSED : 0));
+    }
+
+    public int getTickCount() {
+        return tickCount;
+    }
+
+    /**
+     * Copies everything recorded so far into a Replay, stamped with the
+     * simulation's current state hash. Recording carries on afterwards.
+     */
+    public Replay snapshot(Simulation sim) {
+        Replay r = new Replay();
+        r.seed = header.seed;
+        r.startMs = header.startMs;
+        r.tickNanos = header.tickNanos;
+        r.screenW = header.screenW;
+        r.screenH = header.screenH;
+        r.catW = header.catW;
+        r.startingVY = header.startingVY;
+        r.minVX = header.minVX;
+        r.maxVX = header.maxVX;
+        r.maxStress = header.maxStress;
+        r.upgrades = header.upgrades.clone();
+
+        r.tickCount = tickCount;
+        r.ticks = Arrays.copyOf(ticks, tickCount);
+        r.pickCount = pickKeys.size();
+        r.pickTicks = Arrays.copyOf(pickTicks, r.pickCount);
+        r.pickKeys = pickKeys.toArray(new String[0]);
+
+        r.finalHash = sim.stateHash();
+        return r;
+    }
+}
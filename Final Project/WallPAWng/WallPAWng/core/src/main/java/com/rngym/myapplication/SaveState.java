@@ -0,0 +1,463 @@
+package com.rngym.myapplication;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * SaveState - everything needed to resume a run after the process dies:
+ * the simulation, its subsystems, every random stream and the run part of
+ * GameState. capture() only copies into preallocated primitive arrays, so
+ * it's cheap enough for onPause; write() can then run on any thread while
+ * the game goes on. read() fills the same arrays and restore() loads them
+ * back into a Simulation, after which it plays on exactly as the saved one
+ * would have.
+ *
+ * File layout (counts, enums and times are unsigned LEB128 varints):
+ *   "WPSV", version, state, seed (8 bytes), nowMs, remainderNanos,
+ *   screen, cat and ball tunables (float bits), flags, last box spawn,
+ *   random streams (8 bytes each),
+ *   balls: count, then x, y, r, vx, vy, flags, teleported, collided, hit
+ *     by a ball, spawned,
+ *   collider order: count, then indices,
+ *   boxes: count, then rect, hp (zigzag), xp, score,
+ *   bumpers: count, then rect, angle, bounce, rotates, spawn, life; last gone,
+ *   portals: active, rects, spawn, duration; last gone, used,
+ *   black holes: count, then x, y, r, rotation, pull, spawn, duration; last gone,
+ *   run: score, level, xp, combo, max combo, stress, max stress,
+ *   last catch, start time, upgrade count + UTF keys.
+ * Times are stored as nowMs minus the time, zigzag encoded, so they stay
+ * small however long the app has been up. SaveStateBenchmark prints 844
+ * bytes for 16 balls and 8 colliders, about 30 bytes per extra ball.
+ */
+public class SaveState {
+
+    private static final int MAGIC = 0x57505356; // "WPSV"
+    public static final int VERSION = 2;
+
+    // One slot per random stream
+    public static final int RNG_SIMULATION = 0;
+    public static final int RNG_BUMPERS = 1;
+    public static final int RNG_PORTALS = 2;
+    public static final int RNG_BLACK_HOLES = 3;
+    public static final int RNG_UPGRADES = 4;
+    public static final int RNG_STREAMS = 5;
+
+    // === SIMULATION ===
+    public Simulation.State state = Simulation.State.TITLE;
+    public long seed;
+    public long nowMs;
+    public long remainderNanos;
+    public float screenW, screenH;
+    public float catX, catY, catW, catH;
+    public float startingVY, minVX, maxVX;
+    public boolean gracePeriodEnded, gameOverTriggered;
+    public long lastBoxSpawn;
+    public final long[] rng = new long[RNG_STREAMS];
+
+    // === BALLS ===
+    public int ballCount;
+    public float[] ballX, ballY, ballR, ballVX, ballVY;
+    public int[] ballFlags;
+    public long[] ballTeleportedAt, ballCollidedAt, ballHitAt, ballSpawnedAt;
+
+    // BallCollider's sort order, so ball pairs resolve in the same order
+    public int orderCount;
+    public int[] order;
+
+    // === BOXES ===
+    public int boxCount;
+    public FRect[] boxRects;
+    public int[] boxHp, boxXp, boxScore;
+
+    // === BUMPERS ===
+    public int bumperCount;
+    public FRect[] bumperRects;
+    public float[] bumperAngle, bumperBounce;
+    public boolean[] bumperRotates;
+    public long[] bumperSpawnMs, bumperLifeMs;
+    public long bumperLastGone;
+
+    // === PORTALS ===
+    public boolean portalsActive;
+    public final FRect portalA = new FRect();
+    public final FRect portalB = new FRect();
+    public long portalSpawnMs, portalDurationMs;
+    public long portalLastGone;
+    public boolean portalUsed;
+
+    // === BLACK HOLES ===
+    public int holeCount;
+    public float[] holeX, holeY, holeR, holeRotation, holePull;
+    public long[] holeSpawnMs, holeDurationMs;
+    public long holeLastGone;
+
+    // === RUN ===
+    public int score, level, xp, combo, maxCombo;
+    public float stress, maxStress;
+    public long lastCatchTime, gameStartTime;
+    public int upgradeCount;
+    public String[] upgrades;
+
+    public SaveState() {
+        growBalls(GameConfig.INITIAL_BALL_CAPACITY);
+        growOrder(GameConfig.INITIAL_BALL_CAPACITY);
+        growBoxes(16);
+        growBumpers(16);
+        growHoles(Math.max(1, GameConfig.BLACKHOLE_MAX_COUNT));
+        upgrades = new String[16];
+    }
+
+    /** Copies sim and GameState; call on the thread that owns them. */
+    public void capture(Simulation sim) {
+        sim.saveTo(this);
+    }
+
+    /** Loads this state into sim and GameState, replacing the current run. */
+    public void restore(Simulation sim) {
+        sim.loadFrom(this);
+    }
+
+    // === WRITE ===
+
+    public void write(OutputStream os) throws IOException {
+        DataOutputStream out = new DataOutputStream(os);
+        out.writeInt(MAGIC);
+        Replay.writeVarint(out, VERSION);
+        Replay.writeVarint(out, state.ordinal());
+        out.writeLong(seed);
+        Replay.writeVarlong(out, nowMs);
+        Replay.writeVarlong(out, remainderNanos);
+
+        out.writeFloat(screenW);
+        out.writeFloat(screenH);
+        out.writeFloat(catX);
+        out.writeFloat(catY);
+        out.writeFloat(catW);
+        out.writeFloat(catH);
+        out.writeFloat(startingVY);
+        out.writeFloat(minVX);
+        out.writeFloat(maxVX);
+        out.writeByte((gracePeriodEnded ? 1 : 0) | (gameOverTriggered ? 2 : 0));
+        writeTime(out, lastBoxSpawn);
+        for (int k = 0; k < RNG_STREAMS; k++) {
+            out.writeLong(rng[k]);
+        }
+
+        // +++ Balls +++
+        Replay.writeVarint(out, ballCount);
+        for (int i = 0; i < ballCount; i++) {
+            out.writeFloat(ballX[i]);
+            out.writeFloat(ballY[i]);
+            out.writeFloat(ballR[i]);
+            out.writeFloat(ballVX[i]);
+            out.writeFloat(ballVY[i]);
+            Replay.writeVarint(out, ballFlags[i]);
+            writeTime(out, ballTeleportedAt[i]);
+            writeTime(out, ballCollidedAt[i]);
+            writeTime(out, ballHitAt[i]);
+            writeTime(out, ballSpawnedAt[i]);
+        }
+        Replay.writeVarint(out, orderCount);
+        for (int k = 0; k < orderCount; k++) {
+            Replay.writeVarint(out, order[k]);
+        }
+
+        // +++ Boxes +++
+        Replay.writeVarint(out, boxCount);
+        for (int i = 0; i < boxCount; i++) {
+            writeRect(out, boxRects[i]);
+            writeSigned(out, boxHp[i]);
+            Replay.writeVarint(out, boxXp[i]);
+            Replay.writeVarint(out, boxScore[i]);
+        }
+
+        // +++ Bumpers +++
+        Replay.writeVarint(out, bumperCount);
+        for (int i = 0; i < bumperCount; i++) {
+            writeRect(out, bumperRects[i]);
+            out.writeFloat(bumperAngle[i]);
+            out.writeFloat(bumperBounce[i]);
+            out.writeBoolean(bumperRotates[i]);
+            writeTime(out, bumperSpawnMs[i]);
+            Replay.writeVarlong(out, bumperLifeMs[i]);
+        }
+        writeTime(out, bumperLastGone);
+
+        // +++ Portals +++
+        out.writeByte((portalsActive ? 1 : 0) | (portalUsed ? 2 : 0));
+        if (portalsActive) {
+            writeRect(out, portalA);
+            writeRect(out, portalB);
+            writeTime(out, portalSpawnMs);
+            Replay.writeVarlong(out, portalDurationMs);
+        }
+        writeTime(out, portalLastGone);
+
+        // +++ Black holes +++
+        Replay.writeVarint(out, holeCount);
+        for (int i = 0; i < holeCount; i++) {
+            out.writeFloat(holeX[i]);
+            out.writeFloat(holeY[i]);
+            out.writeFloat(holeR[i]);
+            out.writeFloat(holeRotation[i]);
+            out.writeFloat(holePull[i]);
+            writeTime(out, holeSpawnMs[i]);
+            Replay.writeVarlong(out, holeDurationMs[i]);
+        }
+        writeTime(out, holeLastGone);
+
+        // +++ Run +++
+        Replay.writeVarint(out, score);
+        Replay.writeVarint(out, level);
+        Replay.writeVarint(out, xp);
+        Replay.writeVarint(out, combo);
+        Replay.writeVarint(out, maxCombo);
+        out.writeFloat(stress);
+        out.writeFloat(maxStress);
+        writeTime(out, lastCatchTime);
+        writeTime(out, gameStartTime);
+        Replay.writeVarint(out, upgradeCount);
+        for (int i = 0; i < upgradeCount; i++) {
+            out.writeUTF(upgrades[i]);
+        }
+        out.flush();
+    }
+
+    // === READ ===
+
+    /** Reads a saved run into this object's arrays, growing them if needed. */
+    public void read(InputStream is) throws IOException {
+        DataInputStream in = new DataInputStream(is);
+        if (in.readInt() != MAGIC) throw new IOException("Not a save-state file");
+        int version = Replay.readVarint(in);
+        if (version != VERSION) throw new IOException("Unsupported save-state version " + version);
+
+        int s = Replay.readVarint(in);
+        Simulation.State[] states = Simulation.State.values();
+        if (s >= states.length) throw new IOException("Unknown state " + s);
+        state = states[s];
+        seed = in.readLong();
+        nowMs = Replay.readVarlong(in);
+        remainderNanos = Replay.readVarlong(in);
+
+        screenW = in.readFloat();
+        screenH = in.readFloat();
+        catX = in.readFloat();
+        catY = in.readFloat();
+        catW = in.readFloat();
+        catH = in.readFloat();
+        startingVY = in.readFloat();
+        minVX = in.readFloat();
+        maxVX = in.readFloat();
+        int flags = in.readUnsignedByte();
+        gracePeriodEnded = (flags & 1) != 0;
+        gameOverTriggered = (flags & 2) != 0;
+        lastBoxSpawn = readTime(in);
+        for (int k = 0; k < RNG_STREAMS; k++) {
+            rng[k] = in.readLong();
+        }
+
+        // +++ Balls +++
+        int n = Replay.readVarint(in);
+        if (n > ballX.length) growBalls(n);
+        for (int i = 0; i < n; i++) {
+            ballX[i] = in.readFloat();
+            ballY[i] = in.readFloat();
+            ballR[i] = in.readFloat();
+            ballVX[i] = in.readFloat();
+            ballVY[i] = in.readFloat();
+            ballFlags[i] = Replay.readVarint(in);
+            ballTeleportedAt[i] = readTime(in);
+            ballCollidedAt[i] = readTime(in);
+            ballHitAt[i] = readTime(in);
+            ballSpawnedAt[i] = readTime(in);
+        }
+        ballCount = n;
+        n = Replay.readVarint(in);
+        if (n > ballCount) throw new IOException("Collider order covers " + n + " of " + ballCount + " balls");
+        if (n > order.length) growOrder(n);
+        for (int k = 0; k < n; k++) {
+            order[k] = Replay.readVarint(in);
+            if (order[k] >= ballCount) throw new IOException("Collider order out of range: " + order[k]);
+        }
+        orderCount = n;
+
+        // +++ Boxes +++
+        n = Replay.readVarint(in);
+        if (n > boxRects.length) growBoxes(n);
+        for (int i = 0; i < n; i++) {
+            readRect(in, boxRects[i]);
+            boxHp[i] = readSigned(in);
+            boxXp[i] = Replay.readVarint(in);
+            boxScore[i] = Replay.readVarint(in);
+        }
+        boxCount = n;
+
+        // +++ Bumpers +++
+        n = Replay.readVarint(in);
+        if (n > bumperRects.length) growBumpers(n);
+        for (int i = 0; i < n; i++) {
+            readRect(in, bumperRects[i]);
+            bumperAngle[i] = in.readFloat();
+            bumperBounce[i] = in.readFloat();
+            bumperRotates[i] = in.readBoolean();
+            bumperSpawnMs[i] = readTime(in);
+            bumperLifeMs[i] = Replay.readVarlong(in);
+        }
+        bumperCount = n;
+        bumperLastGone = readTime(in);
+
+        // +++ Portals +++
+        flags = in.readUnsignedByte();
+        portalsActive = (flags & 1) != 0;
+        portalUsed = (flags & 2) != 0;
+        if (portalsActive) {
+            readRect(in, portalA);
+            readRect(in, portalB);
+            portalSpawnMs = readTime(in);
+            portalDurationMs = Replay.readVarlong(in);
+        }
+        portalLastGone = readTime(in);
+
+        // +++ Black holes +++
+        n = Replay.readVarint(in);
+        if (n > holeX.length) growHoles(n);
+        for (int i = 0; i < n; i++) {
+            holeX[i] = in.readFloat();
+            holeY[i] = in.readFloat();
+            holeR[i] = in.readFloat();
+            holeRotation[i] = in.readFloat();
+            holePull[i] = in.readFloat();
+            holeSpawnMs[i] = readTime(in);
+            holeDurationMs[i] = Replay.readVarlong(in);
+        }
+        holeCount = n;
+        holeLastGone = readTime(in);
+
+        // +++ Run +++
+        score = Replay.readVarint(in);
+        level = Replay.readVarint(in);
+        xp = Replay.readVarint(in);
+        combo = Replay.readVarint(in);
+        maxCombo = Replay.readVarint(in);
+        stress = in.readFloat();
+        maxStress = in.readFloat();
+        lastCatchTime = readTime(in);
+        gameStartTime = readTime(in);
+        n = Replay.readVarint(in);
+        if (n > upgrades.length) upgrades = Arrays.copyOf(upgrades, n);
+        for (int i = 0; i < n; i++) {
+            upgrades[i] = in.readUTF();
+        }
+        upgradeCount = n;
+    }
+
+    // === ENCODING ===
+
+    private void writeTime(DataOutputStream out, long t) throws IOException {
+        long d = nowMs - t;
+        Replay.writeVarlong(out, (d << 1) ^ (d >> 63));
+    }
+
+    private long readTime(DataInputStream in) throws IOException {
+        long z = Replay.readVarlong(in);
+        return nowMs - ((z >>> 1) ^ -(z & 1));
+    }
+
+    private static void writeSigned(DataOutputStream out, int v) throws IOException {
+        Replay.writeVarint(out, (v << 1) ^ (v >> 31));
+    }
+
+    private static int readSigned(DataInputStream in) throws IOException {
+        long z = Replay.readVarlong(in);
+        return (int) (z >>> 1) ^ -(int) (z & 1);
+    }
+
+    private static void writeRect(DataOutputStream out, FRect r) throws IOException {
+        out.writeFloat(r.left);
+        out.writeFloat(r.top);
+        out.writeFloat(r.right);
+        out.writeFloat(r.bottom);
+    }
+
+    private static void readRect(DataInputStream in, FRect r) throws IOException {
+        r.set(in.readFloat(), in.readFloat(), in.readFloat(), in.readFloat());
+    }
+
+    // === GROWTH ===
+
+    void ensureBalls(int n) {
+        if (n > ballX.length) growBalls(n * 2);
+        if (n > order.length) growOrder(n * 2);
+    }
+
+    void ensureBoxes(int n) {
+        if (n > boxRects.length) growBoxes(n * 2);
+    }
+
+    void ensureBumpers(int n) {
+        if (n > bumperRects.length) growBumpers(n * 2);
+    }
+
+    void ensureHoles(int n) {
+        if (n > holeX.length) growHoles(n * 2);
+    }
+
+    void ensureUpgrades(int n) {
+        if (n > upgrades.length) upgrades = Arrays.copyOf(upgrades, n * 2);
+    }
+
+    private void growBalls(int n) {
+        ballX = ballX == null ? new float[n] : Arrays.copyOf(ballX, n);
+        ballY = ballY == null ? new float[n] : Arrays.copyOf(ballY, n);
+        ballR = ballR == null ? new float[n] : Arrays.copyOf(ballR, n);
+        ballVX = ballVX == null ? new float[n] : Arrays.copyOf(ballVX, n);
+        ballVY = ballVY == null ? new float[n] : Arrays.copyOf(ballVY, n);
+        ballFlags = ballFlags == null ? new int[n] : Arrays.copyOf(ballFlags, n);
+        ballTeleportedAt = ballTeleportedAt == null ? new long[n] : Arrays.copyOf(ballTeleportedAt, n);
+        ballCollidedAt = ballCollidedAt == null ? new long[n] : Arrays.copyOf(ballCollidedAt, n);
+        ballHitAt = ballHitAt == null ? new long[n] : Arrays.copyOf(ballHitAt, n);
+        ballSpawnedAt = ballSpawnedAt == null ? new long[n] : Arrays.copyOf(ballSpawnedAt, n);
+    }
+
+    private void growOrder(int n) {
+        order = order == null ? new int[n] : Arrays.copyOf(order, n);
+    }
+
+    private void growBoxes(int n) {
+        boxRects = fill(boxRects == null ? new FRect[n] : Arrays.copyOf(boxRects, n));
+        boxHp = boxHp == null ? new int[n] : Arrays.copyOf(boxHp, n);
+        boxXp = boxXp == null ? new int[n] : Arrays.copyOf(boxXp, n);
+        boxScore = boxScore == null ? new int[n] : Arrays.copyOf(boxScore, n);
+    }
+
+    private void growBumpers(int n) {
+        bumperRects = fill(bumperRects == null ? new FRect[n] : Arrays.copyOf(bumperRects, n));
+        bumperAngle = bumperAngle == null ? new float[n] : Arrays.copyOf(bumperAngle, n);
+        bumperBounce = bumperBounce == null ? new float[n] : Arrays.copyOf(bumperBounce, n);
+        bumperRotates = bumperRotates == null ? new boolean[n] : Arrays.copyOf(bumperRotates, n);
+        bumperSpawnMs = bumperSpawnMs == null ? new long[n] : Arrays.copyOf(bumperSpawnMs, n);
+        bumperLifeMs = bumperLifeMs == null ? new long[n] : Arrays.copyOf(bumperLifeMs, n);
+    }
+
+    private void growHoles(int n) {
+        holeX = holeX == null ? new float[n] : Arrays.copyOf(holeX, n);
+        holeY = holeY == null ? new float[n] : Arrays.copyOf(holeY, n);
+        holeR = holeR == null ? new float[n] : Arrays.copyOf(holeR, n);
+        holeRotation = holeRotation == null ? new float[n] : Arrays.copyOf(holeRotation, n);
+        holePull = holePull == null ? new float[n] : Arrays.copyOf(holePull, n);
+        holeSpawnMs = holeSpawnMs == null ? new long[n] : Arrays.copyOf(holeSpawnMs, n);
+        holeDurationMs = holeDurationMs == null ? new long[n] : Arrays.copyOf(holeDurationMs, n);
+    }
+
+    private static FRect[] fill(FRect[] rects) {
+        for (int i = 0; i < rects.length; i++) {
+            if (rects[i] == null) rects[i] = new FRect();
+        }
+        return rects;
+    }
+}
@@ -0,0 +1,47 @@
+package com.rngym.myapplication;
+
+import java.util.Random;
+
+/**
+ * SeededRandom - java.util.Random with its 48-bit state exposed, so a
+ * save-state can store a stream mid-run and pick it up where it left off.
+ * Same LCG and constants as Random, so every seed yields the same numbers
+ * as before and existing replays still play back.
+ * nextGaussian's cached second value isn't part of the state; gameplay
+ * doesn't use it.
+ */
+public class SeededRandom extends Random {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final long MULTIPLIER = 0x5DEECE66DL;
+    private static final long ADDEND = 0xBL;
+    private static final long MASK = (1L << 48) - 1;
+
+    // No initializer: Random's constructor sets it through setSeed
+    private long state;
+
+    public SeededRandom() {
+        super();
+    }
+
+    @Override
+    public synchronized void setSeed(long seed) {
+        super.setSeed(seed);
+        state = (seed ^ MULTIPLIER) & MASK;
+    }
+
+    @Override
+    protected int next(int bits) {
+        state = (state * MULTIPLIER + ADDEND) & MASK;
+        return (int) (state >>> (48 - bits));
+    }
+
+    public long getState() {
+        return state;
+    }
+
+    public void setState(long state) {
+        this.state = state & MASK;
+    }
+}
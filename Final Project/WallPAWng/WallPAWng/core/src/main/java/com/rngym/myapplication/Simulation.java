@@ -0,0 +1,1129 @@
+package com.rngym.myapplication;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Simulation - Android-free gameplay core for WallPAWng.
+ * Owns the balls, boxes, cat and the portal/bumper/black hole systems and
+ * advances them only through {@link #step(int, long)}, so the same code runs
+ * inside GameView and headless on a plain JVM.
+ */
+public class Simulation {
+
+    // === INPUT BITS ===
+    public static final int INPUT_LEFT = 1;
+    public static final int INPUT_RIGHT = 1 << 1;
+
+    // === LISTENER ===
+    public interface Listener {
+        // '#' in template stands for a, then b; formatting is left to the caller
+        void onPopup(String template, int a, int b, float x, float y);
+        void onCatch();
+        void onMiss();
+        void onLevelUp(int level, int xp, UpgradeManager.Choice[] choices);
+        void onGameOver(int finalScore, int highScore);
+    }
+
+    // === STATE ===
+    public enum State { TITLE, PLAYING, PAUSED }
+    private State state = State.TITLE;
+
+    // === CLOCK ===
+    private long nowMs;
+    private long remainderNanos = 0L;
+    private float frameScale = 1f; // this tick's length in reference frames
+
+    // Screen dimensions
+    public float screenW = 0;
+    public float screenH = 0;
+
+    // === GAME OBJECTS ===
+    public final BallBuffer balls = new BallBuffer(GameConfig.INITIAL_BALL_CAPACITY);
+    public final List<Box> boxes = new ArrayList<>();
+
+    // Ids and bounds of every box, bumper, portal and hole, in dense arrays
+    public final EntityStore entities = new EntityStore(GameConfig.INITIAL_ENTITY_CAPACITY);
+
+    // Broken boxes come back from here instead of being reallocated
+    public final ObjectPool<Box> boxPool = new ObjectPool<>(GameConfig.BOX_POOL_CAPACITY,
+            () -> new Box(new FRect(), 0, 0, 0));
+
+    // Broadphase for boxes; keep in sync through addBox/removeBox
+    private final SpatialGrid<Box> boxGrid = new SpatialGrid<>(GameConfig.COLLIDER_CELL_SIZE);
+    private final List<Box> boxCandidates = new ArrayList<>();
+    private final List<Bumper> bumperCandidates = new ArrayList<>();
+
+    // Free-space index shared by every spawner; rebuilt by spawnGrid()
+    private final OccupancyGrid spawnGrid = new OccupancyGrid(GameConfig.SPAWN_CELL_SIZE);
+    private final FRect spawnRect = new FRect();
+
+    // === CONTACTS ===
+    private static final int CONTACT_NONE = 0;
+    private static final int CONTACT_WALL = 1;
+    private static final int CONTACT_BUMPER = 2;
+    private static final int CONTACT_BOX = 3;
+    private static final int CONTACT_CAT = 4;
+    private static final float CEILING_Y = 80f;
+
+    private final PhysicsEngine.Contact contact = new PhysicsEngine.Contact();
+    private int contactKind = CONTACT_NONE;
+    private Box contactBox;
+    private Bumper contactBumper;
+    private final FRect sweptBox = new FRect();
+    private final FRect catZone = new FRect();
+    private final FRect ballRect = new FRect();
+
+    // === CAT ===
+    public float catX;
+    public float catY;
+    public float catW;
+    public float catH;
+    public float prevCatX;
+
+    // === SUBSYSTEMS ===
+    public final BumperSystem bumperSystem = new BumperSystem(this);
+    public final PortalSystem portalSystem = new PortalSystem(this);
+    public final BlackHoleSystem blackHoleSystem = new BlackHoleSystem(this);
+    private final BallCollider ballCollider = new BallCollider();
+    private final UpgradeManager upgradeManager = new UpgradeManager();
+    private final GameState gs = GameState.get();
+
+    private boolean gracePeriodJustEnded = false;
+    private boolean gameOverTriggered = false;
+
+    // === CONFIGURATION ===
+
+    // +++ Cat +++
+    public float catWidthFrac = GameConfig.CAT_WIDTH_FRACTION;
+    public float catHeightPx = GameConfig.CAT_HEIGHT_PX;
+
+    // +++ Ball +++
+    public float ballSizePercent = GameConfig.BALL_SIZE_PERCENT;
+    public float startingVY = GameConfig.STARTING_VY;
+    public float minVX = GameConfig.MIN_VX;
+    public float maxVX = GameConfig.MAX_VX;
+    public boolean ballCollisions = GameConfig.BALL_COLLISIONS;
+
+    // +++ Box spawning +++
+    private float boxMinWidth = GameConfig.BOX_MIN_WIDTH;
+    private float boxMaxWidth = GameConfig.BOX_MAX_WIDTH;
+    private float boxHeight = GameConfig.BOX_HEIGHT;
+    private int boxMinHP = GameConfig.BOX_MIN_HP;
+    private int boxMaxHP = GameConfig.BOX_MAX_HP;
+    private long lastBoxSpawn = 0L;
+
+    // === INPUT ===
+    private boolean movingLeft = false;
+    private boolean movingRight = false;
+
+    private Listener listener;
+
+    // Optional per-phase timing, null when not profiling
+    private FrameProfiler profiler;
+
+    // === UTILITIES ===
+    private final SeededRandom rnd = new SeededRandom();
+    private long seed = 0L;
+
+    public Simulation(long startMs) {
+        this.nowMs = startMs;
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    public void setProfiler(FrameProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    public long now() {
+        return nowMs;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public void setState(State state) {
+        this.state = state;
+    }
+
+    /**
+     * Sizes the field. On the title screen this also recentres the cat and
+     * lays out fresh bumpers; a run in progress, including one just restored,
+     * keeps its cat and bumpers and only has its grids resized.
+     */
+    public void setScreenSize(float w, float h) {
+        boolean inRun = isRunInProgress();
+        if (inRun && w == screenW && h == screenH) return;
+        screenW = w;
+        screenH = h;
+
+        // BROADPHASE
+        boxGrid.resize(screenW, screenH);
+        spawnGrid.resize(screenW, screenH);
+        for (int i = 0; i < boxes.size(); i++) {
+            Box box = boxes.get(i);
+            boxGrid.insert(box, box.rect);
+        }
+
+        // CAT POSITION
+        catW = Math.min(screenW * catWidthFrac, screenW * GameConfig.CAT_MAX_WIDTH_FRACTION);
+        catH = catHeightPx;
+        catY = screenH - catH - 120f;
+        if (inRun) {
+            // Mid-run resize: keep the cat where it was, just on screen
+            catX = Math.max(0f, Math.min(catX, screenW - catW));
+            prevCatX = catX;
+            bumperSystem.resize(screenW, screenH);
+            return;
+        }
+        catX = (screenW - catW) / 2f;
+        prevCatX = catX;
+
+        // INITIAL BUMPERS
+        regenerateBumpers();
+    }
+
+    private void regenerateBumpers() {
+        FRect catSafeZone = new FRect(
+                catX - 120f,
+                catY - 120f,
+                catX + catW + 120f,
+                catY + catH + 120f
+        );
+        bumperSystem.regenerate(screenW, screenH, catSafeZone, nowMs);
+    }
+
+    // === SEEDING ===
+
+    /**
+     * Reseeds every random stream from one run seed. Each subsystem gets its
+     * own stream, so an extra draw in one of them doesn't shift the others.
+     */
+    public void seed(long seed) {
+        this.seed = seed;
+        rnd.setSeed(subSeed(seed, 1));
+        bumperSystem.setSeed(subSeed(seed, 2));
+        portalSystem.setSeed(subSeed(seed, 3));
+        blackHoleSystem.setSeed(subSeed(seed, 4));
+        upgradeManager.setSeed(subSeed(seed, 5));
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    // SplitMix64 finalizer over seed + stream
+    private static long subSeed(long seed, int stream) {
+        long z = seed + stream * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    // === STEP ===
+
+    /**
+     * Advances the simulation clock by dtNanos and runs one gameplay tick
+     * with the given INPUT_* bitmask. Per-frame speeds are scaled by
+     * dtNanos / REFERENCE_FRAME_NANOS, so any fixed tick rate plays the same.
+     */
+    public void step(int inputs, long dtNanos) {
+        step(inputs, gs.isPaused(), dtNanos);
+    }
+
+    /**
+     * Same, with the pause flag read once by the caller. The UI thread can
+     * flip GameState's flag at any time, so a recorded tick passes the exact
+     * bit it recorded.
+     */
+    public void step(int inputs, boolean paused, long dtNanos) {
+        long total = remainderNanos + dtNanos;
+        nowMs += total / 1_000_000L;
+        remainderNanos = total % 1_000_000L;
+        frameScale = dtNanos / (float) GameConfig.REFERENCE_FRAME_NANOS;
+
+        savePreviousPositions();
+
+        movingLeft = (inputs & INPUT_LEFT) != 0;
+        movingRight = (inputs & INPUT_RIGHT) != 0;
+
+        FrameProfiler prof = profiler;
+        long t = prof != null ? prof.now() : 0L;
+
+        // Update subsystems
+        portalSystem.update(nowMs);
+        blackHoleSystem.update(nowMs, (int)screenW, (int)screenH);
+        bumperSystem.update(nowMs);
+
+        if (prof != null) t = prof.record(FrameProfiler.SUBSYSTEMS, t);
+
+        // Update gameplay
+        if (state == State.PLAYING && !paused) {
+            updateGameplay(nowMs);
+            if (prof != null) prof.record(FrameProfiler.GAMEPLAY, t);
+        }
+    }
+
+    private void savePreviousPositions() {
+        prevCatX = catX;
+        for (int i = 0; i < balls.size(); i++) {
+            balls.snap(i);
+        }
+    }
+
+    private void updateGameplay(long now) {
+
+        if (!gracePeriodJustEnded && (now - gs.getGameStartTime() >= GameConfig.EARLY_GAME_GRACE_PERIOD_MS)) {
+            gracePeriodJustEnded = true;
+
+            lastBoxSpawn = now;
+            bumperSystem.primeSpawnTimer(now);
+            portalSystem.primeSpawnTimer(now);
+            blackHoleSystem.primeSpawnTimer(now);
+        }
+
+        // Ensure balls start moving on first touch
+        if (movingLeft || movingRight) {
+            for (int i = 0, n = balls.size(); i < n; i++) {
+                if (!balls.isMoving(i)) {
+                    balls.vx[i] = randomVX();
+                    balls.vy[i] = Math.abs(startingVY);
+                }
+            }
+        }
+
+        // Move cat
+        updateCatMovement();
+
+        // Update balls
+        updateBalls(now);
+
+        // Remove expired small balls
+        removeExpiredSmallBalls(now);
+
+        // Update spawners
+        updateBoxSpawner(now);
+
+        float currentStress = gs.getStress();
+        float newStress = Math.max(0f, currentStress - GameConfig.STRESS_DECAY_RATE * frameScale);
+        gs.setStress(newStress);
+
+        checkLevelUp();
+    }
+
+    private void updateCatMovement() {
+        float catSpeed = GameConfig.CAT_SPEED * frameScale;
+
+        if (movingLeft) {
+            catX -= catSpeed;
+        }
+        if (movingRight) {
+            catX += catSpeed;
+        }
+
+        // Clamp to screen bounds
+        if (catX < 0) catX = 0;
+        if (catX + catW > screenW) catX = screenW - catW;
+    }
+
+    private void enforceMinimumSpeed(int i) {
+        float vx = balls.vx[i], vy = balls.vy[i];
+        float currentSpeed = (float) Math.sqrt(vx * vx + vy * vy);
+        if (currentSpeed < GameConfig.MIN_SPEED_AFTER_COLLISION) {
+            float scale = GameConfig.MIN_SPEED_AFTER_COLLISION / (currentSpeed + 0.001f); // Add small value to prevent division by zero
+            balls.vx[i] *= scale;
+            balls.vy[i] *= scale;
+        }
+    }
+
+    private void updateBalls(long now) {
+        BallBuffer b = balls;
+
+        for (int i = 0, n = b.size(); i < n; i++) {
+            moveBall(i, now);
+        }
+
+        // Ball vs ball, once everything has moved
+        if (ballCollisions) {
+            ballCollider.resolve(b, now);
+        }
+
+        for (int i = 0, n = b.size(); i < n; i++) {
+            blackHoleSystem.applyPull(b, i, frameScale);
+            handleBottomMiss(i);
+
+            // Apply portal teleportation after all movement for the frame is done
+            handlePortalTeleport(i, now);
+
+            // Ensure ball is moving
+            if (!b.isMoving(i)) {
+                b.vx[i] = randomVX();
+                b.vy[i] = Math.abs(startingVY);
+            }
+
+            enforceMinimumSpeed(i);
+
+            // Clamp velocity to max speed
+            PhysicsEngine.clampVelocity(b, i);
+        }
+    }
+
+    // === CONTINUOUS COLLISION ===
+
+    /**
+     * Advances ball i through this tick one contact at a time: find the
+     * earliest time of impact along the remaining move, step to it, resolve
+     * it, and continue with the time that is left. Cost grows with the
+     * number of contacts, not with speed.
+     */
+    private void moveBall(int i, long now) {
+        BallBuffer b = balls;
+        float remaining = frameScale; // time left in this tick, in reference frames
+
+        for (int contacts = 0; contacts < GameConfig.MAX_CONTACTS_PER_TICK; contacts++) {
+            float dx = b.vx[i] * remaining;
+            float dy = b.vy[i] * remaining;
+
+            findEarliestContact(i, dx, dy, now);
+
+            b.x[i] += dx * contact.t;
+            b.y[i] += dy * contact.t;
+
+            if (contactKind == CONTACT_NONE) return;
+
+            remaining *= 1f - contact.t;
+            resolveContact(i, now);
+        }
+    }
+
+    private void findEarliestContact(int i, float dx, float dy, long now) {
+        BallBuffer b = balls;
+        float x = b.x[i], y = b.y[i], size = b.r[i];
+
+        contact.reset();
+        contactKind = CONTACT_NONE;
+        contactBox = null;
+        contactBumper = null;
+
+        // Walls (touching counts, like the old <= checks)
+        if (dx < 0f && x + dx <= 0f) {
+            setContact(CONTACT_WALL, Math.max(0f, -x / dx), 1f, 0f);
+        } else if (dx > 0f && x + size + dx >= screenW) {
+            setContact(CONTACT_WALL, Math.max(0f, (screenW - size - x) / dx), -1f, 0f);
+        }
+        if (dy < 0f && y + dy <= CEILING_Y) {
+            setContact(CONTACT_WALL, Math.max(0f, (CEILING_Y - y) / dy), 0f, 1f);
+        }
+
+        // Broadphase over the swept box of the whole remaining move
+        sweptBox.set(
+                Math.min(x, x + dx), Math.min(y, y + dy),
+                Math.max(x, x + dx) + size, Math.max(y, y + dy) + size
+        );
+
+        // Bumpers are ignored while the ball's collision cooldown runs
+        if (now - b.lastCollisionTimeMs[i] >= BallBuffer.COLLISION_COOLDOWN_MS) {
+            bumperSystem.query(sweptBox, bumperCandidates);
+            for (int k = 0, n = bumperCandidates.size(); k < n; k++) {
+                Bumper bumper = bumperCandidates.get(k);
+                if (PhysicsEngine.sweep(x, y, size, dx, dy, bumper.rect, contact)) {
+                    contactKind = CONTACT_BUMPER;
+                    contactBumper = bumper;
+                    contactBox = null;
+                }
+            }
+        }
+
+        boxGrid.query(sweptBox.left, sweptBox.top, sweptBox.right, sweptBox.bottom, boxCandidates);
+        for (int k = 0, n = boxCandidates.size(); k < n; k++) {
+            Box box = boxCandidates.get(k);
+            if (PhysicsEngine.sweep(x, y, size, dx, dy, box.rect, contact)) {
+                contactKind = CONTACT_BOX;
+                contactBox = box;
+                contactBumper = null;
+            }
+        }
+
+        // The cat only catches balls coming down into its top half
+        if (dy > 0f) {
+            catZone.set(catX, catY, catX + catW, catY + catH * 0.5f);
+            if (PhysicsEngine.sweep(x, y, size, dx, dy, catZone, contact)) {
+                contactKind = CONTACT_CAT;
+                contactBox = null;
+                contactBumper = null;
+            }
+        }
+    }
+
+    private void setContact(int kind, float t, float nx, float ny) {
+        if (t >= contact.t) return;
+        contact.set(t, nx, ny);
+        contactKind = kind;
+    }
+
+    private void resolveContact(int i, long now) {
+        switch (contactKind) {
+            case CONTACT_WALL:
+                handleWallCollision(i);
+                break;
+            case CONTACT_BUMPER:
+                handleBumperCollision(i, contactBumper, now);
+                break;
+            case CONTACT_BOX:
+                handleBoxCollision(i, contactBox);
+                break;
+            case CONTACT_CAT:
+                handleCatCollision(i, now);
+                break;
+        }
+    }
+
+    private void handleWallCollision(int i) {
+        BallBuffer b = balls;
+        PhysicsEngine.reflect(b, i, contact, GameConfig.WALL_BOUNCE_DAMPING);
+
+        // Keep the ball inside the play area
+        if (b.x[i] < 0) b.x[i] = 0;
+        if (b.x[i] + b.r[i] > screenW) b.x[i] = screenW - b.r[i];
+        if (b.y[i] < CEILING_Y) b.y[i] = CEILING_Y;
+    }
+
+    private void handleBumperCollision(int i, Bumper hit, long now) {
+        BallBuffer b = balls;
+        b.lastCollisionTimeMs[i] = now;
+
+        // Step back out of the bumper and bounce off the side that was hit
+        PhysicsEngine.pushOut(b, i, hit.rect, contact);
+        PhysicsEngine.reflect(b, i, contact, hit.bounce);
+
+        // Add a small random kick to prevent predictable bouncing
+        b.vx[i] += (rnd.nextFloat() - 0.5f) * 2f;
+
+        // Ensure minimum speed and clamp velocity
+        enforceMinimumSpeed(i);
+        PhysicsEngine.clampVelocity(b, i);
+
+
+        // Reward
+        gs.addScore(1);
+        popup("+1", b.centerX(i), b.centerY(i));
+    }
+
+    private void handlePortalTeleport(int i, long now) {
+        BallBuffer b = balls;
+        ballRect.set(b.x[i], b.y[i], b.x[i] + b.r[i], b.y[i] + b.r[i]);
+
+        PortalSystem.Portal hitPortal = portalSystem.whichPortal(
+                ballRect,
+                b.lastTeleportedAt[i],
+                BallBuffer.TELEPORT_COOLDOWN_MS,
+                now
+        );
+
+        if (hitPortal != null) {
+            PortalSystem.Portal dest = portalSystem.getLinked(hitPortal);
+
+            if (dest != null) {
+                b.lastTeleportedAt[i] = now;
+                float cx = dest.rect.centerX();
+                float cy = dest.rect.centerY();
+                b.setCenter(i, cx, cy);
+                b.snap(i);
+            }
+        }
+    }
+
+    private void handleBoxCollision(int i, Box box) {
+        BallBuffer b = balls;
+
+        // Step back out of the box and bounce off the side that was hit
+        PhysicsEngine.pushOut(b, i, box.rect, contact);
+        PhysicsEngine.reflect(b, i, contact, GameConfig.BOUNCE_DAMPING);
+        PhysicsEngine.clampVelocity(b, i);
+
+        // Damage the box
+        box.hp -= 1;
+
+        if (box.hp <= 0) {
+            // Box destroyed -> apply rewards
+            gs.addScore(box.scoreReward);
+            gs.addXP(box.xpReward);
+
+            popup("+# XP", box.xpReward, box.rect.centerX(), box.rect.centerY());
+            popup("+#", box.scoreReward, box.rect.centerX(), box.rect.centerY() + 20f);
+
+            removeBox(box);
+        } else {
+            // Box still has HP
+            popup("#", box.hp, box.rect.centerX(), box.rect.centerY());
+        }
+    }
+
+    private void handleCatCollision(int i, long now) {
+        BallBuffer b = balls;
+
+        // Only catch if ball is moving downward
+        if (b.vy[i] > 0) {
+            // Calculate bounce angle based on hit position
+            float catCenter = catX + catW / 2f;
+            float hitPos = b.centerX(i) - catCenter;
+            float norm = hitPos / (catW / 2f);
+
+            b.vx[i] += norm * 4f;
+            b.vy[i] = -Math.abs(b.vy[i]) - 1.2f;
+            PhysicsEngine.clampVelocity(b, i);
+
+            // Register catch for combo system
+            gs.registerCatch(now);
+
+            // Get combo multiplier
+            float comboMult = gs.getComboMultiplier();
+            int comboCount = gs.getCombo();
+
+            // Calculate base rewards
+            int baseXP = GameConfig.BASE_XP_PER_CATCH;
+            int baseScore = GameConfig.SCORE_PER_CATCH;
+
+            // Apply upgrade bonuses
+            if (gs.hasUpgrade("score_x2")) {
+                baseScore *= 2;
+            }
+
+            // Apply combo multiplier
+            int finalXP = (int)(baseXP * comboMult);
+            int finalScore = (int)(baseScore * comboMult);
+
+            // Grant rewards
+            gs.addXP(finalXP);
+            gs.addScore(finalScore);
+
+            // Reduce stress
+            float stressReduction = GameConfig.STRESS_ON_CATCH;
+            if (gs.hasUpgrade("stress_reducer")) {
+                stressReduction -= 5f;
+            }
+            gs.addStress(stressReduction);
+
+            // Play hit sound
+            if (listener != null) {
+                listener.onCatch();
+            }
+
+            // Show popups with combo info
+            if (comboCount > 1) {
+                popup("+# XP (x#)", finalXP, comboCount, b.centerX(i), b.centerY(i));
+            } else {
+                popup("+# XP", finalXP, b.centerX(i), b.centerY(i));
+            }
+
+            popup("+#", finalScore, b.centerX(i), b.centerY(i) + 40f);
+
+            // Show special combo milestone popups
+            if (comboCount == 5) {
+                popup("5 COMBO! 1.5x MULTIPLIER!", screenW / 2f, screenH * 0.3f);
+            } else if (comboCount == 10) {
+                popup("10 COMBO! 2x MULTIPLIER!", screenW / 2f, screenH * 0.3f);
+            } else if (comboCount == 20) {
+                popup("20 COMBO! 3x MULTIPLIER!", screenW / 2f, screenH * 0.3f);
+            }
+            checkLevelUp();
+        }
+    }
+
+    private void handleBottomMiss(int i) {
+        BallBuffer b = balls;
+        if (b.y[i] > screenH + 200f) {
+            // Check for cat_reflect upgrade
+            if (gs.hasUpgrade("cat_reflect")) {
+                gs.removeUpgrade("cat_reflect");
+                b.vy[i] = -Math.abs(startingVY) * 1.5f;
+                popup("SAVED!", b.centerX(i), screenH / 2f);
+                return;
+            }
+
+            // Break combo on miss
+            int lostCombo = gs.getCombo();
+            gs.registerMiss();
+
+            // Show combo lost message if there was a combo
+            if (lostCombo >= 5) {
+                popup("COMBO LOST! (#)", lostCombo, screenW / 2f, screenH * 0.4f);
+            }
+
+            // Add stress
+            gs.addStress(GameConfig.STRESS_ON_MISS);
+            gs.addScore(GameConfig.SCORE_PENALTY_ON_MISS);
+
+            checkGameOver();
+
+            // Play miss sound
+            if (listener != null) {
+                listener.onMiss();
+            }
+
+            // Respawn ball at cat position
+            b.x[i] = catX + catW / 2f - b.r[i] / 2f;
+            b.y[i] = catY - b.r[i] - 8f;
+            b.vx[i] = randomVX();
+            b.vy[i] = -Math.abs(startingVY);
+            b.snap(i);
+        }
+    }
+
+    private void removeExpiredSmallBalls(long now) {
+        // Walk backwards so swap-remove never skips a ball
+        for (int i = balls.size() - 1; i >= 0; i--) {
+            if (balls.isExpired(i, now)) {
+                balls.remove(i);
+            }
+        }
+    }
+
+    public void resetGameOverFlag() {
+        this.gameOverTriggered = false;
+    }
+
+    private void checkGameOver() {
+        // If game over has already been triggered, do nothing
+        if (gameOverTriggered) {
+            return;
+        }
+
+        float currentStress = gs.getStress();
+        float maxStress = gs.getMaxStress();
+
+        // Compare as double to avoid any float weirdness near the cap
+        if ((double) currentStress > ((double) maxStress - 0.01)) {
+            gameOverTriggered = true; // Set flag to true immediately
+
+            // Update high score first
+            gs.maybeUpdateHighScore();
+
+            // Stop the game immediately
+            gs.setPaused(true);
+            state = State.PAUSED;
+
+            if (listener != null) {
+                listener.onGameOver(gs.getScore(), gs.getHighScore());
+            }
+        }
+    }
+
+    private void checkLevelUp() {
+        int currentLevel = gs.getLevel();
+        int currentXp = gs.getXP();
+        int xpNeeded = GameConfig.xpForLevel(currentLevel);
+
+        if (currentXp >= xpNeeded) {
+
+            // Pause the game first
+            gs.setPaused(true);
+
+            // Calculate the carry-over XP before leveling up
+            int carryOverXp = currentXp - xpNeeded;
+
+            // Manually level up the player
+            gs.levelUp(); // This increments level and resets XP to 0
+
+            // Add back the carry-over XP
+            gs.addXP(carryOverXp);
+
+            // Generate and show upgrade choices
+            UpgradeManager.Choice[] choices = upgradeManager.generate(3);
+
+            if (listener != null) {
+                listener.onLevelUp(gs.getLevel(), gs.getXP(), choices);
+            } else {
+                // Resume the game if the listener is missing to prevent a soft-lock
+                gs.setPaused(false);
+            }
+            // Check for another level up in case carry-over XP is enough
+            checkLevelUp();
+        }
+    }
+
+    // === BOX SPAWNER ===
+
+    private void updateBoxSpawner(long now) {
+
+        if (now - gs.getGameStartTime() < GameConfig.EARLY_GAME_GRACE_PERIOD_MS) {
+            return;
+        }
+
+        long adjustedCooldown = GameConfig.getAdjustedBoxSpawnCooldown(gs.getLevel());
+        int adjustedMaxBoxes = GameConfig.getMaxBoxesForLevel(gs.getLevel());
+
+        if (now - lastBoxSpawn < adjustedCooldown) return;
+        if (boxes.size() >= adjustedMaxBoxes) return;
+
+        if (trySpawnBox()) {
+            lastBoxSpawn = now;
+        }
+    }
+
+    boolean trySpawnBox() {
+        if (screenW <= 0 || screenH <= 0) return false;
+
+        // Randomize properties
+        float width = boxMinWidth + rnd.nextFloat() * (boxMaxWidth - boxMinWidth);
+
+        // Find a free spot in the upper field first, so a full field draws nothing else
+        float top = screenH * 0.15f;
+        if (!spawnGrid().sample(width, boxHeight, 40f, top, screenW - 40f,
+                top + screenH * 0.40f + boxHeight, rnd, spawnRect)) {
+            return false;
+        }
+
+        int hp = boxMinHP + rnd.nextInt(boxMaxHP - boxMinHP + 1);
+
+        // Scale HP with level
+        hp = GameConfig.getBoxHPForLevel(gs.getLevel(), hp);
+
+        // Calculate rewards
+        int xpReward = hp * GameConfig.BOX_XP_PER_HP + gs.getLevel();
+        int scoreReward = hp * GameConfig.BOX_SCORE_PER_HP + gs.getLevel() * 2;
+
+        addBox(boxPool.obtain().set(spawnRect, hp, xpReward, scoreReward));
+        return true;
+    }
+
+    /**
+     * Marks everything on the field into the shared occupancy grid and
+     * returns it, ready to sample(). Callers may mark extra keep-out areas
+     * first; the grid is only valid until the next call.
+     */
+    OccupancyGrid spawnGrid() {
+        OccupancyGrid grid = spawnGrid;
+        grid.clear();
+
+        // Boxes, bumpers, portals and holes in one pass over the entity bounds
+        EntityStore e = entities;
+        for (int i = 0, n = e.size(); i < n; i++) {
+            grid.mark(e.left[i], e.top[i], e.right[i], e.bottom[i]);
+        }
+
+        BallBuffer bb = balls;
+        for (int i = 0, n = bb.size(); i < n; i++) {
+            grid.mark(bb.x[i], bb.y[i], bb.x[i] + bb.r[i], bb.y[i] + bb.r[i]);
+        }
+
+        // Keep the space around the cat clear
+        grid.mark(catX - 60f, catY - 100f, catX + catW + 60f, catY + catH + 60f);
+        return grid;
+    }
+
+    // Popups pass constant templates plus numbers so no strings are built per tick
+    private void popup(String txt, float x, float y) {
+        popup(txt, 0, 0, x, y);
+    }
+
+    private void popup(String template, int a, float x, float y) {
+        popup(template, a, 0, x, y);
+    }
+
+    private void popup(String template, int a, int b, float x, float y) {
+        if (listener != null) {
+            listener.onPopup(template, a, b, x, y);
+        }
+    }
+
+    // === PUBLIC API ===
+
+    /**
+     * Starts a fresh run from a known state: reseeds, clears the field,
+     * recentres the cat and spawns the first ball. Everything a replay needs
+     * besides this seed is the screen size, tunables and saved upgrades.
+     */
+    public void beginRun(long seed) {
+        seed(seed);
+        remainderNanos = 0L;
+        lastBoxSpawn = 0L;
+
+        clearGameObjects();
+        catX = (screenW - catW) / 2f;
+        prevCatX = catX;
+        regenerateBumpers();
+
+        startRun();
+        resetGameOverFlag();
+        gs.setPaused(false);
+        spawnInitialBall();
+        state = State.PLAYING;
+    }
+
+    public void startRun() {
+        gs.resetRun(nowMs);
+        gracePeriodJustEnded = false;
+    }
+
+    public void addBox(Box box) {
+        boxes.add(box);
+        boxGrid.insert(box, box.rect);
+        box.id = entities.create(box.rect);
+    }
+
+    public void removeBox(Box box) {
+        boxes.remove(box);
+        boxGrid.remove(box, box.rect);
+        entities.destroy(box.id);
+        boxPool.free(box);
+    }
+
+    public void clearGameObjects() {
+        // Clear all lists of objects
+        balls.clear();
+        for (int i = 0, n = boxes.size(); i < n; i++) {
+            boxPool.free(boxes.get(i));
+        }
+        boxes.clear();
+        boxGrid.clear();
+
+        // Reset subsystems
+        bumperSystem.clearAllBumpers();
+        portalSystem.clearPortals();
+        blackHoleSystem.clearBlackHole();
+        entities.clear();
+        ballCollider.reset();
+    }
+
+    public void spawnInitialBall() {
+        balls.clear();
+        float r = Math.max(10f, screenW * ballSizePercent);
+        float x = (screenW - r) / 2f;
+        float y = (screenH - r) / 2f;
+        balls.add(x, y, r, randomVX(), startingVY, 0, nowMs);
+    }
+
+    /**
+     * Applies an upgrade picked on the level-up screen.
+     * Returns true if the cat size changed so the renderer can rescale its sprite.
+     */
+    public boolean applyUpgrade(String key) {
+        if (key == null || key.isEmpty()) return false;
+
+        gs.unlockUpgrade(key);
+
+        switch (key) {
+            case "score_x2":
+                popup("Score Doubled!", screenW / 2f, screenH / 2f);
+                break;
+
+            case "combo_plus1":
+                popup("Combo XP Increased!", screenW / 2f, screenH / 2f);
+                break;
+
+            case "multi_full_burst":
+                spawnExtraYarn(); // Spawns one extra
+                spawnExtraYarn(); // Spawns a second one
+                popup("+2 Full Yarn Balls!", screenW / 2f, screenH / 2f);
+                break;
+
+            case "box_reward_up":
+                popup("Box Rewards Up!", screenW / 2f, screenH / 2f);
+                break;
+
+            case "blackhole_box_destroyer":
+                popup("Black Holes Destroy Boxes!", screenW / 2f, screenH / 2f);
+                break;
+
+            case "max_stress_plus20":
+                gs.addMaxStress(GameConfig.UPGRADE_MAX_STRESS_INCREASE);
+                popup("Max Stress +20!", screenW / 2f, screenH / 2f);
+                break;
+
+            case "stress_reducer":
+                popup("Catches Reduce More Stress!", screenW / 2f, screenH / 2f);
+                break;
+
+            case "cat_width_plus":
+                catW *= GameConfig.UPGRADE_CAT_WIDTH_INCREASE;
+                catW = Math.min(catW, screenW * GameConfig.CAT_MAX_WIDTH_FRACTION);
+                catX = (screenW - catW) / 2f;
+                prevCatX = catX;
+                popup("Cat Wider!", screenW / 2f, screenH / 2f);
+                return true;
+
+            case "extra_yarn":
+                spawnExtraYarn();
+                popup("+1 Yarn Ball!", screenW / 2f, screenH / 2f);
+                break;
+
+            case "portal_freq_plus":
+                popup("Portals More Frequent!", screenW / 2f, screenH / 2f);
+                break;
+
+            case "cat_reflect":
+                popup("Cat Can Save a Miss!", screenW / 2f, screenH / 2f);
+                break;
+
+            case "vy_plus":
+                for (int i = 0, n = balls.size(); i < n; i++) balls.vy[i] *= GameConfig.UPGRADE_SPEED_INCREASE;
+                startingVY *= GameConfig.UPGRADE_SPEED_INCREASE;
+                popup("Vertical Speed Up!", screenW / 2f, screenH / 2f);
+                break;
+
+            case "vx_plus":
+                for (int i = 0, n = balls.size(); i < n; i++) balls.vx[i] *= GameConfig.UPGRADE_SPEED_INCREASE;
+                minVX *= GameConfig.UPGRADE_SPEED_INCREASE;
+                maxVX *= GameConfig.UPGRADE_SPEED_INCREASE;
+                popup("Horizontal Speed Up!", screenW / 2f, screenH / 2f);
+                break;
+
+            default:
+                popup("Upgrade Applied!", screenW / 2f, screenH / 2f);
+                break;
+        }
+        return false;
+    }
+
+    /**
+     * Cheap fingerprint of the gameplay state, used to check that a replay
+     * ends where the recorded run did.
+     */
+    public long stateHash() {
+        long h = nowMs;
+        h = h * 31 + Float.floatToIntBits(catX);
+        h = h * 31 + gs.getScore();
+        h = h * 31 + gs.getLevel();
+        h = h * 31 + Float.floatToIntBits(gs.getStress());
+        for (int i = 0, n = balls.size(); i < n; i++) {
+            h = h * 31 + Float.floatToIntBits(balls.x[i]);
+            h = h * 31 + Float.floatToIntBits(balls.y[i]);
+            h = h * 31 + Float.floatToIntBits(balls.vx[i]);
+            h = h * 31 + Float.floatToIntBits(balls.vy[i]);
+        }
+        for (int i = 0, n = boxes.size(); i < n; i++) {
+            h = h * 31 + boxes.get(i).hp;
+        }
+        return h;
+    }
+
+    // True from beginRun until game over or the title screen
+    public boolean isRunInProgress() {
+        return state != State.TITLE && !gameOverTriggered;
+    }
+
+    // === SAVE STATE ===
+
+    void saveTo(SaveState s) {
+        s.state = state;
+        s.seed = seed;
+        s.nowMs = nowMs;
+        s.remainderNanos = remainderNanos;
+        s.screenW = screenW;
+        s.screenH = screenH;
+        s.catX = catX;
+        s.catY = catY;
+        s.catW = catW;
+        s.catH = catH;
+        s.startingVY = startingVY;
+        s.minVX = minVX;
+        s.maxVX = maxVX;
+        s.gracePeriodEnded = gracePeriodJustEnded;
+        s.gameOverTriggered = gameOverTriggered;
+        s.lastBoxSpawn = lastBoxSpawn;
+        s.rng[SaveState.RNG_SIMULATION] = rnd.getState();
+
+        // +++ Balls +++
+        BallBuffer b = balls;
+        int n = b.size();
+        s.ensureBalls(n);
+        System.arraycopy(b.x, 0, s.ballX, 0, n);
+        System.arraycopy(b.y, 0, s.ballY, 0, n);
+        System.arraycopy(b.r, 0, s.ballR, 0, n);
+        System.arraycopy(b.vx, 0, s.ballVX, 0, n);
+        System.arraycopy(b.vy, 0, s.ballVY, 0, n);
+        System.arraycopy(b.flags, 0, s.ballFlags, 0, n);
+        System.arraycopy(b.lastTeleportedAt, 0, s.ballTeleportedAt, 0, n);
+        System.arraycopy(b.lastCollisionTimeMs, 0, s.ballCollidedAt, 0, n);
+        System.arraycopy(b.lastBallHitMs, 0, s.ballHitAt, 0, n);
+        System.arraycopy(b.spawnTime, 0, s.ballSpawnedAt, 0, n);
+        s.ballCount = n;
+        ballCollider.saveTo(s, n);
+
+        // +++ Boxes +++
+        n = boxes.size();
+        s.ensureBoxes(n);
+        for (int i = 0; i < n; i++) {
+            Box box = boxes.get(i);
+            s.boxRects[i].set(box.rect);
+            s.boxHp[i] = box.hp;
+            s.boxXp[i] = box.xpReward;
+            s.boxScore[i] = box.scoreReward;
+        }
+        s.boxCount = n;
+
+        bumperSystem.saveTo(s);
+        portalSystem.saveTo(s);
+        blackHoleSystem.saveTo(s);
+        upgradeManager.saveTo(s);
+        gs.saveTo(s);
+    }
+
+    void loadFrom(SaveState s) {
+        clearGameObjects();
+        state = s.state;
+        seed = s.seed;
+        nowMs = s.nowMs;
+        remainderNanos = s.remainderNanos;
+        screenW = s.screenW;
+        screenH = s.screenH;
+        catX = s.catX;
+        catY = s.catY;
+        catW = s.catW;
+        catH = s.catH;
+        prevCatX = catX;
+        startingVY = s.startingVY;
+        minVX = s.minVX;
+        maxVX = s.maxVX;
+        gracePeriodJustEnded = s.gracePeriodEnded;
+        gameOverTriggered = s.gameOverTriggered;
+        lastBoxSpawn = s.lastBoxSpawn;
+        rnd.setState(s.rng[SaveState.RNG_SIMULATION]);
+
+        // +++ Balls +++
+        BallBuffer b = balls;
+        for (int i = 0; i < s.ballCount; i++) {
+            b.add(s.ballX[i], s.ballY[i], s.ballR[i], s.ballVX[i], s.ballVY[i], s.ballFlags[i], s.ballSpawnedAt[i]);
+            b.lastTeleportedAt[i] = s.ballTeleportedAt[i];
+            b.lastCollisionTimeMs[i] = s.ballCollidedAt[i];
+            b.lastBallHitMs[i] = s.ballHitAt[i];
+        }
+        ballCollider.loadFrom(s);
+
+        // +++ Boxes +++
+        boxGrid.resize(screenW, screenH);
+        spawnGrid.resize(screenW, screenH);
+        for (int i = 0; i < s.boxCount; i++) {
+            addBox(boxPool.obtain().set(s.boxRects[i], s.boxHp[i], s.boxXp[i], s.boxScore[i]));
+        }
+
+        bumperSystem.loadFrom(s);
+        portalSystem.loadFrom(s);
+        blackHoleSystem.loadFrom(s);
+        upgradeManager.loadFrom(s);
+        gs.loadFrom(s);
+    }
+
+    private void spawnExtraYarn() {
+        float r = Math.max(10f, screenW * ballSizePercent);
+        balls.add(
+                catX + catW / 2f - r / 2f,
+                catY - r - 4f,
+                r,
+                randomVX(),
+                -Math.abs(startingVY),
+                0,
+                nowMs
+        );
+    }
+
+    private float randomVX() {
+        float v = minVX + rnd.nextFloat() * (maxVX - minVX);
+        return rnd.nextBoolean() ? v : -v;
+    }
+}
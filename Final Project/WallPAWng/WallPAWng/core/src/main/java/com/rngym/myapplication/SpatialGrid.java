@@ -0,0 +1,98 @@
+package com.rngym.myapplication;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * SpatialGrid - uniform grid broadphase for static colliders (boxes, bumpers).
+ * Each item is listed in every cell its rect overlaps. Items are inserted and
+ * removed one at a time as they spawn and break, so the grid never needs a
+ * full rebuild except when the screen size changes.
+ */
+public class SpatialGrid<T> {
+
+    private final float cellSize;
+    private int cols = 1, rows = 1;
+    private List<List<T>> cells = new ArrayList<>();
+
+    public SpatialGrid(float cellSize) {
+        this.cellSize = cellSize;
+        cells.add(new ArrayList<>());
+    }
+
+    // Resize to cover the screen; existing items are dropped
+    public void resize(float width, float height) {
+        cols = Math.max(1, (int) Math.ceil(width / cellSize));
+        rows = Math.max(1, (int) Math.ceil(height / cellSize));
+        cells = new ArrayList<>(cols * rows);
+        for (int i = 0; i < cols * rows; i++) {
+            cells.add(new ArrayList<>());
+        }
+    }
+
+    public void insert(T item, FRect rect) {
+        int c0 = col(rect.left), c1 = col(rect.right);
+        int r0 = row(rect.top), r1 = row(rect.bottom);
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                cells.get(r * cols + c).add(item);
+            }
+        }
+    }
+
+    // rect must be the same rect the item was inserted with
+    public void remove(T item, FRect rect) {
+        int c0 = col(rect.left), c1 = col(rect.right);
+        int r0 = row(rect.top), r1 = row(rect.bottom);
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                cells.get(r * cols + c).remove(item);
+            }
+        }
+    }
+
+    public void clear() {
+        for (int i = 0; i < cells.size(); i++) {
+            cells.get(i).clear();
+        }
+    }
+
+    /**
+     * Collects every item listed in a cell touched by the given area into out
+     * (cleared first). Items spanning several cells are only added once.
+     * Candidates still need a narrowphase test.
+     */
+    public void query(float left, float top, float right, float bottom, List<T> out) {
+        out.clear();
+        int c0 = col(left), c1 = col(right);
+        int r0 = row(top), r1 = row(bottom);
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                List<T> cell = cells.get(r * cols + c);
+                for (int k = 0, n = cell.size(); k < n; k++) {
+                    T item = cell.get(k);
+                    if (!out.contains(item)) out.add(item);
+                }
+            }
+        }
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    // Anything off screen is folded into the border cells
+    private int col(float x) {
+        int c = (int) (x / cellSize);
+        return c < 0 ? 0 : (c >= cols ? cols - 1 : c);
+    }
+
+    private int row(float y) {
+        int r = (int) (y / cellSize);
+        return r < 0 ? 0 : (r >= rows ? rows - 1 : r);
+    }
+}
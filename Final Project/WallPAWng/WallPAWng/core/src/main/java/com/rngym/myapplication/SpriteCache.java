@@ -0,0 +1,180 @@
+package com.rngym.myapplication;
+
+import java.util.Arrays;
+
+/**
+ * SpriteCache - scaled copies of source sprites, keyed by sprite id and
+ * size rounded to a quantum, kept within a byte budget and evicted least
+ * recently used first. Generic over the bitmap type so the renderer plugs
+ * in Android's Bitmap and tests plug in anything. The source may be a whole
+ * atlas; the scaler gets the sprite id to find its region.
+ *
+ * Entries live in parallel arrays and are found by a linear scan starting
+ * at the last hit; there are only a few dozen sizes in play, and lookups
+ * allocate nothing.
+ */
+public class SpriteCache<B> {
+
+    public interface Scaler<B> {
+        B scale(int spriteId, B source, int width, int height);
+        long byteCount(B sprite);
+        void release(B sprite);
+    }
+
+    private final Scaler<B> scaler;
+    private final long byteBudget;
+    private final int quantum;
+
+    // === ENTRIES ===
+    private int[] ids = new int[16];
+    private int[] widths = new int[16];
+    private int[] heights = new int[16];
+    private long[] bytes = new long[16];
+    private long[] lastUsed = new long[16];
+    private Object[] sprites = new Object[16];
+    private int count = 0;
+    private int lastHit = 0;
+    private long clock = 0L;
+    private long usedBytes = 0L;
+
+    // === STATS ===
+    private long hits = 0L;
+    private long misses = 0L;
+    private long evictions = 0L;
+
+    public SpriteCache(Scaler<B> scaler, long byteBudget, int quantum) {
+        this.scaler = scaler;
+        this.byteBudget = byteBudget;
+        this.quantum = Math.max(1, quantum);
+    }
+
+    /**
+     * Returns source scaled to (width, height) rounded to the quantum,
+     * scaling and caching it on a miss. Null if the source is null.
+     */
+    @SuppressWarnings("unchecked")
+    public B get(int spriteId, B source, float width, float height) {
+        if (source == null) return null;
+        int w = quantize(width);
+        int h = quantize(height);
+        clock++;
+
+        int i = find(spriteId, w, h);
+        if (i >= 0) {
+            hits++;
+            lastUsed[i] = clock;
+            lastHit = i;
+            return (B) sprites[i];
+        }
+
+        misses++;
+        B scaled = scaler.scale(spriteId, source, w, h);
+        if (scaled == null) return null;
+        long size = scaler.byteCount(scaled);
+
+        // Make room; a sprite bigger than the whole budget still gets cached alone
+        while (count > 0 && usedBytes + size > byteBudget) {
+            evict(leastRecentlyUsed());
+        }
+
+        if (count == ids.length) grow();
+        i = count++;
+        ids[i] = spriteId;
+        widths[i] = w;
+        heights[i] = h;
+        bytes[i] = size;
+        lastUsed[i] = clock;
+        sprites[i] = scaled;
+        usedBytes += size;
+        lastHit = i;
+        return scaled;
+    }
+
+    public int quantize(float size) {
+        int q = Math.round(size / quantum) * quantum;
+        return Math.max(quantum, q);
+    }
+
+    // Releases every cached sprite; stats are kept
+    public void clear() {
+        for (int i = 0; i < count; i++) {
+            release(i);
+        }
+        count = 0;
+        lastHit = 0;
+        usedBytes = 0L;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public long getUsedBytes() {
+        return usedBytes;
+    }
+
+    public long getByteBudget() {
+        return byteBudget;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    private int find(int spriteId, int w, int h) {
+        for (int k = 0; k < count; k++) {
+            int i = (lastHit + k) % count;
+            if (ids[i] == spriteId && widths[i] == w && heights[i] == h) return i;
+        }
+        return -1;
+    }
+
+    private int leastRecentlyUsed() {
+        int oldest = 0;
+        for (int i = 1; i < count; i++) {
+            if (lastUsed[i] < lastUsed[oldest]) oldest = i;
+        }
+        return oldest;
+    }
+
+    // Swap-removes entry i
+    private void evict(int i) {
+        release(i);
+        usedBytes -= bytes[i];
+        evictions++;
+
+        int last = --count;
+        ids[i] = ids[last];
+        widths[i] = widths[last];
+        heights[i] = heights[last];
+        bytes[i] = bytes[last];
+        lastUsed[i] = lastUsed[last];
+        sprites[i] = sprites[last];
+        sprites[last] = null;
+        lastHit = 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void release(int i) {
+        scaler.release((B) sprites[i]);
+        sprites[i] = null;
+    }
+
+    private void grow() {
+        int n = ids.length * 2;
+        ids = Arrays.copyOf(ids, n);
+        widths = Arrays.copyOf(widths, n);
+        heights = Arrays.copyOf(heights, n);
+        bytes = Arrays.copyOf(bytes, n);
+        lastUsed = Arrays.copyOf(lastUsed, n);
+        sprites = Arrays.copyOf(sprites, n);
+    }
+}
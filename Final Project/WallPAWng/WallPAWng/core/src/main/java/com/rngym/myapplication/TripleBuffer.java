@@ -0,0 +1,53 @@
+package com.rngym.myapplication;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * TripleBuffer - hands the newest of a stream of preallocated values from
+ * one producer thread to one consumer thread without locks. The producer
+ * fills back() and publishes it; the consumer takes latest(). Each side owns
+ * one slot and the third sits in the middle, swapped in with a single
+ * atomic exchange, so neither side ever waits for the other and the
+ * consumer never sees a slot that is still being written.
+ */
+public class TripleBuffer<T> {
+
+    private static final int INDEX_MASK = 3;
+    private static final int FRESH = 4; // middle slot holds something not yet taken
+
+    private final Object[] slots;
+    private final AtomicInteger middle = new AtomicInteger(1);
+    private int back = 0;   // producer's slot
+    private int front = 2;  // consumer's slot
+
+    public TripleBuffer(T a, T b, T c) {
+        slots = new Object[] {a, b, c};
+    }
+
+    // === PRODUCER ===
+
+    @SuppressWarnings("unchecked")
+    public T back() {
+        return (T) slots[back];
+    }
+
+    /** Makes back() visible to the consumer and hands the producer a free slot. */
+    public void publish() {
+        back = middle.getAndSet(back | FRESH) & INDEX_MASK;
+    }
+
+    // === CONSUMER ===
+
+    /** Newest published value; the same one again if nothing new came in. */
+    @SuppressWarnings("unchecked")
+    public T latest() {
+        if ((middle.get() & FRESH) != 0) {
+            front = middle.getAndSet(front) & INDEX_MASK;
+        }
+        return (T) slots[front];
+    }
+
+    public boolean hasFresh() {
+        return (middle.get() & FRESH) != 0;
+    }
+}
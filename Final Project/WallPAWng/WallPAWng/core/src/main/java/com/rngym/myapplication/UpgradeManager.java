@@ -2,7 +2,6 @@ package com.rngym.myapplication;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
 
 public class UpgradeManager {
     public static class Choice {
@@ -18,7 +17,19 @@ public class UpgradeManager {
         }
     }
 
-    private final Random rnd = new Random();
+    private final SeededRandom rnd = new SeededRandom();
+
+    public void setSeed(long seed) {
+        rnd.setSeed(seed);
+    }
+
+    void saveTo(SaveState s) {
+        s.rng[SaveState.RNG_UPGRADES] = rnd.getState();
+    }
+
+    void loadFrom(SaveState s) {
+        rnd.setState(s.rng[SaveState.RNG_UPGRADES]);
+    }
 
     public Choice[] generate(int n) {
         List<Choice> pool = new ArrayList<>();
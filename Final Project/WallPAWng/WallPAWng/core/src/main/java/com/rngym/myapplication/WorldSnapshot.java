@@ -0,0 +1,258 @@
+package com.rngym.myapplication;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * WorldSnapshot - everything the renderer needs from one simulation tick,
+ * copied into preallocated arrays. Written only by the simulation thread
+ * and read only by the render thread once published through a
+ * TripleBuffer, so drawing never touches live game objects. Arrays grow
+ * when the world outgrows them and are reused from then on.
+ *
+ * staticKey summarizes the boxes and non-rotating bumpers; the renderer
+ * keeps them in a cached layer and redraws it only when the key changes.
+ */
+public class WorldSnapshot {
+
+    // === FRAME ===
+    public Simulation.State state = Simulation.State.TITLE;
+    public long nowMs;
+    public float screenW, screenH;
+    public long tickNanos;
+    public long tickStartNanos; // clock time the newest tick covers up to
+
+    // === BALLS ===
+    public int ballCount;
+    public float[] ballPrevX, ballPrevY, ballX, ballY, ballR;
+    public boolean[] ballSmall;
+
+    // === CAT ===
+    public float prevCatX, catX, catY, catW, catH;
+
+    // === BOXES ===
+    public int boxCount;
+    public FRect[] boxRects;
+    public int[] boxHp;
+
+    // === STATIC LAYER ===
+    public long staticKey;
+
+    // === BUMPERS ===
+    public int bumperCount;
+    public FRect[] bumperRects;
+    public boolean[] bumperRotates;
+    public long[] bumperSpawnMs;
+
+    // === PORTALS ===
+    public boolean portalsActive;
+    public final FRect portalA = new FRect();
+    public final FRect portalB = new FRect();
+    public long portalSpawnMs, portalDurationMs;
+
+    // === BLACK HOLES ===
+    public int holeCount;
+    public float[] holeX, holeY, holeR;
+    public long[] holeSpawnMs, holeDurationMs;
+
+    // === POOLS ===
+    // Hit / miss counters for the perf overlay
+    public long boxPoolHits, boxPoolMisses;
+    public long bumperPoolHits, bumperPoolMisses;
+    public long portalPoolHits, portalPoolMisses;
+
+    // === POPUPS ===
+    public int popupCount;
+    public float[] popupX, popupY, popupLife;
+    public char[][] popupText;
+    public int[] popupLength;
+
+    public WorldSnapshot() {
+        growBalls(GameConfig.INITIAL_BALL_CAPACITY);
+        growBoxes(16);
+        growBumpers(16);
+        growHoles(Math.max(1, GameConfig.BLACKHOLE_MAX_COUNT));
+        growPopups(GameConfig.POPUP_CAPACITY);
+    }
+
+    /** Copies the world as of the last tick; call on the simulation thread. */
+    public void capture(Simulation sim, PopupRing popups, long tickStartNanos, long tickNanos) {
+        state = sim.getState();
+        nowMs = sim.now();
+        screenW = sim.screenW;
+        screenH = sim.screenH;
+        this.tickStartNanos = tickStartNanos;
+        this.tickNanos = tickNanos;
+
+        // +++ Balls +++
+        BallBuffer b = sim.balls;
+        int n = b.size();
+        if (n > ballX.length) growBalls(n * 2);
+        System.arraycopy(b.prevX, 0, ballPrevX, 0, n);
+        System.arraycopy(b.prevY, 0, ballPrevY, 0, n);
+        System.arraycopy(b.x, 0, ballX, 0, n);
+        System.arraycopy(b.y, 0, ballY, 0, n);
+        System.arraycopy(b.r, 0, ballR, 0, n);
+        for (int i = 0; i < n; i++) {
+            ballSmall[i] = b.isSmall(i);
+        }
+        ballCount = n;
+
+        // +++ Cat +++
+        prevCatX = sim.prevCatX;
+        catX = sim.catX;
+        catY = sim.catY;
+        catW = sim.catW;
+        catH = sim.catH;
+
+        // +++ Boxes +++
+        long key = FNV_OFFSET;
+        List<Box> boxes = sim.boxes;
+        n = boxes.size();
+        if (n > boxRects.length) growBoxes(n * 2);
+        for (int i = 0; i < n; i++) {
+            Box box = boxes.get(i);
+            boxRects[i].set(box.rect);
+            boxHp[i] = box.hp;
+            key = mix(mix(key, box.rect), box.hp);
+        }
+        boxCount = n;
+
+        // +++ Bumpers +++
+        List<Bumper> bumpers = sim.bumperSystem.getBumpers();
+        n = 0;
+        if (bumpers != null) {
+            if (bumpers.size() > bumperRects.length) growBumpers(bumpers.size() * 2);
+            for (int i = 0; i < bumpers.size(); i++) {
+                Bumper bumper = bumpers.get(i);
+                if (bumper == null || bumper.rect == null) continue;
+                bumperRects[n].set(bumper.rect);
+                bumperRotates[n] = bumper.rotates;
+                bumperSpawnMs[n] = bumper.spawnAtMs;
+                if (!bumper.rotates) key = mix(key, bumper.rect);
+                n++;
+            }
+        }
+        bumperCount = n;
+        staticKey = mix(key, boxCount * 31L + n);
+
+        // +++ Portals +++
+        PortalSystem.Portal pA = sim.portalSystem.getA();
+        PortalSystem.Portal pB = sim.portalSystem.getB();
+        portalsActive = pA != null && pB != null;
+        if (portalsActive) {
+            portalA.set(pA.rect);
+            portalB.set(pB.rect);
+            portalSpawnMs = pA.spawnMs;
+            portalDurationMs = pA.durationMs;
+        }
+
+        // +++ Black holes +++
+        List<BlackHoleSystem.BlackHole> holes = sim.blackHoleSystem.getHoles();
+        n = holes.size();
+        if (n > holeX.length) growHoles(n * 2);
+        for (int i = 0; i < n; i++) {
+            BlackHoleSystem.BlackHole bh = holes.get(i);
+            holeX[i] = bh.x;
+            holeY[i] = bh.y;
+            holeR[i] = bh.r;
+            holeSpawnMs[i] = bh.spawnMs;
+            holeDurationMs[i] = bh.durationMs;
+        }
+        holeCount = n;
+
+        // +++ Pools +++
+        boxPoolHits = sim.boxPool.getHits();
+        boxPoolMisses = sim.boxPool.getMisses();
+        bumperPoolHits = sim.bumperSystem.pool.getHits();
+        bumperPoolMisses = sim.bumperSystem.pool.getMisses();
+        portalPoolHits = sim.portalSystem.pool.getHits();
+        portalPoolMisses = sim.portalSystem.pool.getMisses();
+
+        // +++ Popups +++
+        n = popups.size();
+        if (n > popupX.length) growPopups(n * 2);
+        for (int k = 0; k < n; k++) {
+            int s = popups.slot(k);
+            popupX[k] = popups.x[s];
+            popupY[k] = popups.y[s];
+            popupLife[k] = popups.lifePct[s];
+            popupLength[k] = popups.length[s];
+            System.arraycopy(popups.text[s], 0, popupText[k], 0, popups.length[s]);
+        }
+        popupCount = n;
+    }
+
+    // Which of `buckets` equal steps of its life popup k is in
+    public int popupBucket(int k, int buckets) {
+        return Math.min(buckets - 1, (int) (popupLife[k] * buckets));
+    }
+
+    // === STATIC KEY ===
+    // FNV-1a over 32-bit words; any moved, added, removed or damaged box changes it
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private static long mix(long h, long v) {
+        h = (h ^ (v & 0xFFFFFFFFL)) * FNV_PRIME;
+        return (h ^ (v >>> 32)) * FNV_PRIME;
+    }
+
+    private static long mix(long h, FRect r) {
+        h = mix(h, Float.floatToIntBits(r.left));
+        h = mix(h, Float.floatToIntBits(r.top));
+        h = mix(h, Float.floatToIntBits(r.right));
+        return mix(h, Float.floatToIntBits(r.bottom));
+    }
+
+    // === GROWTH ===
+
+    private void growBalls(int n) {
+        ballPrevX = ballPrevX == null ? new float[n] : Arrays.copyOf(ballPrevX, n);
+        ballPrevY = ballPrevY == null ? new float[n] : Arrays.copyOf(ballPrevY, n);
+        ballX = ballX == null ? new float[n] : Arrays.copyOf(ballX, n);
+        ballY = ballY == null ? new float[n] : Arrays.copyOf(ballY, n);
+        ballR = ballR == null ? new float[n] : Arrays.copyOf(ballR, n);
+        ballSmall = ballSmall == null ? new boolean[n] : Arrays.copyOf(ballSmall, n);
+    }
+
+    private void growBoxes(int n) {
+        boxRects = fill(boxRects == null ? new FRect[n] : Arrays.copyOf(boxRects, n));
+        boxHp = boxHp == null ? new int[n] : Arrays.copyOf(boxHp, n);
+    }
+
+    private void growBumpers(int n) {
+        bumperRects = fill(bumperRects == null ? new FRect[n] : Arrays.copyOf(bumperRects, n));
+        bumperRotates = bumperRotates == null ? new boolean[n] : Arrays.copyOf(bumperRotates, n);
+        bumperSpawnMs = bumperSpawnMs == null ? new long[n] : Arrays.copyOf(bumperSpawnMs, n);
+    }
+
+    private void growHoles(int n) {
+        holeX = holeX == null ? new float[n] : Arrays.copyOf(holeX, n);
+        holeY = holeY == null ? new float[n] : Arrays.copyOf(holeY, n);
+        holeR = holeR == null ? new float[n] : Arrays.copyOf(holeR, n);
+        holeSpawnMs = holeSpawnMs == null ? new long[n] : Arrays.copyOf(holeSpawnMs, n);
+        holeDurationMs = holeDurationMs == null ? new long[n] : Arrays.copyOf(holeDurationMs, n);
+    }
+
+    private void growPopups(int n) {
+        popupX = popupX == null ? new float[n] : Arrays.copyOf(popupX, n);
+        popupY = popupY == null ? new float[n] : Arrays.copyOf(popupY, n);
+        popupLife = popupLife == null ? new float[n] : Arrays.copyOf(popupLife, n);
+        popupLength = popupLength == null ? new int[n] : Arrays.copyOf(popupLength, n);
+        char[][] text = new char[n][];
+        int old = popupText == null ? 0 : popupText.length;
+        for (int i = 0; i < n; i++) {
+            text[i] = i < old ? popupText[i] : new char[PopupRing.MAX_CHARS];
+        }
+        popupText = text;
+    }
+
+    private static FRect[] fill(FRect[] rects) {
+        for (int i = 0; i < rects.length; i++) {
+            if (rects[i] == null) rects[i] = new FRect();
+        }
+        return rects;
+    }
+}
@@ -0,0 +1,149 @@
+package com.rngym.myapplication;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * WriteBehindStore - a GameState.Store that keeps writes in memory and
+ * hands them to the real store later, on a background thread. Each key
+ * keeps only its newest value, so a combo streak that sets a new max on
+ * every catch turns into one write. The first write after a flush
+ * schedules the next one `intervalMs` later; flush() pushes everything
+ * right away, e.g. from onPause.
+ *
+ * Writers only take a short lock on the pending map and never touch the
+ * backing store, so calling put from the game thread costs no disk I/O.
+ */
+public class WriteBehindStore implements GameState.Store {
+
+    private final GameState.Store backing;
+    private final ScheduledExecutorService executor;
+    private final long intervalMs;
+    private final Runnable flushTask = this::flush;
+
+    // === PENDING ===
+    // Guarded by `this`; newest value per key, applied after a pending clear
+    private final Map<String, Object> pending = new HashMap<>();
+    private boolean clearPending = false;
+    private boolean scheduled = false;
+
+    // Serializes flushes so an older batch can't land after a newer one
+    private final Object flushLock = new Object();
+
+    // === STATS ===
+    private long writes = 0L;
+    private long flushes = 0L;
+
+    public WriteBehindStore(GameState.Store backing, long intervalMs) {
+        this(backing, Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "save");
+            t.setDaemon(true);
+            t.setPriority(Thread.MIN_PRIORITY);
+            return t;
+        }), intervalMs);
+    }
+
+    public WriteBehindStore(GameState.Store backing, ScheduledExecutorService executor, long intervalMs) {
+        this.backing = backing;
+        this.executor = executor;
+        this.intervalMs = intervalMs;
+    }
+
+    // ==================== READS ====================
+
+    @Override
+    public synchronized int getInt(String key, int def) {
+        Object v = pending.get(key);
+        if (v instanceof Integer) return (Integer) v;
+        if (clearPending) return def;
+        return backing.getInt(key, def);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public synchronized Set<String> getStringSet(String key, Set<String> def) {
+        Object v = pending.get(key);
+        if (v instanceof Set) return (Set<String>) v;
+        if (clearPending) return def;
+        return backing.getStringSet(key, def);
+    }
+
+    // ==================== WRITES ====================
+
+    @Override
+    public synchronized void putInt(String key, int value) {
+        pending.put(key, value);
+        dirty();
+    }
+
+    /** Keeps `values` as given; callers hand over a set they won't change. */
+    @Override
+    public synchronized void putStringSet(String key, Set<String> values) {
+        pending.put(key, values);
+        dirty();
+    }
+
+    @Override
+    public synchronized void clear() {
+        pending.clear();
+        clearPending = true;
+        dirty();
+    }
+
+    private void dirty() {
+        writes++;
+        if (scheduled) return;
+        scheduled = true;
+        executor.schedule(flushTask, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    // ==================== FLUSH ====================
+
+    /**
+     * Writes everything pending to the backing store on the calling thread,
+     * then flushes it, so a backing store that buffers until flush() still
+     * gets every batch.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void flush() {
+        synchronized (flushLock) {
+            Map<String, Object> batch;
+            boolean clear;
+            synchronized (this) {
+                scheduled = false;
+                if (pending.isEmpty() && !clearPending) return;
+                batch = new HashMap<>(pending);
+                clear = clearPending;
+                pending.clear();
+                clearPending = false;
+                flushes++;
+            }
+
+            if (clear) backing.clear();
+            for (Map.Entry<String, Object> e : batch.entrySet()) {
+                Object v = e.getValue();
+                if (v instanceof Integer) backing.putInt(e.getKey(), (Integer) v);
+                else backing.putStringSet(e.getKey(), (Set<String>) v);
+            }
+            backing.flush();
+        }
+    }
+
+    public synchronized boolean isDirty() {
+        return !pending.isEmpty() || clearPending;
+    }
+
+    // Writes accepted vs batches sent to the backing store
+    public synchronized long getWrites() {
+        return writes;
+    }
+
+    public synchronized long getFlushes() {
+        return flushes;
+    }
+}
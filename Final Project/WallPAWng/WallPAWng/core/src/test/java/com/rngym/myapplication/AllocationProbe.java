@@ -0,0 +1,49 @@
+package com.rngym.myapplication;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * AllocationProbe - heap bytes the calling thread allocates while a piece
+ * of code runs, for the zero-allocation tests. Needs the HotSpot
+ * com.sun.management.ThreadMXBean; forCurrentThread() returns null where
+ * it's missing, so tests can skip rather than fail.
+ */
+final class AllocationProbe {
+
+    private final com.sun.management.ThreadMXBean mx;
+    private final long tid;
+
+    private AllocationProbe(com.sun.management.ThreadMXBean mx, long tid) {
+        this.mx = mx;
+        this.tid = tid;
+    }
+
+    static AllocationProbe forCurrentThread() {
+        java.lang.management.ThreadMXBean mx = ManagementFactory.getThreadMXBean();
+        if (!(mx instanceof com.sun.management.ThreadMXBean)) return null;
+        com.sun.management.ThreadMXBean sunMx = (com.sun.management.ThreadMXBean) mx;
+        if (!sunMx.isThreadAllocatedMemorySupported()) return null;
+        sunMx.setThreadAllocatedMemoryEnabled(true);
+        return new AllocationProbe(sunMx, Thread.currentThread().getId());
+    }
+
+    // Bytes allocated by body, less the cost of the probe itself
+    long measure(Runnable body) {
+        long probe = mx.getThreadAllocatedBytes(tid);
+        long overhead = mx.getThreadAllocatedBytes(tid) - probe;
+
+        long start = mx.getThreadAllocatedBytes(tid);
+        body.run();
+        return Math.max(0L, mx.getThreadAllocatedBytes(tid) - start - overhead);
+    }
+
+    // JIT deoptimisation can still allocate once in a while, so this runs
+    // body up to `attempts` times and returns 0 as soon as one comes out clean
+    long cleanestOf(int attempts, Runnable body) {
+        long allocated = Long.MAX_VALUE;
+        for (int attempt = 0; attempt < attempts && allocated > 0; attempt++) {
+            allocated = Math.min(allocated, measure(body));
+        }
+        return allocated;
+    }
+}
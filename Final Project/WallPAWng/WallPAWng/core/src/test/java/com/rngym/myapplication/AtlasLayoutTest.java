@@ -0,0 +1,66 @@
+package com.rngym.myapplication;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class AtlasLayoutTest {
+
+    private static boolean overlaps(AtlasLayout l, int a, int b, int pad) {
+        return l.x[a] < l.x[b] + l.w[b] + pad && l.x[b] < l.x[a] + l.w[a] + pad
+                && l.y[a] < l.y[b] + l.h[b] + pad && l.y[b] < l.y[a] + l.h[a] + pad;
+    }
+
+    @Test
+    public void spritesFitWithoutOverlap() {
+        Random rnd = new Random(3);
+        int n = 40;
+        int[] widths = new int[n], heights = new int[n];
+        long area = 0;
+        for (int i = 0; i < n; i++) {
+            widths[i] = 8 + rnd.nextInt(120);
+            heights[i] = 8 + rnd.nextInt(120);
+            area += (long) widths[i] * heights[i];
+        }
+
+        AtlasLayout l = AtlasLayout.pack(widths, heights, 2, 2048);
+        assertEquals(n, l.count());
+        for (int i = 0; i < n; i++) {
+            assertEquals(widths[i], l.w[i]);
+            assertEquals(heights[i], l.h[i]);
+            assertTrue(l.x[i] >= 2 && l.x[i] + l.w[i] + 2 <= l.width);
+            assertTrue(l.y[i] >= 2 && l.y[i] + l.h[i] + 2 <= l.height);
+            for (int j = i + 1; j < n; j++) {
+                assertFalse(i + " overlaps " + j, overlaps(l, i, j, 2));
+            }
+        }
+        // Shelf packing should waste well under half the atlas
+        assertTrue(l.width * (long) l.height < area * 2);
+    }
+
+    @Test
+    public void indexRoundTripsAndRejectsStaleKey() throws Exception {
+        AtlasLayout l = AtlasLayout.pack(new int[] {64, 32, 300}, new int[] {64, 16, 40}, 2, 1024);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        l.write(out, 42L);
+
+        AtlasLayout back = AtlasLayout.read(new ByteArrayInputStream(out.toByteArray()), 42L);
+        assertEquals(l.width, back.width);
+        assertEquals(l.height, back.height);
+        assertArrayEquals(l.x, back.x);
+        assertArrayEquals(l.y, back.y);
+        assertArrayEquals(l.w, back.w);
+        assertArrayEquals(l.h, back.h);
+
+        assertNull(AtlasLayout.read(new ByteArrayInputStream(out.toByteArray()), 43L));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsSpriteWiderThanAtlas() {
+        AtlasLayout.pack(new int[] {600}, new int[] {10}, 2, 512);
+    }
+}
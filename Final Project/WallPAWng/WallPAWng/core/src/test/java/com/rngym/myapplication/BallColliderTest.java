@@ -0,0 +1,87 @@
+package com.rngym.myapplication;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class BallColliderTest {
+
+    private static final long TICK_NANOS = GameConfig.REFERENCE_FRAME_NANOS;
+
+    @Test
+    public void ballStillBouncesOffABumperRightAfterHittingABall() {
+        GameState.get().clearUpgrades();
+        Simulation sim = new Simulation(1_000_000L);
+        sim.setScreenSize(1080f, 2200f);
+        sim.clearGameObjects();
+        sim.startRun();
+        sim.setState(Simulation.State.PLAYING);
+        GameState.get().setPaused(false);
+
+        // Two overlapping balls falling side by side onto a wide bumper
+        float bumperTop = 1000f;
+        sim.bumperSystem.add(new Bumper(new FRect(300f, bumperTop, 700f, bumperTop + 20f),
+                0f, false, 1.2f, sim.now(), Long.MAX_VALUE / 2));
+        sim.balls.add(400f, bumperTop - 80f, 40f, 0f, 12f, 0, sim.now());
+        sim.balls.add(435f, bumperTop - 80f, 40f, 0f, 12f, 0, sim.now());
+
+        boolean bounced0 = false, bounced1 = false;
+        for (int t = 0; t < 20; t++) {
+            sim.step(0, TICK_NANOS);
+            BallBuffer b = sim.balls;
+            for (int i = 0; i < b.size(); i++) {
+                assertTrue("ball " + i + " went through the bumper", b.y[i] + b.r[i] <= bumperTop + 0.5f);
+            }
+            if (b.vy[0] < 0f) bounced0 = true;
+            if (b.vy[1] < 0f) bounced1 = true;
+        }
+        assertTrue(bounced0 && bounced1);
+    }
+
+    @Test
+    public void overlappingBallsAreAlwaysPushedApart() {
+        BallBuffer b = new BallBuffer(4);
+        b.add(100f, 100f, 40f, 0f, 0f, 0, 0L);
+        b.add(110f, 100f, 40f, 0f, 0f, 0, 0L);
+        BallCollider collider = new BallCollider();
+
+        // Twice in a row: separation doesn't wait on the impulse cooldown
+        collider.resolve(b, 1_000L);
+        b.x[1] = 110f;
+        collider.resolve(b, 1_001L);
+
+        float dx = b.x[1] - b.x[0];
+        assertTrue("still overlapping by " + (40f - dx), dx >= 40f - 0.01f);
+    }
+
+    @Test
+    public void ballImpulseWaitsOutItsOwnCooldown() {
+        BallBuffer b = new BallBuffer(4);
+        b.add(100f, 100f, 40f, 2f, 0f, 0, 0L);
+        b.add(130f, 100f, 40f, -2f, 0f, 0, 0L);
+        b.lastCollisionTimeMs[0] = 123L;
+        BallCollider collider = new BallCollider();
+
+        collider.resolve(b, 1_000L);
+        assertTrue(b.vx[0] < 0f && b.vx[1] > 0f);
+        assertEquals(1_000L, b.lastBallHitMs[0]);
+        // The box and bumper timer is left alone
+        assertEquals(123L, b.lastCollisionTimeMs[0]);
+
+        // Rammed together again inside the cooldown: pushed apart, no bounce
+        b.x[0] = 100f;
+        b.x[1] = 130f;
+        b.vx[0] = 2f;
+        b.vx[1] = -2f;
+        collider.resolve(b, 1_000L + BallBuffer.COLLISION_COOLDOWN_MS - 1L);
+        assertEquals(2f, b.vx[0], 0f);
+        assertEquals(-2f, b.vx[1], 0f);
+        assertTrue(b.x[1] - b.x[0] >= 40f - 0.01f);
+
+        // Once it has passed they bounce again
+        b.x[0] = 100f;
+        b.x[1] = 130f;
+        collider.resolve(b, 1_000L + BallBuffer.COLLISION_COOLDOWN_MS);
+        assertTrue(b.vx[0] < 0f && b.vx[1] > 0f);
+    }
+}
@@ -0,0 +1,46 @@
+package com.rngym.myapplication;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class EffectCacheTest {
+
+    private int built = 0;
+
+    private EffectCache<String> cache(int capacity) {
+        return new EffectCache<>((kind, color, radius) -> {
+            built++;
+            return kind + "/" + Integer.toHexString(color) + "/" + (int) radius;
+        }, capacity, 4);
+    }
+
+    @Test
+    public void buildsOncePerQuantizedKey() {
+        EffectCache<String> c = cache(8);
+        String a = c.get(0, 0xFF00FFFF, 50.4f);
+        assertSame(a, c.get(0, 0xFF00FFFF, 51.9f));
+        assertEquals("0/ff00ffff/52", a);
+
+        assertNotSame(a, c.get(1, 0xFF00FFFF, 52f));
+        assertNotSame(a, c.get(0, 0xFFFF00FF, 52f));
+        assertEquals(3, built);
+        assertEquals(1L, c.getHits());
+        assertEquals(3L, c.getMisses());
+    }
+
+    @Test
+    public void dropsLeastRecentlyUsedWhenFull() {
+        EffectCache<String> c = cache(2);
+        String small = c.get(0, 1, 8f);
+        c.get(0, 1, 16f);
+        c.get(0, 1, 8f);      // small is now the most recent
+        c.get(0, 1, 24f);     // evicts 16
+
+        assertEquals(2, c.size());
+        assertSame(small, c.get(0, 1, 8f));
+        int before = built;
+        c.get(0, 1, 16f);
+        assertEquals(before + 1, built);
+    }
+}
@@ -0,0 +1,66 @@
+package com.rngym.myapplication;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class EntityStoreTest {
+
+    private static final long TICK_NANOS = 1_000_000_000L / GameConfig.SIM_TICKS_PER_SECOND;
+
+    @Test
+    public void removalKeepsTheBoundsPacked() {
+        EntityStore e = new EntityStore(2);
+        int a = e.create(new FRect(0f, 0f, 10f, 10f));
+        e.create(new FRect(20f, 0f, 30f, 10f));
+        e.create(new FRect(40f, 0f, 50f, 10f));
+        assertEquals(3, e.size());
+
+        // The last entry moves into the gap
+        assertTrue(e.destroy(a));
+        assertEquals(2, e.size());
+        assertEquals(40f, e.left[0], 0f);
+        assertEquals(20f, e.left[1], 0f);
+    }
+
+    @Test
+    public void staleIdsNeverRemoveAReusedSlot() {
+        EntityStore e = new EntityStore(4);
+        int old = e.create(new FRect(0f, 0f, 1f, 1f));
+        e.destroy(old);
+        int reused = e.create(new FRect(5f, 5f, 6f, 6f));
+
+        assertNotEquals(old, reused);
+        assertFalse(e.destroy(old));
+        assertFalse(e.destroy(EntityStore.NONE));
+        assertEquals(1, e.size());
+
+        e.clear();
+        assertFalse(e.destroy(reused));
+        assertEquals(0, e.size());
+    }
+
+    @Test
+    public void simulationKeepsEntitiesInStepWithItsObjects() {
+        GameState gs = GameState.get();
+        gs.clearUpgrades();
+        gs.setMaxStress(100f);
+
+        Simulation sim = new Simulation(0L);
+        sim.setScreenSize(1080f, 2200f);
+        sim.beginRun(99L);
+
+        // Past the grace period, resuming after every level-up
+        for (int t = 0; t < 60 * 60; t++) {
+            gs.setPaused(false);
+            sim.step(0, TICK_NANOS);
+            int objects = sim.boxes.size() + sim.bumperSystem.getBumpers().size()
+                    + (sim.portalSystem.getA() == null ? 0 : 2) + sim.blackHoleSystem.getHoles().size();
+            assertEquals(objects, sim.entities.size());
+        }
+        assertTrue(sim.entities.size() > 0);
+
+        sim.clearGameObjects();
+        assertEquals(0, sim.entities.size());
+    }
+}
@@ -0,0 +1,158 @@
+package com.rngym.myapplication;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class HudSnapshotTest {
+
+    private final List<HudSnapshot> pushed = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        GameState gs = GameState.get();
+        gs.clearUpgrades();
+        gs.setMaxStress(100f);
+        gs.resetRun(0L);
+        gs.publishHud();
+        gs.setHudListener(pushed::add);
+    }
+
+    @After
+    public void tearDown() {
+        GameState.get().setHudListener(null);
+    }
+
+    @Test
+    public void idleTicksDoNotBumpTheVersion() {
+        GameState gs = GameState.get();
+        Simulation sim = new Simulation(0L);
+        sim.setScreenSize(1080f, 2200f);
+        sim.beginRun(3L);
+        gs.setStress(0f);
+        gs.publishHud();
+        pushed.clear();
+
+        // The first ball waits for input, so nothing on the HUD moves
+        long version = gs.getVersion();
+        for (int t = 0; t < 30; t++) {
+            sim.step(0, GameConfig.REFERENCE_FRAME_NANOS);
+            gs.publishHud();
+        }
+        assertEquals(version, gs.getVersion());
+        assertTrue(pushed.isEmpty());
+    }
+
+    @Test
+    public void publishesOnlyWhenSomethingChanged() {
+        GameState gs = GameState.get();
+        HudSnapshot before = gs.getHud();
+
+        // Nothing moved: no new snapshot, no push
+        assertSame(before, gs.publishHud());
+        assertTrue(pushed.isEmpty());
+
+        gs.addScore(25);
+        gs.addStress(10f);
+        gs.registerCatch(1000L);
+        HudSnapshot after = gs.publishHud();
+
+        assertEquals(1, pushed.size());
+        assertSame(after, pushed.get(0));
+        assertSame(after, gs.getHud());
+        assertTrue(after.version > before.version);
+        assertEquals(25, after.score);
+        assertEquals(10f, after.stress, 0f);
+        assertEquals(1, after.combo);
+
+        // Flags the HUD doesn't show leave the version alone
+        gs.setPaused(true);
+        gs.setBallMoving(true);
+        assertSame(after, gs.publishHud());
+        assertEquals(1, pushed.size());
+        gs.setPaused(false);
+        gs.setBallMoving(false);
+    }
+
+    @Test
+    public void snapshotIsDetachedFromLaterChanges() {
+        GameState gs = GameState.get();
+        gs.addXP(7);
+        HudSnapshot hud = gs.publishHud();
+
+        gs.addXP(5);
+        gs.levelUp();
+        assertEquals(7, hud.xp);
+        assertEquals(1, hud.level);
+        assertEquals(2, gs.publishHud().level);
+    }
+
+    @Test
+    public void comboHelpersMatchGameState() {
+        GameState gs = GameState.get();
+        for (int i = 0; i < 10; i++) {
+            gs.registerCatch(1000L + i);
+        }
+        HudSnapshot hud = gs.publishHud();
+        long later = 1009L + GameConfig.COMBO_TIMEOUT_MS - 1L;
+
+        assertEquals(gs.getComboMultiplier(), hud.comboMultiplier(), 0f);
+        assertEquals(gs.isComboExpiring(1010L), hud.isComboExpiring(1010L));
+        assertEquals(gs.isComboExpiring(later), hud.isComboExpiring(later));
+        assertTrue(hud.isComboExpiring(later));
+    }
+
+    @Test
+    public void readerOnAnotherThreadSeesWholeSnapshots() throws Exception {
+        // The game thread keeps score == 10 * combo == 10 * xp; a reader
+        // that saw fields from two different ticks would break that
+        GameState gs = GameState.get();
+        gs.setHudListener(null);
+        AtomicReference<String> failure = new AtomicReference<>();
+        final int ticks = 200_000;
+
+        Thread reader = new Thread(() -> {
+            long lastVersion = -1L;
+            while (failure.get() == null) {
+                HudSnapshot hud = gs.getHud();
+                if (hud.score != hud.combo * 10 || hud.xp != hud.combo) {
+                    failure.set("mixed snapshot at version " + hud.version);
+                }
+                if (hud.version < lastVersion) failure.set("version went back");
+                lastVersion = hud.version;
+                if (hud.combo == ticks) break;
+            }
+        });
+        reader.start();
+
+        for (int i = 1; i <= ticks; i++) {
+            gs.registerCatch(i);
+            gs.addXP(1);
+            gs.addScore(10);
+            gs.publishHud();
+        }
+        reader.join(10_000L);
+
+        assertNull(failure.get());
+        assertFalse(reader.isAlive());
+    }
+
+    @Test
+    public void emptyDiffersFromEveryRealState() {
+        HudSnapshot hud = GameState.get().publishHud();
+        HudSnapshot empty = HudSnapshot.EMPTY;
+
+        assertNotEquals(empty.version, hud.version);
+        assertNotEquals(empty.score, hud.score);
+        assertNotEquals(empty.level, hud.level);
+        assertNotEquals(empty.xp, hud.xp);
+        assertNotEquals(empty.combo, hud.combo);
+        assertNotEquals(Math.round(empty.stress), Math.round(hud.stress));
+    }
+}
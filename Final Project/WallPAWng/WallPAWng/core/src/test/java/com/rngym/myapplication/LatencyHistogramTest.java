@@ -0,0 +1,56 @@
+package com.rngym.myapplication;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void bucketsCoverEveryValueOnce() {
+        for (long v = 0; v < 100_000; v++) {
+            int b = LatencyHistogram.bucketOf(v);
+            assertTrue(v + " below bucket " + b, LatencyHistogram.lowerBound(b) <= v);
+            assertTrue(v + " above bucket " + b, LatencyHistogram.upperBound(b) >= v);
+        }
+    }
+
+    @Test
+    public void percentilesWithinBucketError() {
+        LatencyHistogram h = new LatencyHistogram();
+        Random rnd = new Random(1);
+        long[] values = new long[100_000];
+        for (int i = 0; i < values.length; i++) {
+            // Mostly ~2ms frames with a long tail of spikes
+            values[i] = rnd.nextInt(100) == 0 ? 20_000_000L + rnd.nextInt(30_000_000) : 1_500_000L + rnd.nextInt(1_000_000);
+            h.record(values[i]);
+        }
+        Arrays.sort(values);
+
+        double[] qs = {0.5, 0.99, 0.999};
+        for (double q : qs) {
+            long exact = values[(int) Math.ceil(q * values.length) - 1];
+            long got = h.percentile(q);
+            assertTrue("p" + q + " " + got + " vs " + exact, got >= exact);
+            assertTrue("p" + q + " " + got + " vs " + exact, got <= exact + exact / 16);
+        }
+        assertEquals(values[values.length - 1], h.getMax());
+        assertEquals(values.length, h.getCount());
+    }
+
+    @Test
+    public void resetEmptiesAndHugeValuesAreClamped() {
+        LatencyHistogram h = new LatencyHistogram();
+        h.record(Long.MAX_VALUE);
+        h.record(-5L);
+        assertEquals(2L, h.getCount());
+        assertEquals(Long.MAX_VALUE, h.percentile(1.0));
+
+        h.reset();
+        assertEquals(0L, h.getCount());
+        assertEquals(0L, h.percentile(0.99));
+    }
+}
@@ -0,0 +1,76 @@
+package com.rngym.myapplication;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+public class ObjectPoolTest {
+
+    @Test
+    public void reusesFreedObjectsAndCountsHitsAndMisses() {
+        ObjectPool<Box> pool = new ObjectPool<>(2, () -> new Box(new FRect(), 0, 0, 0));
+        Box a = pool.obtain();
+        Box b = pool.obtain();
+        Box c = pool.obtain();
+        assertEquals(3, pool.getMisses());
+
+        a.set(new FRect(1f, 2f, 3f, 4f), 5, 6, 7);
+        a.id = 42;
+        pool.free(a);
+        pool.free(b);
+        pool.free(c); // over capacity, left to the GC
+        assertEquals(2, pool.getFreeCount());
+        assertEquals(1, pool.getDrops());
+
+        // Freed objects come back reset, newest first
+        assertSame(b, pool.obtain());
+        Box again = pool.obtain();
+        assertSame(a, again);
+        assertEquals(0, again.hp);
+        assertEquals(0f, again.rect.right, 0f);
+        assertEquals(EntityStore.NONE, again.id);
+        assertEquals(2, pool.getHits());
+        assertEquals(3, pool.getMisses());
+    }
+
+    @Test
+    public void steadyStateSpawnAndDespawnAllocatesNothing() {
+        AllocationProbe probe = AllocationProbe.forCurrentThread();
+        assumeTrue("thread allocation counting unavailable", probe != null);
+
+        Simulation sim = new Simulation(1_000_000L);
+        sim.setScreenSize(1080f, 2200f);
+        sim.clearGameObjects();
+
+        // Warm up so every pool, list and grid cell has reached its size
+        // and the JIT has settled
+        cycle(sim, 2000);
+        long boxMisses = sim.boxPool.getMisses();
+        long bumperMisses = sim.bumperSystem.pool.getMisses();
+        long portalMisses = sim.portalSystem.pool.getMisses();
+
+        long allocated = probe.cleanestOf(5, () -> cycle(sim, 100));
+
+        assertEquals("bytes allocated by 100 spawn/despawn cycles", 0L, allocated);
+        assertEquals(boxMisses, sim.boxPool.getMisses());
+        assertEquals(bumperMisses, sim.bumperSystem.pool.getMisses());
+        assertEquals(portalMisses, sim.portalSystem.pool.getMisses());
+        assertTrue(sim.boxPool.getHits() >= 2000);
+    }
+
+    // Spawn a box, a bumper and a portal pair through the game's own paths, then despawn them
+    private static void cycle(Simulation sim, int times) {
+        for (int i = 0; i < times; i++) {
+            assertTrue(sim.trySpawnBox());
+            sim.removeBox(sim.boxes.get(sim.boxes.size() - 1));
+
+            sim.bumperSystem.trySpawnOneBumper(sim.now());
+            sim.bumperSystem.clearAllBumpers();
+
+            sim.portalSystem.spawn(sim.now());
+            assertNotNull(sim.portalSystem.getA());
+            sim.portalSystem.clearPortals();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.rngym.myapplication;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class OccupancyGridTest {
+
+    private static final float CELL = GameConfig.SPAWN_CELL_SIZE;
+
+    @Test
+    public void sampledRectsNeverOverlapMarkedOnes() {
+        OccupancyGrid grid = new OccupancyGrid(CELL);
+        grid.resize(1080f, 2200f);
+        Random rnd = new Random(7L);
+
+        // Fill the field one spawn at a time, like the box spawner does
+        List<FRect> placed = new ArrayList<>();
+        FRect out = new FRect();
+        while (grid.sample(150f, 40f, 40f, 300f, 1040f, 1200f, rnd, out)) {
+            assertTrue(out.left >= 40f && out.right <= 1040f);
+            assertTrue(out.top >= 300f && out.bottom <= 1200f);
+            for (int i = 0; i < placed.size(); i++) {
+                assertFalse("overlaps an earlier rect", FRect.intersects(out, placed.get(i)));
+            }
+            placed.add(new FRect(out));
+            grid.mark(out);
+            assertTrue("runaway placement", placed.size() < 1000);
+        }
+
+        // A full region gives up straight away instead of retrying
+        assertTrue(placed.size() > 50);
+        assertFalse(grid.sample(150f, 40f, 40f, 300f, 1040f, 1200f, rnd, out));
+    }
+
+    @Test
+    public void isFreeMatchesMarks() {
+        OccupancyGrid grid = new OccupancyGrid(CELL);
+        grid.resize(640f, 640f);
+        grid.mark(100f, 100f, 200f, 150f);
+
+        assertFalse(grid.isFree(150f, 120f, 160f, 130f));
+        assertFalse(grid.isFree(0f, 0f, 640f, 640f));
+        assertTrue(grid.isFree(300f, 300f, 400f, 400f));
+
+        // Touching edges don't count, like FRect.intersects
+        assertTrue(grid.isFree(208f, 100f, 300f, 150f));
+
+        // Off the screen is never free
+        assertFalse(grid.isFree(600f, 0f, 700f, 10f));
+
+        grid.clear();
+        assertTrue(grid.isFree(0f, 0f, 640f, 640f));
+    }
+
+    @Test
+    public void findsTheOnlyGapLeft() {
+        OccupancyGrid grid = new OccupancyGrid(CELL);
+        grid.resize(640f, 640f);
+
+        // Everything taken except one 64 x 64 hole
+        grid.mark(0f, 0f, 640f, 256f);
+        grid.mark(0f, 320f, 640f, 640f);
+        grid.mark(0f, 256f, 320f, 320f);
+        grid.mark(384f, 256f, 640f, 320f);
+
+        Random rnd = new Random(1L);
+        FRect out = new FRect();
+        for (int i = 0; i < 20; i++) {
+            assertTrue(grid.sample(50f, 50f, 0f, 0f, 640f, 640f, rnd, out));
+            assertTrue(out.left >= 320f && out.right <= 384f);
+            assertTrue(out.top >= 256f && out.bottom <= 320f);
+        }
+        assertFalse(grid.sample(80f, 50f, 0f, 0f, 640f, 640f, rnd, out));
+    }
+}
@@ -0,0 +1,89 @@
+package com.rngym.myapplication;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Checks that a steady-state Simulation tick (ball movement, wall, bumper,
+ * box and black hole contacts, popups) allocates nothing on the heap.
+ */
+public class PhysicsAllocationTest {
+
+    private static final long TICK_NANOS = GameConfig.REFERENCE_FRAME_NANOS;
+    private static final float W = 1080f;
+    private static final float H = 2200f;
+
+    private static final Simulation.Listener IGNORE = new Simulation.Listener() {
+        @Override public void onPopup(String template, int a, int b, float x, float y) {}
+        @Override public void onCatch() {}
+        @Override public void onMiss() {}
+        @Override public void onLevelUp(int level, int xp, UpgradeManager.Choice[] choices) {}
+        @Override public void onGameOver(int finalScore, int highScore) {}
+    };
+
+    @Test
+    public void steadyStateTickAllocatesNothing() {
+        AllocationProbe probe = AllocationProbe.forCurrentThread();
+        assumeTrue("thread allocation counting unavailable", probe != null);
+
+        Simulation sim = closedScene();
+        Box floor = sim.boxes.get(0);
+
+        // Warm up long enough for class loading, candidate list growth and
+        // JIT recompiles to settle
+        runTicks(sim, 600);
+
+        long allocated = probe.cleanestOf(3, () -> {
+            int hpBefore = floor.hp;
+            runTicks(sim, 200);
+            assertTrue("balls should hit the floor box", floor.hp < hpBefore);
+            assertTrue("balls should hit bumpers", GameState.get().getScore() > 0);
+        });
+
+        assertEquals("bytes allocated by 200 ticks", 0L, allocated);
+    }
+
+    // Restarting the run every 300 ticks keeps it inside the 8s early-game
+    // grace period, so nothing spawns
+    private static void runTicks(Simulation sim, int ticks) {
+        for (int i = 0; i < ticks; i++) {
+            if (i % 300 == 0) sim.startRun();
+            sim.step((i / 30) % 2 == 0 ? Simulation.INPUT_LEFT : Simulation.INPUT_RIGHT, TICK_NANOS);
+        }
+    }
+
+    // Balls bounce between the ceiling, walls, bumpers and an unbreakable
+    // floor box above the cat, so there are no catches, misses or level-ups.
+    private static Simulation closedScene() {
+        Simulation sim = new Simulation(1_000_000L);
+        sim.setListener(IGNORE);
+        sim.setScreenSize(W, H);
+        sim.clearGameObjects();
+        sim.startRun();
+        sim.setState(Simulation.State.PLAYING);
+        GameState.get().setPaused(false);
+
+        float floorTop = sim.catY - 200f;
+        sim.addBox(new Box(new FRect(-50f, floorTop, W + 50f, floorTop + 60f), Integer.MAX_VALUE, 0, 0));
+        sim.addBox(new Box(new FRect(200f, 900f, 320f, 1000f), Integer.MAX_VALUE, 0, 0));
+        sim.addBox(new Box(new FRect(700f, 600f, 800f, 700f), Integer.MAX_VALUE, 0, 0));
+        for (int i = 0; i < 4; i++) {
+            float top = 400f + i * 300f;
+            sim.bumperSystem.add(new Bumper(new FRect(100f + i * 200f, top, 300f + i * 200f, top + 20f),
+                    0f, false, 1.2f, sim.now(), Long.MAX_VALUE / 2));
+        }
+        sim.blackHoleSystem.spawn(sim.now(), (int) W, (int) H);
+
+        Random rnd = new Random(7);
+        for (int i = 0; i < 64; i++) {
+            float r = 40f + rnd.nextFloat() * 40f;
+            sim.balls.add(rnd.nextFloat() * (W - r), 100f + rnd.nextFloat() * 200f, r,
+                    rnd.nextFloat() * 40f - 20f, rnd.nextFloat() * 40f - 20f, 0, sim.now());
+        }
+        return sim;
+    }
+}
@@ -0,0 +1,49 @@
+package com.rngym.myapplication;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class PopupRingTest {
+
+    private static String text(PopupRing r, int k) {
+        int s = r.slot(k);
+        return new String(r.text[s], 0, r.length[s]);
+    }
+
+    @Test
+    public void fillsTemplateSlots() {
+        char[] out = new char[PopupRing.MAX_CHARS];
+        assertEquals("+12 XP (x3)", new String(out, 0, PopupRing.format("+# XP (x#)", 12, 3, out)));
+        assertEquals("-10", new String(out, 0, PopupRing.format("#", -10, 0, out)));
+        assertEquals("Cat Wider!", new String(out, 0, PopupRing.format("Cat Wider!", 0, 0, out)));
+        assertEquals("-2147483648", new String(out, 0, PopupRing.format("#", Integer.MIN_VALUE, 0, out)));
+    }
+
+    @Test
+    public void cutsTextThatDoesNotFit() {
+        char[] out = new char[4];
+        assertEquals("ab", new String(out, 0, PopupRing.format("ab#", 12345, 0, out)));
+    }
+
+    @Test
+    public void expiresOldestFirstAndRecyclesWhenFull() {
+        PopupRing r = new PopupRing(3, 1000L, -40f);
+        r.spawn("a", 0, 0, 0f, 100f, 0L);
+        r.spawn("b", 0, 0, 0f, 100f, 500L);
+        r.spawn("c", 0, 0, 0f, 100f, 600L);
+        r.spawn("d", 0, 0, 0f, 100f, 700L); // reuses a's slot
+
+        assertEquals(3, r.size());
+        assertEquals("b", text(r, 0));
+        assertEquals("d", text(r, 2));
+
+        r.update(1550L); // b is past its life
+        assertEquals(2, r.size());
+        assertEquals("c", text(r, 0));
+        assertTrue(r.y[r.slot(0)] < 100f);
+
+        r.clear();
+        assertEquals(0, r.size());
+    }
+}
@@ -0,0 +1,142 @@
+package com.rngym.myapplication;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+/**
+ * Records a scripted run, writes and reads it back, and checks that the
+ * headless re-simulation ends in exactly the same state.
+ */
+public class ReplayTest {
+
+    private static final long TICK_NANOS = 1_000_000_000L / GameConfig.SIM_TICKS_PER_SECOND;
+    private static final int TICKS = 60 * 60; // a minute of play, past the grace period
+
+    // Picks an upgrade straight away so the run never stalls on a level-up
+    private static final class AutoPick implements Simulation.Listener {
+        String pending;
+        @Override public void onPopup(String template, int a, int b, float x, float y) {}
+        @Override public void onCatch() {}
+        @Override public void onMiss() {}
+        @Override public void onGameOver(int finalScore, int highScore) {}
+
+        @Override
+        public void onLevelUp(int level, int xp, UpgradeManager.Choice[] choices) {
+            pending = choices[0].key;
+        }
+    }
+
+    @Test
+    public void replayReproducesRecordedRun() throws IOException {
+        GameState.get().clearUpgrades();
+        GameState.get().setMaxStress(100f);
+
+        AutoPick listener = new AutoPick();
+        Simulation sim = new Simulation(1_000_000L);
+        sim.setListener(listener);
+        sim.setScreenSize(1080f, 2200f);
+        sim.beginRun(12345L);
+
+        ReplayRecorder recorder = new ReplayRecorder();
+        recorder.begin(sim, TICK_NANOS);
+        GameState gs = GameState.get();
+
+        for (int t = 0; t < TICKS; t++) {
+            if (listener.pending != null) {
+                recorder.pick(listener.pending);
+                sim.applyUpgrade(listener.pending);
+                gs.setPaused(false);
+                listener.pending = null;
+            }
+            // Chase the first ball
+            int inputs = 0;
+            if (sim.balls.size() > 0) {
+                float ballX = sim.balls.centerX(0);
+                float catX = sim.catX + sim.catW / 2f;
+                if (ballX < catX - 20f) inputs = Simulation.INPUT_LEFT;
+                else if (ballX > catX + 20f) inputs = Simulation.INPUT_RIGHT;
+            }
+            boolean paused = gs.isPaused();
+            recorder.tick(inputs, paused);
+            sim.step(inputs, paused, TICK_NANOS);
+        }
+        Replay recorded = recorder.snapshot(sim);
+        int score = gs.getScore();
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        recorded.write(bytes);
+        assertTrue("replay should be compact, was " + bytes.size() + " bytes", bytes.size() < TICKS / 2);
+
+        Replay loaded = Replay.read(new ByteArrayInputStream(bytes.toByteArray()));
+        assertEquals(recorded.tickCount, loaded.tickCount);
+        assertArrayEquals(recorded.ticks, loaded.ticks);
+        assertArrayEquals(recorded.pickTicks, loaded.pickTicks);
+        assertArrayEquals(recorded.pickKeys, loaded.pickKeys);
+
+        Simulation replayed = ReplayPlayer.play(loaded, null);
+        assertEquals(score, gs.getScore());
+        assertEquals(recorded.finalHash, replayed.stateHash());
+    }
+
+    @Test
+    public void pauseFlippedMidTickStillReplays() {
+        GameState.get().clearUpgrades();
+        GameState.get().setMaxStress(100f);
+        GameState gs = GameState.get();
+
+        AutoPick listener = new AutoPick();
+        Simulation sim = new Simulation(1_000_000L);
+        sim.setListener(listener);
+        sim.setScreenSize(1080f, 2200f);
+        sim.beginRun(4242L);
+
+        ReplayRecorder recorder = new ReplayRecorder();
+        recorder.begin(sim, TICK_NANOS);
+        for (int t = 0; t < TICKS; t++) {
+            if (listener.pending != null) {
+                recorder.pick(listener.pending);
+                sim.applyUpgrade(listener.pending);
+                gs.setPaused(false);
+                listener.pending = null;
+            }
+            boolean paused = gs.isPaused();
+            recorder.tick(0, paused);
+            // The UI thread toggles pause between the record and the step
+            if (t % 97 == 50) gs.setPaused(!paused);
+            sim.step(0, paused, TICK_NANOS);
+            if (t % 97 == 50) gs.setPaused(paused);
+        }
+        Replay recorded = recorder.snapshot(sim);
+
+        assertEquals(recorded.finalHash, ReplayPlayer.play(recorded, null).stateHash());
+    }
+
+    @Test
+    public void sameSeedSameRun() {
+        assertEquals(runIdle(7L), runIdle(7L));
+        assertNotEquals(runIdle(7L), runIdle(8L));
+    }
+
+    // Nudges the ball once, then lets boxes, bumpers, portals and black holes spawn
+    private static long runIdle(long seed) {
+        GameState.get().clearUpgrades();
+        Simulation sim = new Simulation(0L);
+        sim.setScreenSize(1080f, 2200f);
+        sim.beginRun(seed);
+        for (int t = 0; t < TICKS; t++) {
+            GameState.get().setPaused(false);
+            sim.step(t == 0 ? Simulation.INPUT_LEFT : 0, TICK_NANOS);
+        }
+        return sim.stateHash();
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsForeignFiles() throws IOException {
+        Replay.read(new ByteArrayInputStream(new byte[] {1, 2, 3, 4, 5, 6, 7, 8}));
+    }
+}
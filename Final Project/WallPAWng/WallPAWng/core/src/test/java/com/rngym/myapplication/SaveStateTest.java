@@ -0,0 +1,189 @@
+package com.rngym.myapplication;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Saves a run mid-play, restores it into a fresh Simulation and checks
+ * that both go on to end in exactly the same state.
+ */
+public class SaveStateTest {
+
+    private static final long TICK_NANOS = 1_000_000_000L / GameConfig.SIM_TICKS_PER_SECOND;
+    private static final int TICKS = 40 * 60;      // past the grace period, so everything spawns
+    private static final int MORE_TICKS = 20 * 60;
+
+    // Picks an upgrade straight away so the run never stalls on a level-up
+    private static final class AutoPick implements Simulation.Listener {
+        String pending;
+        @Override public void onPopup(String template, int a, int b, float x, float y) {}
+        @Override public void onCatch() {}
+        @Override public void onMiss() {}
+        @Override public void onGameOver(int finalScore, int highScore) {}
+
+        @Override
+        public void onLevelUp(int level, int xp, UpgradeManager.Choice[] choices) {
+            pending = choices[0].key;
+        }
+    }
+
+    @Test
+    public void seededRandomMatchesJavaUtilRandom() {
+        Random expected = new Random(42L);
+        SeededRandom actual = new SeededRandom();
+        actual.setSeed(42L);
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(expected.nextInt(), actual.nextInt());
+            assertEquals(expected.nextFloat(), actual.nextFloat(), 0f);
+            assertEquals(expected.nextInt(37), actual.nextInt(37));
+            assertEquals(expected.nextBoolean(), actual.nextBoolean());
+        }
+
+        // A restored stream picks up exactly where the saved one was
+        SeededRandom copy = new SeededRandom();
+        copy.setState(actual.getState());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(actual.nextLong(), copy.nextLong());
+        }
+    }
+
+    @Test
+    public void restoredRunPlaysOnIdentically() throws IOException {
+        GameState gs = GameState.get();
+        gs.clearUpgrades();
+        gs.setMaxStress(100f);
+
+        AutoPick listener = new AutoPick();
+        Simulation sim = new Simulation(5_000_000L);
+        sim.setListener(listener);
+        sim.setScreenSize(1080f, 2200f);
+        sim.beginRun(2024L);
+
+        // Play on until no level-up is waiting, so both runs continue alike
+        int t = 0;
+        while (t < TICKS || listener.pending != null || gs.isPaused()) {
+            tick(sim, listener, gs);
+            t++;
+        }
+        assertTrue(sim.isRunInProgress());
+        assertTrue("run should have boxes to save", sim.boxes.size() > 0);
+
+        SaveState saved = new SaveState();
+        saved.capture(sim);
+        byte[] bytes = write(saved);
+        assertTrue("save-state should be compact, was " + bytes.length + " bytes", bytes.length < 2048);
+
+        for (int i = 0; i < MORE_TICKS; i++) {
+            tick(sim, listener, gs);
+        }
+        long hash = sim.stateHash();
+        int score = gs.getScore();
+        SaveState end = new SaveState();
+        end.capture(sim);
+
+        // Wreck the shared GameState so only the save can bring it back
+        gs.resetRun(0L);
+        gs.clearUpgrades();
+        gs.setMaxStress(150f);
+
+        SaveState loaded = new SaveState();
+        loaded.read(new ByteArrayInputStream(bytes));
+        AutoPick otherListener = new AutoPick();
+        Simulation restored = new Simulation(0L);
+        restored.setListener(otherListener);
+        loaded.restore(restored);
+        gs.setPaused(false);
+
+        // Same bytes straight back out
+        SaveState again = new SaveState();
+        again.capture(restored);
+        assertArrayEquals(bytes, write(again));
+
+        for (int i = 0; i < MORE_TICKS; i++) {
+            tick(restored, otherListener, gs);
+        }
+        assertEquals(hash, restored.stateHash());
+        assertEquals(score, gs.getScore());
+        SaveState restoredEnd = new SaveState();
+        restoredEnd.capture(restored);
+        assertArrayEquals(write(end), write(restoredEnd));
+    }
+
+    @Test
+    public void layoutAfterRestoreKeepsTheRestoredRun() {
+        GameState gs = GameState.get();
+        gs.clearUpgrades();
+        gs.setMaxStress(100f);
+
+        AutoPick listener = new AutoPick();
+        Simulation sim = new Simulation(5_000_000L);
+        sim.setListener(listener);
+        sim.setScreenSize(1080f, 2200f);
+        sim.beginRun(77L);
+        for (int t = 0; t < 5 * 60; t++) {
+            tick(sim, listener, gs);
+        }
+        sim.catX = 40f;
+        SaveState saved = new SaveState();
+        saved.capture(sim);
+        assertTrue("run should have bumpers to save", saved.bumperCount > 0);
+
+        // Cold start: the restore lands before the first layout reports a size
+        Simulation restored = new Simulation(0L);
+        saved.restore(restored);
+        restored.setScreenSize(1080f, 2200f);
+
+        assertEquals(40f, restored.catX, 0f);
+        assertEquals(saved.catY, restored.catY, 0f);
+        assertBumpersMatch(saved, restored);
+
+        // A rotation mid-run resizes the field but keeps the bumpers
+        restored.setScreenSize(2200f, 1080f);
+        assertTrue(restored.isRunInProgress());
+        assertEquals(40f, restored.catX, 0f);
+        assertBumpersMatch(saved, restored);
+    }
+
+    private static void assertBumpersMatch(SaveState saved, Simulation sim) {
+        assertEquals(saved.bumperCount, sim.bumperSystem.getBumpers().size());
+        for (int i = 0; i < saved.bumperCount; i++) {
+            FRect r = sim.bumperSystem.getBumpers().get(i).rect;
+            assertEquals(saved.bumperRects[i].left, r.left, 0f);
+            assertEquals(saved.bumperRects[i].top, r.top, 0f);
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsForeignFiles() throws IOException {
+        new SaveState().read(new ByteArrayInputStream(new byte[] {1, 2, 3, 4, 5, 6, 7, 8}));
+    }
+
+    // Chase the first ball, applying any upgrade picked on the last tick
+    private static void tick(Simulation sim, AutoPick listener, GameState gs) {
+        if (listener.pending != null) {
+            sim.applyUpgrade(listener.pending);
+            gs.setPaused(false);
+            listener.pending = null;
+        }
+        int inputs = 0;
+        if (sim.balls.size() > 0) {
+            float ballX = sim.balls.centerX(0);
+            float catX = sim.catX + sim.catW / 2f;
+            if (ballX < catX - 20f) inputs = Simulation.INPUT_LEFT;
+            else if (ballX > catX + 20f) inputs = Simulation.INPUT_RIGHT;
+        }
+        sim.step(inputs, TICK_NANOS);
+    }
+
+    private static byte[] write(SaveState s) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        s.write(out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,89 @@
+package com.rngym.myapplication;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class SpriteCacheTest {
+
+    // "Sprites" are int[] {width, height}, one byte per pixel
+    private static class FakeScaler implements SpriteCache.Scaler<int[]> {
+        int scaled = 0;
+        final List<int[]> released = new ArrayList<>();
+
+        @Override
+        public int[] scale(int spriteId, int[] source, int width, int height) {
+            scaled++;
+            return new int[] {width, height};
+        }
+
+        @Override
+        public long byteCount(int[] sprite) {
+            return (long) sprite[0] * sprite[1];
+        }
+
+        @Override
+        public void release(int[] sprite) {
+            released.add(sprite);
+        }
+    }
+
+    private static final int[] SOURCE = {64, 64};
+
+    @Test
+    public void nearbySizesShareOneSprite() {
+        FakeScaler scaler = new FakeScaler();
+        SpriteCache<int[]> cache = new SpriteCache<>(scaler, 1L << 20, 4);
+
+        int[] a = cache.get(0, SOURCE, 31f, 31f);
+        int[] b = cache.get(0, SOURCE, 32.9f, 33.4f);
+        assertSame(a, b);
+        assertEquals(32, a[0]);
+        assertEquals(1, scaler.scaled);
+        assertEquals(1L, cache.getHits());
+        assertEquals(1L, cache.getMisses());
+
+        // Same size, different sprite id
+        assertNotSame(a, cache.get(1, SOURCE, 32f, 32f));
+        assertEquals(2, cache.size());
+        assertNull(cache.get(2, null, 32f, 32f));
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsedWithinBudget() {
+        FakeScaler scaler = new FakeScaler();
+        SpriteCache<int[]> cache = new SpriteCache<>(scaler, 3 * 100L, 10);
+
+        int[] s10 = cache.get(0, SOURCE, 10f, 10f);
+        int[] s20 = cache.get(1, SOURCE, 10f, 10f);
+        int[] s30 = cache.get(2, SOURCE, 10f, 10f);
+        cache.get(0, SOURCE, 10f, 10f); // touch sprite 0
+        cache.get(3, SOURCE, 10f, 10f);
+
+        assertEquals(3, cache.size());
+        assertEquals(300L, cache.getUsedBytes());
+        assertEquals(1L, cache.getEvictions());
+        assertEquals(1, scaler.released.size());
+        assertSame(s20, scaler.released.get(0));
+        assertSame(s10, cache.get(0, SOURCE, 10f, 10f));
+        assertSame(s30, cache.get(2, SOURCE, 10f, 10f));
+    }
+
+    @Test
+    public void clearReleasesEverything() {
+        FakeScaler scaler = new FakeScaler();
+        SpriteCache<int[]> cache = new SpriteCache<>(scaler, 1L << 20, 4);
+        for (int size = 4; size <= 64; size += 4) {
+            cache.get(0, SOURCE, size, size);
+        }
+        assertEquals(16, cache.size());
+
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(0L, cache.getUsedBytes());
+        assertEquals(16, scaler.released.size());
+    }
+}
@@ -0,0 +1,62 @@
+package com.rngym.myapplication;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class TripleBufferTest {
+
+    @Test
+    public void consumerGetsNewestAndSlotsNeverShared() {
+        TripleBuffer<int[]> tb = new TripleBuffer<>(new int[1], new int[1], new int[1]);
+        int[] first = tb.latest();
+
+        tb.back()[0] = 1;
+        tb.publish();
+        tb.back()[0] = 2;
+        tb.publish();
+        assertTrue(tb.hasFresh());
+
+        int[] seen = tb.latest();
+        assertEquals(2, seen[0]);
+        assertFalse(tb.hasFresh());
+        assertSame(seen, tb.latest());
+
+        // The producer never writes into what the consumer holds
+        assertNotSame(seen, tb.back());
+        assertNotSame(first, seen);
+    }
+
+    @Test
+    public void concurrentReadsAreNeverTorn() throws Exception {
+        // Each value is {seq, seq * 31}; a torn read breaks the pair
+        TripleBuffer<long[]> tb = new TripleBuffer<>(new long[2], new long[2], new long[2]);
+        final long total = 2_000_000L;
+        AtomicReference<String> failure = new AtomicReference<>();
+
+        Thread producer = new Thread(() -> {
+            for (long seq = 1; seq <= total; seq++) {
+                long[] v = tb.back();
+                v[0] = seq;
+                v[1] = seq * 31L;
+                tb.publish();
+            }
+        });
+        producer.start();
+
+        long last = 0L;
+        while (last < total && failure.get() == null) {
+            long[] v = tb.latest();
+            if (v[1] != v[0] * 31L) failure.set("torn read at " + v[0]);
+            if (v[0] < last) failure.set("went back from " + last + " to " + v[0]);
+            last = v[0];
+            if (!producer.isAlive() && !tb.hasFresh() && last < total) failure.set("lost the last value");
+        }
+        producer.join();
+
+        assertNull(failure.get());
+        assertEquals(total, tb.latest()[0]);
+    }
+}
@@ -0,0 +1,84 @@
+package com.rngym.myapplication;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class WorldSnapshotTest {
+
+    @Test
+    public void captureCopiesWithoutAliasing() {
+        Simulation sim = new Simulation(1_000L);
+        sim.setScreenSize(1080f, 2200f);
+        sim.clearGameObjects();
+        sim.addBox(new Box(new FRect(10f, 20f, 110f, 80f), 3, 0, 0));
+        for (int i = 0; i < 100; i++) {
+            sim.balls.add(i * 5f, 300f, 40f, 1f, 2f, i % 2 == 0 ? BallBuffer.FLAG_SMALL : 0, sim.now());
+        }
+        PopupRing popups = new PopupRing(4, 1000L, -40f);
+        popups.spawn("+# XP", 7, 0, 50f, 60f, 0L);
+
+        WorldSnapshot s = new WorldSnapshot();
+        s.capture(sim, popups, 123L, 456L);
+
+        assertEquals(100, s.ballCount);
+        assertEquals(495f, s.ballX[99], 0f);
+        assertTrue(s.ballSmall[0]);
+        assertFalse(s.ballSmall[1]);
+        assertEquals(1, s.boxCount);
+        assertEquals(3, s.boxHp[0]);
+        assertEquals(110f, s.boxRects[0].right, 0f);
+        assertEquals(1, s.popupCount);
+        assertEquals("+7 XP", new String(s.popupText[0], 0, s.popupLength[0]));
+        assertEquals(123L, s.tickStartNanos);
+
+        // Later changes to the world leave the snapshot alone
+        sim.boxes.get(0).rect.right = 999f;
+        sim.balls.x[0] = -1f;
+        assertEquals(110f, s.boxRects[0].right, 0f);
+        assertEquals(0f, s.ballX[0], 0f);
+
+        // Near the end of its life the popup draws with the last paint
+        assertEquals(0, s.popupBucket(0, 16));
+        popups.update(950L);
+        s.capture(sim, popups, 123L, 456L);
+        assertEquals(15, s.popupBucket(0, 16));
+    }
+
+    @Test
+    public void staticKeyTracksBoxesAndStillBumpers() {
+        Simulation sim = new Simulation(1_000L);
+        sim.setScreenSize(1080f, 2200f);
+        sim.clearGameObjects();
+        Box box = new Box(new FRect(10f, 20f, 110f, 80f), 3, 0, 0);
+        sim.addBox(box);
+        Bumper spinner = new Bumper(new FRect(300f, 300f, 400f, 320f), 0f, true, 1f, 0L, 100_000L);
+        sim.bumperSystem.add(spinner);
+        PopupRing popups = new PopupRing(4, 1000L, -40f);
+
+        WorldSnapshot s = new WorldSnapshot();
+        s.capture(sim, popups, 0L, 1L);
+        long key = s.staticKey;
+
+        // Balls, popups and rotating bumpers are drawn every frame anyway
+        sim.balls.add(0f, 0f, 40f, 1f, 1f, 0, sim.now());
+        popups.spawn("hi", 0, 0, 0f, 0f, 0L);
+        spinner.rect.left = 310f;
+        s.capture(sim, popups, 0L, 1L);
+        assertEquals(key, s.staticKey);
+
+        box.hp = 2;
+        s.capture(sim, popups, 0L, 1L);
+        assertNotEquals(key, s.staticKey);
+        key = s.staticKey;
+
+        sim.bumperSystem.add(new Bumper(new FRect(500f, 500f, 600f, 520f), 0f, false, 1f, 0L, 100_000L));
+        s.capture(sim, popups, 0L, 1L);
+        assertNotEquals(key, s.staticKey);
+        key = s.staticKey;
+
+        sim.removeBox(box);
+        s.capture(sim, popups, 0L, 1L);
+        assertNotEquals(key, s.staticKey);
+    }
+}
@@ -0,0 +1,168 @@
+package com.rngym.myapplication;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class WriteBehindStoreTest {
+
+    // In-memory store that counts what reaches it
+    private static final class MemoryStore implements GameState.Store {
+        final Map<String, Object> values = new HashMap<>();
+        int writes = 0;
+        int clears = 0;
+        final CountDownLatch flushed = new CountDownLatch(1);
+
+        @Override public synchronized int getInt(String key, int def) {
+            Object v = values.get(key);
+            return v == null ? def : (Integer) v;
+        }
+
+        @Override @SuppressWarnings("unchecked")
+        public synchronized Set<String> getStringSet(String key, Set<String> def) {
+            Object v = values.get(key);
+            return v == null ? def : (Set<String>) v;
+        }
+
+        @Override public synchronized void putInt(String key, int value) {
+            values.put(key, value);
+            writes++;
+        }
+
+        @Override public synchronized void putStringSet(String key, Set<String> v) {
+            values.put(key, v);
+            writes++;
+        }
+
+        @Override public synchronized void clear() {
+            values.clear();
+            clears++;
+        }
+
+        @Override public void flush() {
+            flushed.countDown();
+        }
+    }
+
+    // Backing store that only applies writes on flush(), like PrefsStore
+    private static final class BufferingStore implements GameState.Store {
+        final MemoryStore applied = new MemoryStore();
+        final Map<String, Integer> staged = new HashMap<>();
+        int flushes = 0;
+
+        @Override public int getInt(String key, int def) {
+            return applied.getInt(key, def);
+        }
+
+        @Override public Set<String> getStringSet(String key, Set<String> def) {
+            return applied.getStringSet(key, def);
+        }
+
+        @Override public void putInt(String key, int value) {
+            staged.put(key, value);
+        }
+
+        @Override public void putStringSet(String key, Set<String> v) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override public void clear() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override public void flush() {
+            for (Map.Entry<String, Integer> e : staged.entrySet()) {
+                applied.putInt(e.getKey(), e.getValue());
+            }
+            staged.clear();
+            flushes++;
+        }
+    }
+
+    @Test
+    public void everyBatchIsFlushedThroughABufferingStore() {
+        BufferingStore backing = new BufferingStore();
+        WriteBehindStore store = new WriteBehindStore(backing, 60_000L);
+
+        store.putInt("highscore", 10);
+        store.flush();
+        assertEquals(1, backing.flushes);
+        assertTrue(backing.staged.isEmpty());
+        assertEquals(10, backing.getInt("highscore", 0));
+
+        // A second batch lands too, not just the first
+        store.putInt("highscore", 20);
+        store.flush();
+        assertEquals(2, backing.flushes);
+        assertEquals(20, backing.getInt("highscore", 0));
+    }
+
+    @Test
+    public void coalescesRepeatedWritesIntoOneBatch() {
+        MemoryStore backing = new MemoryStore();
+        WriteBehindStore store = new WriteBehindStore(backing, 60_000L);
+
+        // A combo streak: a new max on every catch
+        for (int combo = 1; combo <= 100; combo++) {
+            store.putInt("max_combo_ever", combo);
+        }
+        store.putStringSet("upgrades", Collections.singleton("wide_cat"));
+
+        assertEquals(0, backing.writes);
+        assertTrue(store.isDirty());
+        assertEquals(100, store.getInt("max_combo_ever", 0));
+
+        store.flush();
+        assertEquals(2, backing.writes);
+        assertEquals(100, backing.getInt("max_combo_ever", 0));
+        assertEquals(101, store.getWrites());
+        assertEquals(1, store.getFlushes());
+        assertFalse(store.isDirty());
+
+        // Nothing new, nothing written
+        store.flush();
+        assertEquals(2, backing.writes);
+        assertEquals(1, store.getFlushes());
+    }
+
+    @Test
+    public void flushesByItselfAfterTheInterval() throws Exception {
+        MemoryStore backing = new MemoryStore();
+        WriteBehindStore store = new WriteBehindStore(backing, 20L);
+
+        store.putInt("highscore", 1234);
+        assertTrue(backing.flushed.await(5, TimeUnit.SECONDS));
+        assertEquals(1234, backing.getInt("highscore", 0));
+    }
+
+    @Test
+    public void clearDropsEarlierWritesButKeepsLaterOnes() {
+        MemoryStore backing = new MemoryStore();
+        backing.putInt("highscore", 50);
+        backing.putStringSet("upgrades", new HashSet<>(Collections.singleton("wide_cat")));
+        WriteBehindStore store = new WriteBehindStore(backing, 60_000L);
+
+        store.putInt("highscore", 99);
+        store.clear();
+        store.putInt("max_combo_ever", 3);
+
+        // Reads see the pending state, not what's on disk
+        assertEquals(0, store.getInt("highscore", 0));
+        assertEquals(3, store.getInt("max_combo_ever", 0));
+        assertTrue(store.getStringSet("upgrades", new HashSet<>()).isEmpty());
+
+        store.flush();
+        assertEquals(1, backing.clears);
+        assertEquals(0, backing.getInt("highscore", 0));
+        assertEquals(3, backing.getInt("max_combo_ever", 0));
+        assertTrue(backing.getStringSet("upgrades", new HashSet<>()).isEmpty());
+    }
+}
@@ -21,3 +21,5 @@ dependencyResolutionManagement {
 
 rootProject.name = "WallPAWng"
 include(":app")
+include(":core")
+include(":benchmark")